@@ -0,0 +1,285 @@
+package org.cyberborean.rdfbeans;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.Resource;
+
+/**
+ * Asynchronous facade of {@link RDFBeanManagerContext}.
+ * 
+ * Every method submits the corresponding blocking operation as a task to
+ * an Executor and returns a CompletableFuture of its result. Exceptions are
+ * reported by completing the future exceptionally.
+ * 
+ * Each task works on its own RepositoryConnection, which is released when
+ * the task completes. This makes the facade safe to use with any
+ * Executor, including thread-per-task executors, but means that the tasks
+ * cannot take part in a transaction started on the caller's connection:
+ * every task is committed on its own.
+ * 
+ * Instances are obtained with {@link RDFBeanManagerContext#async()} or
+ * {@link RDFBeanManagerContext#async(Executor)}.
+ * 
+ */
+public class AsyncRDFBeanManagerContext {
+
+	private static volatile ExecutorService defaultExecutor;
+
+	private final RDFBeanManagerContext context;
+	private final Executor executor;
+
+	AsyncRDFBeanManagerContext(RDFBeanManagerContext context, Executor executor) {
+		this.context = context;
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns a shared Executor used by {@link RDFBeanManagerContext#async()}.
+	 * 
+	 * On Java runtimes with virtual threads, it is a virtual-thread-per-task
+	 * executor. Otherwise, it is an unbounded pool of daemon threads.
+	 * 
+	 * @return the default Executor instance
+	 */
+	public static Executor getDefaultExecutor() {
+		if (defaultExecutor == null) {
+			synchronized (AsyncRDFBeanManagerContext.class) {
+				if (defaultExecutor == null) {
+					defaultExecutor = createDefaultExecutor();
+				}
+			}
+		}
+		return defaultExecutor;
+	}
+
+	private static ExecutorService createDefaultExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (Exception e) {
+			// no virtual threads in this runtime
+		}
+		return Executors.newCachedThreadPool(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "rdfbeans-async");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+
+	/**
+	 * @return the synchronous RDFBeanManagerContext of this facade
+	 */
+	public RDFBeanManagerContext getContext() {
+		return context;
+	}
+
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * @see RDFBeanManagerContext#add(Object)
+	 */
+	public CompletableFuture<Resource> add(final Object o) {
+		return submit(new Supplier<Resource>() {
+
+			@Override
+			public Resource get() {
+				return context.add(o);
+			}
+		});
+	}
+
+	/**
+	 * @see RDFBeanManagerContext#update(Object)
+	 */
+	public CompletableFuture<Resource> update(final Object o) {
+		return submit(new Supplier<Resource>() {
+
+			@Override
+			public Resource get() {
+				return context.update(o);
+			}
+		});
+	}
+
+	/**
+	 * @see RDFBeanManagerContext#get(Resource, Class)
+	 */
+	public <T> CompletableFuture<T> get(final Resource r, final Class<T> rdfBeanClass) {
+		return submit(new Supplier<T>() {
+
+			@Override
+			public T get() {
+				return context.get(r, rdfBeanClass);
+			}
+		});
+	}
+
+	/**
+	 * @see RDFBeanManagerContext#get(Resource)
+	 */
+	public CompletableFuture<Object> get(final Resource r) {
+		return submit(new Supplier<Object>() {
+
+			@Override
+			public Object get() {
+				return context.get(r);
+			}
+		});
+	}
+
+	/**
+	 * @see RDFBeanManagerContext#get(String, Class)
+	 */
+	public <T> CompletableFuture<T> get(final String stringId, final Class<T> rdfBeanClass) {
+		return submit(new Supplier<T>() {
+
+			@Override
+			public T get() {
+				return context.get(stringId, rdfBeanClass);
+			}
+		});
+	}
+
+	/**
+	 * Restores all objects of the specified Java class into a list.
+	 * 
+	 * @see RDFBeanManagerContext#getAll(Class)
+	 */
+	public <T> CompletableFuture<List<T>> getAll(final Class<T> rdfBeanClass) {
+		return submit(new Supplier<List<T>>() {
+
+			@Override
+			public List<T> get() {
+				List<T> result = new ArrayList<T>();
+				try {
+					CloseableIteration<T, Exception> iter = context.getAll(rdfBeanClass);
+					try {
+						while (iter.hasNext()) {
+							result.add(iter.next());
+						}
+					} finally {
+						iter.close();
+					}
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new RDFBeanException(e);
+				}
+				return result;
+			}
+		});
+	}
+
+	/**
+	 * @see RDFBeanManagerContext#isResourceExist(Resource)
+	 */
+	public CompletableFuture<Boolean> isResourceExist(final Resource r) {
+		return submit(new Supplier<Boolean>() {
+
+			@Override
+			public Boolean get() {
+				return context.isResourceExist(r);
+			}
+		});
+	}
+
+	/**
+	 * @see RDFBeanManagerContext#delete(Resource)
+	 */
+	public CompletableFuture<Boolean> delete(final Resource uri) {
+		return submit(new Supplier<Boolean>() {
+
+			@Override
+			public Boolean get() {
+				return context.delete(uri);
+			}
+		});
+	}
+
+	/**
+	 * @see RDFBeanManagerContext#delete(String, Class)
+	 */
+	public CompletableFuture<Void> delete(final String stringId, final Class<?> rdfBeanClass) {
+		return submit(new Supplier<Void>() {
+
+			@Override
+			public Void get() {
+				context.delete(stringId, rdfBeanClass);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * @see RDFBeanManagerContext#create(Resource, Class)
+	 */
+	public <T> CompletableFuture<T> create(final Resource r, final Class<T> iface) {
+		return submit(new Supplier<T>() {
+
+			@Override
+			public T get() {
+				return context.create(r, iface);
+			}
+		});
+	}
+
+	/**
+	 * @see RDFBeanManagerContext#create(String, Class)
+	 */
+	public <T> CompletableFuture<T> create(final String id, final Class<T> iface) {
+		return submit(new Supplier<T>() {
+
+			@Override
+			public T get() {
+				return context.create(id, iface);
+			}
+		});
+	}
+
+	/**
+	 * @see RDFBeanManagerContext#createAll(Class)
+	 */
+	public <T> CompletableFuture<Collection<T>> createAll(final Class<T> iface) {
+		return submit(new Supplier<Collection<T>>() {
+
+			@Override
+			public Collection<T> get() {
+				return context.createAll(iface);
+			}
+		});
+	}
+
+	private <T> CompletableFuture<T> submit(final Supplier<T> task) {
+		return CompletableFuture.supplyAsync(new Supplier<T>() {
+
+			@Override
+			public T get() {
+				// the executor may run the task on the caller's thread: keep
+				// its connection (and transaction)
+				boolean borrowed = !context.connectionPool.hasConnection();
+				try {
+					return task.get();
+				} finally {
+					if (borrowed) {
+						context.connectionPool.releaseConnection();
+					}
+				}
+			}
+		}, executor);
+	}
+}
@@ -1,16 +1,32 @@
 package org.cyberborean.rdfbeans;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.cyberborean.rdfbeans.datatype.DatatypeMapper;
 import org.cyberborean.rdfbeans.datatype.DefaultDatatypeMapper;
+import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
 import org.cyberborean.rdfbeans.impl.Marshaller;
 import org.cyberborean.rdfbeans.impl.RepositoryConnectionPool;
 import org.cyberborean.rdfbeans.impl.Unmarshaller;
+import org.cyberborean.rdfbeans.proxy.ProxyEventDispatcher;
+import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.cyberborean.rdfbeans.util.ClassScanner;
 import org.cyberborean.rdfbeans.util.LockKeeper;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 
 /**
@@ -29,14 +45,72 @@ public class RDFBeanManager extends RDFBeanManagerContext implements AutoCloseab
 	 *            RDF4J Repository.
 	 */
 	public RDFBeanManager(Repository repo) {
+		this(repo, LockKeeper.DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Creates new RDFBeanManager instance backed by the given RDF4J Repository.
+	 * 
+	 * @param repo
+	 *            RDF4J Repository.
+	 * @param lockStripes
+	 *            Number of lock stripes the RDF resources are hashed to. More
+	 *            stripes lower the chance of unrelated resources contending
+	 *            for the same lock.
+	 */
+	public RDFBeanManager(Repository repo, int lockStripes) {
+		this(new RepositoryConnectionPool(repo), lockStripes);
+	}
+
+	/**
+	 * Creates new RDFBeanManager instance obtaining the connections to RDF4J
+	 * Repository from the given pool.
+	 * 
+	 * @param connectionPool
+	 *            Pool of RepositoryConnection objects, e.g. a bounded one.
+	 */
+	public RDFBeanManager(RepositoryConnectionPool connectionPool) {
+		this(connectionPool, LockKeeper.DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Creates new RDFBeanManager instance obtaining the connections to RDF4J
+	 * Repository from the given pool.
+	 * 
+	 * @param connectionPool
+	 *            Pool of RepositoryConnection objects, e.g. a bounded one.
+	 * @param lockStripes
+	 *            Number of lock stripes the RDF resources are hashed to.
+	 */
+	public RDFBeanManager(RepositoryConnectionPool connectionPool, int lockStripes) {
 		super(null);
-		connectionPool = new RepositoryConnectionPool(repo);
-		lockKeeper = new LockKeeper();
+		this.connectionPool = connectionPool;
+		lockKeeper = new LockKeeper(lockStripes);
 		marshaller = new Marshaller(lockKeeper, new DefaultDatatypeMapper());
 		unmarshaller = new Unmarshaller(lockKeeper, new DefaultDatatypeMapper(),
 				this.getClass().getClassLoader());
 	}
 
+	/**
+	 * Returns the keeper of resource locks of this RDFBeanManager, which
+	 * exposes the lock contention counters.
+	 * 
+	 * @return the LockKeeper instance
+	 */
+	public LockKeeper getLockKeeper() {
+		return lockKeeper;
+	}
+
+	/**
+	 * Returns the pool of RepositoryConnection objects of this
+	 * RDFBeanManager, which exposes the pool settings and counters.
+	 * 
+	 * @return the RepositoryConnectionPool instance
+	 */
+	public RepositoryConnectionPool getConnectionPool() {
+		return connectionPool;
+	}
+
 	public RDFBeanManagerContext getContext(IRI iri) {
 		if (iri == null) {
 			return this;
@@ -54,12 +128,127 @@ public class RDFBeanManager extends RDFBeanManagerContext implements AutoCloseab
 	 * Closes this RDFBeanManager instance and RepositoryConnection objects for
 	 * all threads.
 	 * 
+	 * Pending proxy events are delivered before the connections are closed.
+	 * 
 	 */
 	@Override
 	public void close() throws RepositoryException {
+		// contexts share the dispatcher of the manager unless set otherwise
+		Set<ProxyEventDispatcher> dispatchers = Collections.newSetFromMap(new IdentityHashMap<ProxyEventDispatcher, Boolean>());
+		for (RDFBeanManagerContext context : contexts.values()) {
+			dispatchers.add(context.getProxyEventDispatcher());
+		}
+		dispatchers.add(getProxyEventDispatcher());
+		for (ProxyEventDispatcher dispatcher : dispatchers) {
+			dispatcher.close();
+		}
 		connectionPool.closeAll();
 	}
 
+	/**
+	 * Builds the metadata of all RDFBean classes in the given packages (and
+	 * their subpackages) in parallel, so that the first requests do not pay
+	 * for the introspection.
+	 * 
+	 * The classes are found in the class path of the ClassLoader of this
+	 * RDFBeanManager (see {@link #setClassLoader(ClassLoader)}).
+	 * 
+	 * @param packageNames
+	 *            fully qualified package names
+	 * @return the report with the introspection time of every class
+	 * @throws RDFBeanException
+	 *             if the class path cannot be scanned
+	 * @throws RepositoryException
+	 * @see #warmUp(Collection, ForkJoinPool)
+	 */
+	public WarmUpReport warmUp(String... packageNames) throws RDFBeanException, RepositoryException {
+		List<Class<?>> classes = new ArrayList<>();
+		for (String packageName : packageNames) {
+			List<Class<?>> found;
+			try {
+				found = ClassScanner.findClasses(packageName, getClassLoader());
+			} catch (IOException e) {
+				throw new RDFBeanException("Cannot scan package " + packageName, e);
+			}
+			for (Class<?> cls : found) {
+				if (RDFBeanInfo.isRdfBeanClass(cls)) {
+					classes.add(cls);
+				}
+			}
+		}
+		return warmUp(classes);
+	}
+
+	/**
+	 * Builds the metadata of the given RDFBean classes in parallel on the
+	 * common ForkJoinPool.
+	 * 
+	 * @param classes
+	 *            RDFBean classes and interfaces
+	 * @return the report with the introspection time of every class
+	 * @throws RepositoryException
+	 * @see #warmUp(Collection, ForkJoinPool)
+	 */
+	public WarmUpReport warmUp(Collection<Class<?>> classes) throws RDFBeanException, RepositoryException {
+		return warmUp(classes, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Builds the metadata of the given RDFBean classes in parallel.
+	 * 
+	 * For every class, the RDFBeanInfo (with generated accessors, if any) and
+	 * the RDF schema statements written with its objects are resolved on the
+	 * pool. Then the binding classes of their RDF types already stored in
+	 * the repository are resolved on the calling thread. A class which is
+	 * not a valid RDFBean class is reported as failed and does not stop the
+	 * warm-up of the others.
+	 * 
+	 * @param classes
+	 *            RDFBean classes and interfaces
+	 * @param pool
+	 *            the pool to run the introspection on
+	 * @return the report with the introspection time of every class
+	 * @throws RepositoryException
+	 */
+	public WarmUpReport warmUp(Collection<Class<?>> classes, ForkJoinPool pool) throws RDFBeanException, RepositoryException {
+		long start = System.nanoTime();
+		List<ForkJoinTask<WarmUpReport.Entry>> tasks = new ArrayList<>(classes.size());
+		for (final Class<?> cls : classes) {
+			tasks.add(pool.submit(new Callable<WarmUpReport.Entry>() {
+
+				@Override
+				public WarmUpReport.Entry call() {
+					long classStart = System.nanoTime();
+					try {
+						RDFBeanInfo.get(cls);
+						marshaller.warmUp(cls);
+						return new WarmUpReport.Entry(cls, System.nanoTime() - classStart, null);
+					} catch (RDFBeanException e) {
+						return new WarmUpReport.Entry(cls, System.nanoTime() - classStart, e);
+					}
+				}
+			}));
+		}
+		List<WarmUpReport.Entry> entries = new ArrayList<>(tasks.size());
+		Set<IRI> types = new HashSet<>();
+		for (ForkJoinTask<WarmUpReport.Entry> task : tasks) {
+			WarmUpReport.Entry entry = task.join();
+			entries.add(entry);
+			if (entry.getError() == null) {
+				types.add(RDFBeanInfo.get(entry.getRDFBeanClass()).getRDFType());
+			}
+		}
+		RepositoryConnection conn = getRepositoryConnection();
+		for (IRI type : types) {
+			try {
+				unmarshaller.warmUp(conn, type);
+			} catch (RDFBeanException e) {
+				// the bound class is not available, the lookup fails on use
+			}
+		}
+		return new WarmUpReport(entries, System.nanoTime() - start);
+	}
+
 	
 	// ============================ Common methods =============================
 
@@ -1,11 +1,17 @@
 package org.cyberborean.rdfbeans;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Vector;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import org.cyberborean.rdfbeans.annotations.RDFBean;
@@ -13,16 +19,27 @@ import org.cyberborean.rdfbeans.annotations.RDFSubject;
 import org.cyberborean.rdfbeans.datatype.DatatypeMapper;
 import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
 import org.cyberborean.rdfbeans.exceptions.RDFBeanValidationException;
+import org.cyberborean.rdfbeans.impl.ChangeSet;
+import org.cyberborean.rdfbeans.impl.IterationPublisher;
 import org.cyberborean.rdfbeans.impl.Marshaller;
 import org.cyberborean.rdfbeans.impl.RepositoryConnectionPool;
 import org.cyberborean.rdfbeans.impl.Unmarshaller;
+import org.cyberborean.rdfbeans.proxy.AsyncProxyEventDispatcher;
+import org.cyberborean.rdfbeans.proxy.DirectProxyEventDispatcher;
+import org.cyberborean.rdfbeans.proxy.ProxyEvent;
+import org.cyberborean.rdfbeans.proxy.ProxyEventDispatcher;
 import org.cyberborean.rdfbeans.proxy.ProxyInstancesPool;
 import org.cyberborean.rdfbeans.proxy.ProxyListener;
+import org.cyberborean.rdfbeans.query.Aggregate;
+import org.cyberborean.rdfbeans.query.Criterion;
+import org.cyberborean.rdfbeans.query.Page;
+import org.cyberborean.rdfbeans.query.Query;
 import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
 import org.cyberborean.rdfbeans.reflect.SubjectProperty;
 import org.cyberborean.rdfbeans.util.LockKeeper;
 import org.eclipse.rdf4j.RDF4JException;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
@@ -33,10 +50,15 @@ import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.reactivestreams.Publisher;
 
 public class RDFBeanManagerContext {
 	
-	private List<ProxyListener> proxyListeners = new Vector<ProxyListener>();
+	private static final int PROXY_BATCH_SIZE = 100;
+	private static final int DELETE_BATCH_SIZE = 1000;
+
+	private volatile List<ProxyListener> proxyListeners = Collections.emptyList();
+	private volatile ProxyEventDispatcher proxyEventDispatcher = new DirectProxyEventDispatcher();
 
 	private final IRI context;
 	protected RepositoryConnectionPool connectionPool;
@@ -57,6 +79,7 @@ public class RDFBeanManagerContext {
 		this.lockKeeper = parent.lockKeeper;		
 		this.marshaller = parent.marshaller;
 		this.unmarshaller = parent.unmarshaller;
+		this.proxyEventDispatcher = parent.proxyEventDispatcher;
 	}
 
 	/**
@@ -69,6 +92,22 @@ public class RDFBeanManagerContext {
 	public RepositoryConnection getRepositoryConnection() {
 		return connectionPool.getConnection();
 	}
+
+	/**
+	 * Ends the unit of work of the current thread and releases its
+	 * RepositoryConnection to the pool. An active transaction on the
+	 * connection is rolled back. The next operation on this thread obtains
+	 * a connection again.
+	 * 
+	 * With a bounded connection pool, threads should call this method when
+	 * they complete a unit of work, so that the connection can be reused by
+	 * other threads.
+	 * 
+	 * @see RepositoryConnectionPool#releaseConnection()
+	 */
+	public void releaseRepositoryConnection() throws RepositoryException {
+		connectionPool.releaseConnection();
+	}
 	
 	
 	/**
@@ -138,7 +177,7 @@ public class RDFBeanManagerContext {
 	 *             If class of the object is not a valid RDFBean class
 	 * @throws RepositoryException
 	 */
-	public synchronized Resource update(Object o) throws RDFBeanException, RepositoryException {
+	public Resource update(Object o) throws RDFBeanException, RepositoryException {
 		return addOrUpdate(o, true);
 	}
 
@@ -161,9 +200,6 @@ public class RDFBeanManagerContext {
 	 * @throws RDF4JException
 	 */
 	public <T> T get(Resource r, Class<T> rdfBeanClass) throws RDFBeanException, RDF4JException {
-		if (!isResourceExist(r)) {
-			return null;
-		}
 		return _get(r, rdfBeanClass);
 	}
 
@@ -213,9 +249,9 @@ public class RDFBeanManagerContext {
 	 * 
 	 */
 	public <T> T get(String stringId, Class<T> rdfBeanClass) throws RDFBeanException, RDF4JException {
-		Resource r = getResource(stringId, rdfBeanClass);
-		if (r != null) {
-			return get(r, rdfBeanClass);
+		SubjectProperty subject = RDFBeanInfo.get(rdfBeanClass).getSubjectProperty();
+		if (subject != null) {
+			return _get(subject.getUri(stringId), rdfBeanClass);
 		}
 		return null;
 	}
@@ -294,6 +330,148 @@ public class RDFBeanManagerContext {
 		};
 	}
 
+	/**
+	 * Returns a Reactive Streams Publisher of all instances of the specified
+	 * Java class from their representations in the underlying RDF model.
+	 * 
+	 * The class must conform to the RDFBean specification.
+	 * 
+	 * Every subscriber gets its own {@link #getAll(Class)} iteration, which
+	 * is read and unmarshalled on an Executor thread only as far as the
+	 * subscriber has requested. The iteration and the connection of that
+	 * thread are released when the subscription completes or is cancelled.
+	 * 
+	 * @param rdfBeanClass
+	 *            Java class of objects to publish
+	 * @param executor
+	 *            Executor to run the subscriptions
+	 * @return Publisher of instances of the specified Java class
+	 * @throws RDFBeanException
+	 *             If the class is not a valid RDFBean class
+	 */
+	public <T> Publisher<T> getAllPublisher(final Class<T> rdfBeanClass, Executor executor)
+			throws RDFBeanException {
+		RDFBeanInfo.get(rdfBeanClass);
+		return new IterationPublisher<T>(new IterationPublisher.IterationFactory<T>() {
+
+			@Override
+			public CloseableIteration<T, Exception> open() throws Exception {
+				return getAll(rdfBeanClass);
+			}
+		}, executor, connectionPool);
+	}
+
+	/**
+	 * Returns a Reactive Streams Publisher of all instances of the specified
+	 * Java class, running the subscriptions on the default Executor.
+	 * 
+	 * @see #getAllPublisher(Class, Executor)
+	 * @see AsyncRDFBeanManagerContext#getDefaultExecutor()
+	 */
+	public <T> Publisher<T> getAllPublisher(Class<T> rdfBeanClass) throws RDFBeanException {
+		return getAllPublisher(rdfBeanClass, AsyncRDFBeanManagerContext.getDefaultExecutor());
+	}
+
+	/**
+	 * Creates a query for instances of the specified Java class, which is
+	 * evaluated by the underlying RDF store as a single SPARQL query.
+	 * 
+	 * The class must conform to the RDFBean specification.
+	 * 
+	 * @param rdfBeanClass
+	 *            Java class of objects to query
+	 * @return Query instance to add conditions, ordering and limits to
+	 * @throws RDFBeanException
+	 *             If the class is not a valid RDFBean class
+	 * @see Query
+	 */
+	public <T> Query<T> query(Class<T> rdfBeanClass) throws RDFBeanException {
+		return new Query<T>(this, rdfBeanClass);
+	}
+
+	/**
+	 * Returns a page of instances of the specified Java class ordered by
+	 * their subject IRIs. The next page continues after the last instance
+	 * of the previous one rather than skipping the preceding instances.
+	 * 
+	 * @param rdfBeanClass
+	 *            Java class of objects to page
+	 * @param size
+	 *            Maximum number of objects in the page
+	 * @param continuationToken
+	 *            Token returned with the previous page, or null for the first
+	 *            page
+	 * @return Page of objects
+	 * @throws RDFBeanException
+	 *             If the class is not a valid RDFBean class or the token is
+	 *             invalid
+	 * @throws RDF4JException
+	 * @see Query#page(String, int, String)
+	 */
+	public <T> Page<T> getPage(Class<T> rdfBeanClass, int size, String continuationToken)
+			throws RDFBeanException, RDF4JException {
+		return query(rdfBeanClass).page(size, continuationToken);
+	}
+
+	/**
+	 * Counts instances of the specified Java class in the underlying RDF
+	 * model, without restoring them.
+	 * 
+	 * @param rdfBeanClass
+	 *            Java class of objects to count
+	 * @return number of instances
+	 * @throws RDFBeanException
+	 *             If the class is not a valid RDFBean class
+	 * @throws RDF4JException
+	 */
+	public long count(Class<?> rdfBeanClass) throws RDFBeanException, RDF4JException {
+		return query(rdfBeanClass).count();
+	}
+
+	/**
+	 * Counts instances of the specified Java class with the given value of a
+	 * property, without restoring them.
+	 * 
+	 * @param rdfBeanClass
+	 *            Java class of objects to count
+	 * @param property
+	 *            Property name or dotted path of property names
+	 * @param value
+	 *            Property value
+	 * @return number of instances
+	 * @throws RDFBeanException
+	 *             If the class is not a valid RDFBean class or the property
+	 *             cannot be resolved
+	 * @throws RDF4JException
+	 */
+	public long count(Class<?> rdfBeanClass, String property, Object value) throws RDFBeanException, RDF4JException {
+		return query(rdfBeanClass).where(property, Criterion.eq(value)).count();
+	}
+
+	/**
+	 * Computes an aggregate of the property values of all instances of the
+	 * specified Java class in the underlying RDF model, without restoring
+	 * them.
+	 * 
+	 * @param rdfBeanClass
+	 *            Java class of objects
+	 * @param property
+	 *            Property name or dotted path of property names
+	 * @param function
+	 *            Aggregate function
+	 * @return Aggregate value decoded with the DatatypeMapper, or null if
+	 *         there are no values to compute MIN or MAX of
+	 * @throws RDFBeanException
+	 *             If the class is not a valid RDFBean class or the property
+	 *             cannot be resolved
+	 * @throws RDF4JException
+	 * @see Query#aggregate(String, Aggregate)
+	 */
+	public Object aggregate(Class<?> rdfBeanClass, String property, Aggregate function)
+			throws RDFBeanException, RDF4JException {
+		return query(rdfBeanClass).aggregate(property, function);
+	}
+
 	/**
 	 * Checks if an RDF resource exists in the underlying
 	 * RDF model.
@@ -403,7 +581,7 @@ public class RDFBeanManagerContext {
 		return false;
 	}
 
-	private synchronized void deleteInternal(Resource uri) throws RepositoryException {
+	private void deleteInternal(Resource uri) throws RepositoryException {
 		RepositoryConnection conn = connectionPool.getConnection();
 		boolean newTxn = maybeStartTransaction(conn);
 		ReadWriteLock lock = lockKeeper.getLock(uri);
@@ -427,6 +605,121 @@ public class RDFBeanManagerContext {
 		}
 	}
 
+	/**
+	 * Deletes a collection of RDF resources from the underlying model.
+	 * 
+	 * This is a bulk equivalent of {@link #delete(Resource)}: the resources
+	 * are removed in batches, each in a single transaction with one
+	 * acquisition of the resource locks and of the proxy pool.
+	 * 
+	 * If there is an active transaction started on RepositoryConnection
+	 * for the current thread, all removals are added to that transaction.
+	 * Otherwise, every batch is committed in its own transaction.
+	 * 
+	 * @param resources
+	 *            Resource IRIs
+	 * @return number of the resources which existed in the model before
+	 *         deletion
+	 * @throws RepositoryException
+	 * @see delete(Resource)
+	 */
+	public int deleteAll(Collection<? extends Resource> resources) throws RepositoryException {
+		List<Resource> batch = new ArrayList<>(Math.min(resources.size(), DELETE_BATCH_SIZE));
+		int deleted = 0;
+		for (Resource r : resources) {
+			batch.add(r);
+			if (batch.size() == DELETE_BATCH_SIZE) {
+				deleted += deleteBatch(batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			deleted += deleteBatch(batch);
+		}
+		return deleted;
+	}
+
+	/**
+	 * Deletes all RDF resources representing instances of the specified Java
+	 * class from the underlying model.
+	 * 
+	 * The class must conform to the RDFBean specification.
+	 * 
+	 * The instances are read and deleted in batches, so the whole extent of
+	 * the class is not held in memory.
+	 * 
+	 * @param rdfBeanClass
+	 *            Java class of RDFBean
+	 * @return number of deleted resources
+	 * @throws RDFBeanException
+	 *             If the class is not a valid RDFBean class
+	 * @throws RepositoryException
+	 * @see deleteAll(Collection)
+	 */
+	public int deleteAll(Class<?> rdfBeanClass) throws RDFBeanException, RepositoryException {
+		IRI type = RDFBeanInfo.get(rdfBeanClass).getRDFType();
+		if (type == null) {
+			return 0;
+		}
+		int deleted = 0;
+		while (true) {
+			// the deleted resources lose their type, so every query returns
+			// the next batch
+			Set<Resource> batch = new LinkedHashSet<>();
+			RepositoryResult<Statement> sts = connectionPool.getConnection()
+					.getStatements(null, RDF.TYPE, type, false, (IRI)context);
+			try {
+				while (sts.hasNext() && (batch.size() < DELETE_BATCH_SIZE)) {
+					batch.add(sts.next().getSubject());
+				}
+			} finally {
+				sts.close();
+			}
+			if (batch.isEmpty()) {
+				break;
+			}
+			int n = deleteBatch(new ArrayList<>(batch));
+			deleted += n;
+			if ((n == 0) || (batch.size() < DELETE_BATCH_SIZE)) {
+				// the last batch, or nothing could be deleted
+				break;
+			}
+		}
+		return deleted;
+	}
+
+	private int deleteBatch(List<Resource> batch) throws RepositoryException {
+		RepositoryConnection conn = connectionPool.getConnection();
+		int deleted = 0;
+		List<Lock> acquired = lockKeeper.writeLockAll(batch);
+		try {
+			boolean newTxn = maybeStartTransaction(conn);
+			try {
+				for (Resource r : batch) {
+					if (conn.hasStatement(r, null, null, false, (IRI)context)) {
+						deleted++;
+					}
+					// delete where is a subject
+					conn.remove(r, null, null, (IRI)context);
+					// delete where is an object
+					conn.remove((Resource) null, null, r, (IRI)context);
+				}
+				if (newTxn) {
+					conn.commit();
+				}
+			} catch (RepositoryException e) {
+				if (newTxn) {
+					conn.rollback();
+				}
+				throw e;
+			}
+		} finally {
+			lockKeeper.unlockAll(acquired);
+		}
+		proxies.purge(batch);
+		return deleted;
+	}
+
 	/**
 	 * Deletes an RDF resource representing an object that matches the specified
 	 * RDFBean identifier and the Java class from the underlying model.
@@ -485,12 +778,57 @@ public class RDFBeanManagerContext {
 		return node;
 	}
 
-	private <T> T _get(Resource r, Class<T> cls) throws RDFBeanException, RDF4JException {
-		if (isResourceExist(r)) {
-			// Unmarshal the resource
-			return unmarshaller.unmarshal(connectionPool.getConnection(), r, cls, context);
+	/**
+	 * Writes the changes of a unit of work as one removal and one addition
+	 * of statements, holding the write locks of all affected resources.
+	 */
+	void writeChanges(List<UnitOfWork.Change> changes) throws RDFBeanException, RepositoryException {
+		Set<Resource> resources = new HashSet<>();
+		for (UnitOfWork.Change c : changes) {
+			if (c.deleted != null) {
+				resources.add(c.deleted);
+			}
+			if (c.bean != null) {
+				resources.addAll(marshaller.collectResources(c.bean));
+			}
+		}
+		RepositoryConnection conn = connectionPool.getConnection();
+		List<Lock> acquired = lockKeeper.writeLockAll(resources);
+		try {
+			ChangeSet changeSet = new ChangeSet(conn);
+			for (UnitOfWork.Change c : changes) {
+				if (c.deleted != null) {
+					changeSet.removeResource(c.deleted, context);
+				}
+				if (c.bean != null) {
+					marshaller.marshal(changeSet, c.bean, c.update, context);
+				}
+			}
+			boolean newTxn = maybeStartTransaction(conn);
+			try {
+				changeSet.apply();
+				if (newTxn) {
+					conn.commit();
+				}
+			} catch (RepositoryException e) {
+				if (newTxn) {
+					conn.rollback();
+				}
+				throw e;
+			}
+		} finally {
+			lockKeeper.unlockAll(acquired);
+		}
+		for (UnitOfWork.Change c : changes) {
+			if (c.deleted != null) {
+				proxies.purge(c.deleted);
+			}
 		}
-		return null;
+	}
+
+	private <T> T _get(Resource r, Class<T> cls) throws RDFBeanException, RDF4JException {
+		// Unmarshal the resource (null if it does not exist)
+		return unmarshaller.unmarshal(connectionPool.getConnection(), r, cls, context);
 	}
 
 	// ================== RDFBean dynamic proxy functionality ==================
@@ -556,19 +894,7 @@ public class RDFBeanManagerContext {
 	private <T> T createInternal(RepositoryConnection conn, Resource r, RDFBeanInfo rbi, Class<T> iface) throws RDFBeanException, RepositoryException {
 		boolean newObject = false;
 		if (!isResourceExist(r)) {
-			boolean newTxn = maybeStartTransaction(conn);
-			try {
-				conn.add(r, RDF.TYPE, rbi.getRDFType(), (IRI)context);
-				addSuperInterfaceTypes(conn, rbi);
-				if (newTxn) {
-					conn.commit();
-				}
-			} catch (RepositoryException e) {
-				if (newTxn) {
-					conn.rollback();
-				}
-				throw e;
-			}
+			addTypes(conn, Collections.singleton(r), rbi);
 			newObject = true;
 		}
 		T obj = proxies.getInstance(r, rbi, iface);
@@ -578,6 +904,24 @@ public class RDFBeanManagerContext {
 		return obj;
 	}
 
+	private void addTypes(RepositoryConnection conn, Collection<Resource> resources, RDFBeanInfo rbi) throws RDFBeanException, RepositoryException {
+		boolean newTxn = maybeStartTransaction(conn);
+		try {
+			for (Resource r : resources) {
+				conn.add(r, RDF.TYPE, rbi.getRDFType(), (IRI)context);
+			}
+			addSuperInterfaceTypes(conn, rbi);
+			if (newTxn) {
+				conn.commit();
+			}
+		} catch (RepositoryException e) {
+			if (newTxn) {
+				conn.rollback();
+			}
+			throw e;
+		}
+	}
+
 	private void addSuperInterfaceTypes(RepositoryConnection conn, RDFBeanInfo rbi)
 			throws RDFBeanValidationException {
 		for (Class<?> superIface : rbi.getRDFBeanClass().getInterfaces()) {
@@ -604,27 +948,179 @@ public class RDFBeanManagerContext {
 	 * @throws RDFBeanException
 	 *             If iface is not a valid RDFBean interface
 	 * @throws RepositoryException
+	 * 
+	 * @see createAllIterator(Class)
 	 */
 	public <T> Collection<T> createAll(Class<T> iface)
 			throws RDFBeanException, RepositoryException {
-		RDFBeanInfo rbi = RDFBeanInfo.get(iface);
-		IRI type = rbi.getRDFType();
 		Collection<T> result = new HashSet<T>();
-		if (type == null) {
-			return result;
-		}
-		RepositoryConnection conn = connectionPool.getConnection();
-		RepositoryResult<Statement> sts = null;
+		CloseableIteration<T, RepositoryException> proxies = createAllIterator(iface);
 		try {
-			sts = conn.getStatements(null, RDF.TYPE, type, false, (IRI)context);
-			while (sts.hasNext()) {
-				T proxy = createInternal(conn, sts.next().getSubject(), rbi, iface);
-				result.add(proxy);
+			while (proxies.hasNext()) {
+				result.add(proxies.next());
 			}
 		} finally {
-			if (sts != null) {
+			proxies.close();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns an iterator over dynamic proxy objects implementing the
+	 * specified Java interface for all its representations in the underlying
+	 * RDF model.
+	 * 
+	 * The interface must conform to the RDFBean specification.
+	 * 
+	 * The returned Iterator constructs the proxies "lazily", in batches
+	 * of subjects read from the `rdf:type` statements, with no specific
+	 * order. As the subjects are known to exist, no model updates or
+	 * {@link ProxyListener#objectCreated(Object, Class, Resource)} events
+	 * occur. When iterator is exhausted, the caller must invoke `close()`
+	 * method to release the resources of underlying RDF model.
+	 * 
+	 * @param iface
+	 *            RDFBean-compliant Java interface
+	 * @return Iterator over dynamic proxy objects with the specified interface
+	 * @throws RDFBeanException
+	 *             If iface is not a valid RDFBean interface
+	 * @throws RepositoryException
+	 */
+	public <T> CloseableIteration<T, RepositoryException> createAllIterator(final Class<T> iface)
+			throws RDFBeanException, RepositoryException {
+		final RDFBeanInfo rbi = RDFBeanInfo.get(iface);
+		IRI type = rbi.getRDFType();
+		if (type == null) {
+			return new EmptyIteration<T, RepositoryException>();
+		}
+
+		final RepositoryResult<Statement> sts = connectionPool.getConnection()
+				.getStatements(null, RDF.TYPE, type, false, (IRI)context);
+
+		return new CloseableIteration<T, RepositoryException>() {
+
+			private final List<Resource> subjects = new ArrayList<Resource>(PROXY_BATCH_SIZE);
+			private Iterator<T> batch = Collections.<T>emptyIterator();
+
+			@Override
+			public boolean hasNext() throws RepositoryException {
+				if (!batch.hasNext()) {
+					subjects.clear();
+					while (subjects.size() < PROXY_BATCH_SIZE && sts.hasNext()) {
+						subjects.add(sts.next().getSubject());
+					}
+					batch = proxies.getInstances(subjects, rbi, iface).iterator();
+				}
+				return batch.hasNext();
+			}
+
+			@Override
+			public T next() throws RepositoryException {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return batch.next();
+			}
+
+			@Override
+			public void remove() throws RepositoryException {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public void close() throws RepositoryException {
 				sts.close();
 			}
+		};
+	}
+
+	/**
+	 * Returns a Reactive Streams Publisher of dynamic proxy objects
+	 * implementing the specified Java interface for all its representations
+	 * in the underlying RDF model.
+	 * 
+	 * The interface must conform to the RDFBean specification.
+	 * 
+	 * Every subscriber gets its own {@link #createAllIterator(Class)}
+	 * iteration, which is read on an Executor thread only as far as the
+	 * subscriber has requested. The iteration and the connection of that
+	 * thread are released when the subscription completes or is cancelled.
+	 * 
+	 * @param iface
+	 *            RDFBean-compliant Java interface
+	 * @param executor
+	 *            Executor to run the subscriptions
+	 * @return Publisher of dynamic proxy objects with the specified interface
+	 * @throws RDFBeanException
+	 *             If iface is not a valid RDFBean interface
+	 */
+	public <T> Publisher<T> createAllPublisher(final Class<T> iface, Executor executor)
+			throws RDFBeanException {
+		RDFBeanInfo.get(iface);
+		return new IterationPublisher<T>(new IterationPublisher.IterationFactory<T>() {
+
+			@Override
+			public CloseableIteration<T, RepositoryException> open() throws Exception {
+				return createAllIterator(iface);
+			}
+		}, executor, connectionPool);
+	}
+
+	/**
+	 * Returns a Reactive Streams Publisher of dynamic proxy objects
+	 * implementing the specified Java interface, running the subscriptions
+	 * on the default Executor.
+	 * 
+	 * @see #createAllPublisher(Class, Executor)
+	 * @see AsyncRDFBeanManagerContext#getDefaultExecutor()
+	 */
+	public <T> Publisher<T> createAllPublisher(Class<T> iface) throws RDFBeanException {
+		return createAllPublisher(iface, AsyncRDFBeanManagerContext.getDefaultExecutor());
+	}
+
+	/**
+	 * Creates dynamic proxy objects implementing the specified Java interface
+	 * for a list of RDF resources.
+	 * 
+	 * This is a bulk equivalent of {@link #create(Resource, Class)}: the
+	 * resources which do not exist in the underlying RDF model are added
+	 * to it in a single transaction and the proxies are obtained with a
+	 * single lookup in the proxy instances pool.
+	 * 
+	 * The interface must conform to the RDFBean specification.
+	 * 
+	 * @param resources
+	 *            List of resource IRIs
+	 * @param iface
+	 *            RDFBean-compliant Java interface
+	 * @return List of dynamic proxy objects in the order of the given
+	 *         resources
+	 * @throws RDFBeanException
+	 *             If iface is not a valid RDFBean interface
+	 * @throws RepositoryException
+	 * 
+	 * @see create(Resource,Class)
+	 */
+	public <T> List<T> createAll(List<? extends Resource> resources, Class<T> iface)
+			throws RDFBeanException, RepositoryException {
+		RDFBeanInfo rbi = RDFBeanInfo.get(iface);
+		RepositoryConnection conn = connectionPool.getConnection();
+		Set<Resource> newObjects = new LinkedHashSet<Resource>();
+		for (Resource r : resources) {
+			if (!newObjects.contains(r) && !isResourceExist(r)) {
+				newObjects.add(r);
+			}
+		}
+		if (!newObjects.isEmpty()) {
+			addTypes(conn, newObjects, rbi);
+		}
+		List<T> result = proxies.getInstances(resources, rbi, iface);
+		if (!newObjects.isEmpty()) {
+			for (int i = 0; i < resources.size(); i++) {
+				if (newObjects.remove(resources.get(i))) {
+					fireObjectCreated(result.get(i), iface, resources.get(i));
+				}
+			}
 		}
 		return result;
 	}
@@ -653,24 +1149,102 @@ public class RDFBeanManagerContext {
 		return newTxn;
 	}
 	
-	public void addProxyListener(ProxyListener l) {
-		this.proxyListeners.add(l);
+	public synchronized void addProxyListener(ProxyListener l) {
+		List<ProxyListener> listeners = new ArrayList<ProxyListener>(proxyListeners);
+		listeners.add(l);
+		this.proxyListeners = Collections.unmodifiableList(listeners);
 	}
 
-	public void removeProxyListener(ProxyListener l) {
-		this.proxyListeners.remove(l);
+	public synchronized void removeProxyListener(ProxyListener l) {
+		List<ProxyListener> listeners = new ArrayList<ProxyListener>(proxyListeners);
+		listeners.remove(l);
+		this.proxyListeners = Collections.unmodifiableList(listeners);
 	}
 
+	/**
+	 * Returns an immutable snapshot of the registered proxy listeners.
+	 * 
+	 * @return the list of ProxyListener instances
+	 */
 	public List<ProxyListener> getProxyListeners() {
-		return Collections.unmodifiableList(proxyListeners);
+		return proxyListeners;
+	}
+
+	/**
+	 * Sets a dispatcher for delivering events to the proxy listeners of this
+	 * context. By default, the listeners are invoked synchronously by
+	 * {@link DirectProxyEventDispatcher}.
+	 * 
+	 * The previous dispatcher is not closed by this method.
+	 * 
+	 * @param proxyEventDispatcher
+	 *            the ProxyEventDispatcher instance to set
+	 * 
+	 * @see AsyncProxyEventDispatcher
+	 */
+	public void setProxyEventDispatcher(ProxyEventDispatcher proxyEventDispatcher) {
+		this.proxyEventDispatcher = proxyEventDispatcher;
+	}
+
+	public ProxyEventDispatcher getProxyEventDispatcher() {
+		return proxyEventDispatcher;
 	}
 
 	private void fireObjectCreated(Object object, Class<?> cls, Resource resource) {
-		for (ProxyListener l : getProxyListeners()) {
-			l.objectCreated(object, cls, resource);
+		List<ProxyListener> listeners = proxyListeners;
+		if (!listeners.isEmpty()) {
+			proxyEventDispatcher.dispatch(ProxyEvent.objectCreated(object, cls, resource), listeners);
 		}
 	}
-	
+
+	/**
+	 * Notifies the proxy listeners that an RDFBean proxy object property is
+	 * changed.
+	 * 
+	 * @param object
+	 * @param property
+	 * @param newValue
+	 */
+	public void fireObjectPropertyChanged(Object object, IRI property, Object newValue) {
+		List<ProxyListener> listeners = proxyListeners;
+		if (!listeners.isEmpty()) {
+			proxyEventDispatcher.dispatch(ProxyEvent.objectPropertyChanged(object, property, newValue), listeners);
+		}
+	}
+
+	/**
+	 * Starts a new unit of work collecting add, update and delete operations
+	 * of this context in memory until they are committed at once.
+	 * 
+	 * @return UnitOfWork instance
+	 * @see UnitOfWork
+	 */
+	public UnitOfWork beginUnitOfWork() {
+		return new UnitOfWork(this);
+	}
+
+	/**
+	 * Returns an asynchronous facade of this context, running the
+	 * operations on the given Executor.
+	 * 
+	 * @param executor
+	 *            Executor to run the operations
+	 * @return AsyncRDFBeanManagerContext instance
+	 */
+	public AsyncRDFBeanManagerContext async(Executor executor) {
+		return new AsyncRDFBeanManagerContext(this, executor);
+	}
+
+	/**
+	 * Returns an asynchronous facade of this context, running the
+	 * operations on the default Executor.
+	 * 
+	 * @return AsyncRDFBeanManagerContext instance
+	 * @see AsyncRDFBeanManagerContext#getDefaultExecutor()
+	 */
+	public AsyncRDFBeanManagerContext async() {
+		return async(AsyncRDFBeanManagerContext.getDefaultExecutor());
+	}
 
 	/**
 	 * Returns the current ClassLoader for loading RDFBean classes.
@@ -0,0 +1,301 @@
+package org.cyberborean.rdfbeans;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
+import org.cyberborean.rdfbeans.impl.RepositoryConnectionPool;
+import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.cyberborean.rdfbeans.reflect.SubjectProperty;
+import org.eclipse.rdf4j.RDF4JException;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.repository.RepositoryException;
+
+/**
+ * Groups add, update and delete operations of an RDFBeanManagerContext into
+ * a single unit which is written to the repository at once.
+ *
+ * The operations are collected in memory and deduplicated per RDF resource:
+ * only the last state of every object counts. On {@link #commit()}, all
+ * changes are marshalled into one Model of statements to remove and one
+ * Model of statements to add, which are written in a single transaction
+ * (or within the active transaction of the current thread, if any).
+ *
+ * Reads through the unit of work see its pending changes: an object added
+ * or updated in the unit is returned as is, a deleted resource is not found.
+ *
+ * A UnitOfWork instance is not thread-safe and is meant to be used by a
+ * single thread.
+ *
+ * If the thread did not hold a RepositoryConnection when the unit of work
+ * was started, the connection obtained during the unit of work is released
+ * to the pool on {@link #close()}, unless a transaction is active on it.
+ *
+ * @see RDFBeanManagerContext#beginUnitOfWork()
+ */
+public class UnitOfWork implements AutoCloseable {
+
+	private final RDFBeanManagerContext context;
+	// pending changes by subject (or by identity for anonymous RDFBeans)
+	private final Map<Object, Change> changes = new LinkedHashMap<>();
+	// objects read through this unit of work
+	private final Map<Resource, Object> loaded = new HashMap<>();
+	private final Map<Object, Object> anonymous = new IdentityHashMap<>();
+	private boolean closed = false;
+	// the thread which started the unit of work and whether it had to
+	// borrow a connection for it
+	private final Thread owner;
+	private final boolean borrowed;
+
+	UnitOfWork(RDFBeanManagerContext context) {
+		this.context = context;
+		this.owner = Thread.currentThread();
+		this.borrowed = !context.connectionPool.hasConnection();
+	}
+
+	/**
+	 * Schedules adding the object to the underlying RDF model.
+	 *
+	 * @param o
+	 *            RDFBean object to add
+	 * @return Resource IRI, or null for an anonymous RDFBean (its BNode is
+	 *         created at commit)
+	 * @throws RDFBeanException
+	 *             If class of the object is not a valid RDFBean class
+	 * @see RDFBeanManagerContext#add(Object)
+	 */
+	public Resource add(Object o) throws RDFBeanException {
+		return put(o, false);
+	}
+
+	/**
+	 * Schedules updating the RDF representation of the object.
+	 *
+	 * @param o
+	 *            RDFBean object to update
+	 * @return Resource IRI, or null for an anonymous RDFBean (its BNode is
+	 *         created at commit)
+	 * @throws RDFBeanException
+	 *             If class of the object is not a valid RDFBean class
+	 * @see RDFBeanManagerContext#update(Object)
+	 */
+	public Resource update(Object o) throws RDFBeanException {
+		return put(o, true);
+	}
+
+	/**
+	 * Schedules deleting the RDF resource from the underlying model.
+	 *
+	 * @param r
+	 *            Resource IRI
+	 * @see RDFBeanManagerContext#delete(Resource)
+	 */
+	public void delete(Resource r) {
+		checkOpen();
+		Change c = changes.get(r);
+		if (c == null) {
+			c = new Change();
+			changes.put(r, c);
+		}
+		c.deleted = r;
+		c.bean = null;
+		c.update = false;
+		loaded.remove(r);
+	}
+
+	/**
+	 * Schedules deleting the RDF resource representing an object with the
+	 * specified RDFBean identifier and Java class.
+	 *
+	 * @param stringId
+	 *            RDFBean ID value
+	 * @param rdfBeanClass
+	 *            Java class of RDFBean
+	 * @throws RDFBeanException
+	 *             If the class is not a valid RDFBean class
+	 * @see RDFBeanManagerContext#delete(String, Class)
+	 */
+	public void delete(String stringId, Class<?> rdfBeanClass) throws RDFBeanException {
+		IRI r = getUri(stringId, rdfBeanClass);
+		if (r != null) {
+			delete(r);
+		}
+	}
+
+	/**
+	 * Returns the object with the given resource, taking the pending changes
+	 * of this unit of work into account. Objects read from the repository
+	 * are cached for the lifetime of the unit of work.
+	 *
+	 * @param r
+	 *            Resource IRI
+	 * @param rdfBeanClass
+	 *            Java class of RDFBean
+	 * @return Java object, or null if the resource does not exist or is
+	 *         deleted in this unit of work
+	 * @throws RDFBeanException
+	 *             If the resource has a pending object in this unit of work
+	 *             which is not an instance of the class
+	 * @see RDFBeanManagerContext#get(Resource, Class)
+	 */
+	public <T> T get(Resource r, Class<T> rdfBeanClass) throws RDFBeanException, RDF4JException {
+		checkOpen();
+		Change c = changes.get(r);
+		if (c != null) {
+			if (c.bean == null) {
+				// deleted
+				return null;
+			}
+			if (!rdfBeanClass.isInstance(c.bean)) {
+				// the repository state is stale, do not return it
+				throw new RDFBeanException("Pending object of " + r + " is an instance of "
+						+ c.bean.getClass().getName() + ", not " + rdfBeanClass.getName());
+			}
+			return rdfBeanClass.cast(c.bean);
+		}
+		Object o = loaded.get(r);
+		if (rdfBeanClass.isInstance(o)) {
+			return rdfBeanClass.cast(o);
+		}
+		T result = context.get(r, rdfBeanClass);
+		if (result != null) {
+			loaded.put(r, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the object with the given RDFBean identifier, taking the
+	 * pending changes of this unit of work into account.
+	 *
+	 * @see #get(Resource, Class)
+	 * @see RDFBeanManagerContext#get(String, Class)
+	 */
+	public <T> T get(String stringId, Class<T> rdfBeanClass) throws RDFBeanException, RDF4JException {
+		IRI r = getUri(stringId, rdfBeanClass);
+		if (r == null) {
+			return null;
+		}
+		return get(r, rdfBeanClass);
+	}
+
+	/**
+	 * Checks if the resource exists, taking the pending changes of this unit
+	 * of work into account.
+	 *
+	 * @see RDFBeanManagerContext#isResourceExist(Resource)
+	 */
+	public boolean isResourceExist(Resource r) throws RepositoryException {
+		checkOpen();
+		Change c = changes.get(r);
+		if (c != null) {
+			return c.bean != null;
+		}
+		return context.isResourceExist(r);
+	}
+
+	/**
+	 * @return true if there are pending changes in this unit of work
+	 */
+	public boolean hasChanges() {
+		return !changes.isEmpty();
+	}
+
+	/**
+	 * Writes all pending changes to the repository in a single transaction.
+	 * If there is an active transaction on the RepositoryConnection of the
+	 * current thread, the changes are added to it instead.
+	 *
+	 * The unit of work stays open and can collect further changes.
+	 *
+	 * @throws RDFBeanException
+	 *             If an object cannot be marshalled
+	 * @throws RepositoryException
+	 */
+	public void commit() throws RDFBeanException, RepositoryException {
+		checkOpen();
+		if (changes.isEmpty()) {
+			return;
+		}
+		context.writeChanges(new ArrayList<>(changes.values()));
+		changes.clear();
+		anonymous.clear();
+	}
+
+	/**
+	 * Discards all pending changes.
+	 */
+	public void rollback() {
+		changes.clear();
+		anonymous.clear();
+		loaded.clear();
+	}
+
+	/**
+	 * Closes this unit of work, discarding the changes not committed, and
+	 * releases the RepositoryConnection borrowed for it.
+	 */
+	@Override
+	public void close() {
+		rollback();
+		closed = true;
+		RepositoryConnectionPool pool = context.connectionPool;
+		if (borrowed && (Thread.currentThread() == owner) && pool.hasConnection()
+				&& !pool.getConnection().isActive()) {
+			pool.releaseConnection();
+		}
+	}
+
+	private Resource put(Object o, boolean update) throws RDFBeanException {
+		checkOpen();
+		SubjectProperty sp = RDFBeanInfo.get(o.getClass()).getSubjectProperty();
+		Resource r = sp != null ? (Resource) sp.getValue(o) : null;
+		Object key = r;
+		if (key == null) {
+			// anonymous RDFBeans are distinguished by identity
+			key = anonymous.get(o);
+			if (key == null) {
+				key = new Object();
+				anonymous.put(o, key);
+			}
+		}
+		Change c = changes.get(key);
+		if (c == null) {
+			c = new Change();
+			changes.put(key, c);
+		}
+		// an earlier update of the same resource is not downgraded by add()
+		c.update = update || (c.bean != null && c.update);
+		c.bean = o;
+		if (r != null) {
+			loaded.remove(r);
+		}
+		return r;
+	}
+
+	private IRI getUri(String stringId, Class<?> rdfBeanClass) throws RDFBeanException {
+		SubjectProperty sp = RDFBeanInfo.get(rdfBeanClass).getSubjectProperty();
+		return sp != null ? sp.getUri(stringId) : null;
+	}
+
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("Unit of work is closed");
+		}
+	}
+
+	/**
+	 * The last state of a resource in a unit of work.
+	 */
+	static class Change {
+		// resource to delete before writing the bean, if any
+		Resource deleted;
+		Object bean;
+		boolean update;
+	}
+
+}
@@ -0,0 +1,116 @@
+package org.cyberborean.rdfbeans;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
+
+/**
+ * Result of an eager metadata warm-up of RDFBean classes, with the
+ * introspection time of every class.
+ *
+ * @see RDFBeanManager#warmUp(java.util.Collection)
+ */
+public class WarmUpReport {
+
+	/**
+	 * Warm-up result of a single class.
+	 */
+	public static class Entry {
+
+		private final Class<?> rdfBeanClass;
+		private final long time;
+		private final RDFBeanException error;
+
+		Entry(Class<?> rdfBeanClass, long time, RDFBeanException error) {
+			this.rdfBeanClass = rdfBeanClass;
+			this.time = time;
+			this.error = error;
+		}
+
+		public Class<?> getRDFBeanClass() {
+			return rdfBeanClass;
+		}
+
+		/**
+		 * @return the introspection time of the class
+		 */
+		public long getTime(TimeUnit unit) {
+			return unit.convert(time, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * @return the exception thrown by the introspection, or null if the
+		 *         class is a valid RDFBean class
+		 */
+		public RDFBeanException getError() {
+			return error;
+		}
+
+	}
+
+	private final List<Entry> entries;
+	private final long elapsedTime;
+
+	WarmUpReport(List<Entry> entries, long elapsedTime) {
+		this.entries = Collections.unmodifiableList(entries);
+		this.elapsedTime = elapsedTime;
+	}
+
+	/**
+	 * @return the results of all classes, in the order they were given or
+	 *         found
+	 */
+	public List<Entry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * @return the results of the classes which failed the introspection
+	 */
+	public List<Entry> getFailures() {
+		List<Entry> failures = new ArrayList<>();
+		for (Entry e : entries) {
+			if (e.getError() != null) {
+				failures.add(e);
+			}
+		}
+		return failures;
+	}
+
+	/**
+	 * @return the wall-clock time of the whole warm-up
+	 */
+	public long getElapsedTime(TimeUnit unit) {
+		return unit.convert(elapsedTime, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Formats the report as a list of classes, the slowest first.
+	 */
+	@Override
+	public String toString() {
+		List<Entry> sorted = new ArrayList<>(entries);
+		Collections.sort(sorted, new Comparator<Entry>() {
+
+			@Override
+			public int compare(Entry e1, Entry e2) {
+				return Long.compare(e2.time, e1.time);
+			}
+		});
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("Warmed up %d RDFBean classes in %.3f ms (%d failed)", entries.size(),
+				elapsedTime / 1e6, getFailures().size()));
+		for (Entry e : sorted) {
+			sb.append(String.format("%n%10.3f ms  %s", e.time / 1e6, e.rdfBeanClass.getName()));
+			if (e.error != null) {
+				sb.append("  FAILED: ").append(e.error.getMessage());
+			}
+		}
+		return sb.toString();
+	}
+
+}
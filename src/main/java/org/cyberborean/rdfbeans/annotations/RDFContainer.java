@@ -27,6 +27,12 @@ import java.lang.annotation.Target;
  *  - {@link ContainerType#ALT} - rdf:Alt
  *  - {@link ContainerType#LIST} - rdf:List collection
  *
+ * {@link ContainerType#PACKED} is not an RDF container: the values of a numeric primitive array
+ * (`byte[]`, `short[]`, `int[]`, `long[]`, `float[]`, `double[]`) or a List or Collection
+ * of the corresponding wrapper type are packed into a single literal of a binary datatype 
+ * (see {@link org.cyberborean.rdfbeans.datatype.PackedArrays}). This is much more compact for large 
+ * numeric vectors, but the individual values cannot be matched by queries.
+ *
  *
  * Example:
  * 
@@ -61,6 +67,8 @@ public @interface RDFContainer {
 		/** RDF Alt container */
 		ALT,
 		/** RDF List container */
-		LIST;
+		LIST,
+		/** Single binary literal (numeric primitive arrays and Collections only) */
+		PACKED;
 	}
 }
@@ -0,0 +1,46 @@
+package org.cyberborean.rdfbeans.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Applied to: Enum declaration <br>
+ * Value: String (required)
+ *
+ * `@RDFEnum` annotation maps the constants of an enum to RDF resources. The
+ * value element is an absolute namespace URI: each constant is represented
+ * with the IRI made of this namespace and the constant name, unless the
+ * constant itself is annotated with `@RDF` specifying an absolute IRI of its
+ * own.
+ *
+ * The constants of enums without `@RDFEnum` annotation are represented with
+ * plain literals of their names.
+ *
+ * A custom DatatypeMapper which converts the constants of an enum to
+ * literals takes precedence over this mapping.
+ *
+ * Example:
+ *
+ * ```java
+ * {@literal @}RDFEnum("http://example.com/status#")
+ * public enum Status {
+ *     ACTIVE,
+ *     CLOSED,
+ *     {@literal @}RDF("http://purl.org/dc/dcmitype/Event")
+ *     EVENT
+ * }
+ * ```
+ *
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RDFEnum {
+
+	/**
+	 * Namespace URI of the constant IRIs
+	 */
+	String value();
+
+}
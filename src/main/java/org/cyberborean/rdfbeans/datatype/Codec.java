@@ -0,0 +1,75 @@
+package org.cyberborean.rdfbeans.datatype;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.ValueFactory;
+
+/**
+ * Converts the values of a Java class to RDF literals of a datatype and back.
+ *
+ * Codecs are registered with {@link CodecRegistry#register(Codec)}. The
+ * codec of an RDFBean property is resolved once, when the property is
+ * introspected, and then used for all its values (or the elements of array
+ * and Collection properties), taking precedence over the
+ * {@link DatatypeMapper}.
+ *
+ * Example:
+ *
+ * <pre>
+ * CodecRegistry.register(new Codec&lt;Currency&gt;() {
+ *
+ * 	public Class&lt;Currency&gt; getJavaClass() {
+ * 		return Currency.class;
+ * 	}
+ *
+ * 	public IRI getDatatype() {
+ * 		return CURRENCY;
+ * 	}
+ *
+ * 	public Literal encode(Currency value, ValueFactory valueFactory) {
+ * 		return valueFactory.createLiteral(value.getCurrencyCode(), CURRENCY);
+ * 	}
+ *
+ * 	public Currency decode(Literal literal) {
+ * 		return Currency.getInstance(literal.getLabel());
+ * 	}
+ * });
+ * </pre>
+ *
+ * @param <T>
+ *            the Java class
+ */
+public interface Codec<T> {
+
+	/**
+	 * Returns the Java class of the values. The codec also applies to its
+	 * subclasses which have no codec of their own.
+	 */
+	Class<T> getJavaClass();
+
+	/**
+	 * Returns the datatype of the literals created by this codec.
+	 */
+	IRI getDatatype();
+
+	/**
+	 * Creates an RDF literal representation of a value.
+	 *
+	 * @param value
+	 *            a non-null value
+	 * @param valueFactory
+	 * @return the literal
+	 */
+	Literal encode(T value, ValueFactory valueFactory);
+
+	/**
+	 * Reconstructs a value from an RDF literal. The literal is any literal
+	 * value of a property the codec is bound to, which is not necessarily of
+	 * the codec datatype.
+	 *
+	 * @param literal
+	 * @return the value
+	 */
+	T decode(Literal literal);
+
+}
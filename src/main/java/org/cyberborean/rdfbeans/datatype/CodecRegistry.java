@@ -0,0 +1,96 @@
+package org.cyberborean.rdfbeans.datatype;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.rdf4j.model.IRI;
+
+/**
+ * The registry of {@link Codec}s for custom value types.
+ *
+ * The codecs are resolved when the RDFBean properties are introspected, so
+ * they must be registered before the RDFBean classes using them are first
+ * marshalled, unmarshalled or proxied. Values which are not bound to a
+ * property (e.g. query parameters) are converted by
+ * {@link DefaultDatatypeMapper}, which also gives the registered codecs
+ * precedence over its built-in mappings.
+ */
+public class CodecRegistry {
+
+	private static final List<Codec<?>> codecs = new CopyOnWriteArrayList<>();
+	private static final Map<Class<?>, Codec<?>> byClass = new ConcurrentHashMap<>();
+	private static final Map<IRI, Codec<?>> byDatatype = new ConcurrentHashMap<>();
+
+	/**
+	 * Registers a codec, replacing the codec previously registered for the
+	 * same Java class.
+	 *
+	 * @param codec
+	 */
+	public static synchronized void register(Codec<?> codec) {
+		for (Codec<?> c : codecs) {
+			if (c.getJavaClass() == codec.getJavaClass()) {
+				unregister(c);
+			}
+		}
+		codecs.add(codec);
+		byDatatype.put(codec.getDatatype(), codec);
+		byClass.clear();
+	}
+
+	/**
+	 * Removes a registered codec. The RDFBean properties already bound to the
+	 * codec keep using it.
+	 *
+	 * @param codec
+	 */
+	public static synchronized void unregister(Codec<?> codec) {
+		if (codecs.remove(codec)) {
+			byDatatype.remove(codec.getDatatype(), codec);
+			byClass.clear();
+		}
+	}
+
+	/**
+	 * Returns the codec for a Java class: the codec registered for the class
+	 * itself or, if there is none, the first registered codec of a class it is
+	 * assignable to.
+	 *
+	 * @param type
+	 * @return the codec, or null if there is no codec for the class
+	 */
+	public static Codec<?> getCodec(Class<?> type) {
+		if (codecs.isEmpty()) {
+			return null;
+		}
+		Codec<?> codec = byClass.get(type);
+		if (codec == null) {
+			for (Codec<?> c : codecs) {
+				if (c.getJavaClass() == type) {
+					codec = c;
+					break;
+				}
+				if ((codec == null) && c.getJavaClass().isAssignableFrom(type)) {
+					codec = c;
+				}
+			}
+			if (codec != null) {
+				byClass.put(type, codec);
+			}
+		}
+		return codec;
+	}
+
+	/**
+	 * Returns the codec creating literals of a datatype.
+	 *
+	 * @param datatype
+	 * @return the codec, or null if there is no codec for the datatype
+	 */
+	public static Codec<?> getCodec(IRI datatype) {
+		return datatype != null ? byDatatype.get(datatype) : null;
+	}
+
+}
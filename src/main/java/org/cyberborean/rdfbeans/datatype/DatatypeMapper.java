@@ -17,6 +17,20 @@ public interface DatatypeMapper {
 	 * @return Java object or null if the literal datatype is not supported.
 	 */
 	Object getJavaObject(Literal value);
+
+	/**
+	 * Returns a Java object reconstructed from the given RDF literal value
+	 * for a property of the given type. Mappers decoding a datatype to more
+	 * than one Java class (e.g. <code>xsd:dateTime</code>) use the type to
+	 * choose one.
+	 * 
+	 * @param value RDF plain or typed literal
+	 * @param type the (component) type of the property, or null if unknown
+	 * @return Java object or null if the literal datatype is not supported.
+	 */
+	default Object getJavaObject(Literal value, Class<?> type) {
+		return getJavaObject(value);
+	}
 	
 	/**
 	 * Returns an RDF literal representation of the given Java object.
@@ -26,5 +40,108 @@ public interface DatatypeMapper {
 	 * @return RDF plain or typed literal, or null if the object class is not supported
 	 */
 	Literal getRDFValue(Object value, ValueFactory valueFactory);
+
+	/*
+	 * Primitive-specialized methods. The default implementations delegate to
+	 * the generic methods with the boxed values; implementations can
+	 * override them to create and decode the literals without boxing and
+	 * string conversion.
+	 */
+
+	default Literal getRDFValue(boolean value, ValueFactory valueFactory) {
+		return getRDFValue((Object) value, valueFactory);
+	}
+
+	default Literal getRDFValue(byte value, ValueFactory valueFactory) {
+		return getRDFValue((Object) value, valueFactory);
+	}
+
+	default Literal getRDFValue(short value, ValueFactory valueFactory) {
+		return getRDFValue((Object) value, valueFactory);
+	}
+
+	default Literal getRDFValue(int value, ValueFactory valueFactory) {
+		return getRDFValue((Object) value, valueFactory);
+	}
+
+	default Literal getRDFValue(long value, ValueFactory valueFactory) {
+		return getRDFValue((Object) value, valueFactory);
+	}
+
+	default Literal getRDFValue(float value, ValueFactory valueFactory) {
+		return getRDFValue((Object) value, valueFactory);
+	}
+
+	default Literal getRDFValue(double value, ValueFactory valueFactory) {
+		return getRDFValue((Object) value, valueFactory);
+	}
+
+	default Literal getRDFValue(char value, ValueFactory valueFactory) {
+		return getRDFValue((Object) value, valueFactory);
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if the literal is not a boolean
+	 */
+	default boolean getBoolean(Literal value) {
+		Object o = getJavaObject(value);
+		if (o instanceof Boolean) {
+			return (Boolean) o;
+		}
+		throw new IllegalArgumentException("Not a boolean literal: " + value);
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if the literal is not a number
+	 */
+	default byte getByte(Literal value) {
+		return toNumber(getJavaObject(value), value).byteValue();
+	}
+
+	default short getShort(Literal value) {
+		return toNumber(getJavaObject(value), value).shortValue();
+	}
+
+	default int getInt(Literal value) {
+		return toNumber(getJavaObject(value), value).intValue();
+	}
+
+	default long getLong(Literal value) {
+		return toNumber(getJavaObject(value), value).longValue();
+	}
+
+	default float getFloat(Literal value) {
+		return toNumber(getJavaObject(value), value).floatValue();
+	}
+
+	default double getDouble(Literal value) {
+		return toNumber(getJavaObject(value), value).doubleValue();
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if the literal is not a character
+	 */
+	default char getChar(Literal value) {
+		Object o = getJavaObject(value);
+		if (o instanceof Character) {
+			return (Character) o;
+		}
+		throw new IllegalArgumentException("Not a character literal: " + value);
+	}
+
+	/**
+	 * @return the decoded literal value as a Number
+	 * @throws IllegalArgumentException
+	 *             if the value is not a Number
+	 */
+	static Number toNumber(Object o, Literal value) {
+		if (o instanceof Number) {
+			return (Number) o;
+		}
+		throw new IllegalArgumentException("Not a numeric literal: " + value);
+	}
 	
 }
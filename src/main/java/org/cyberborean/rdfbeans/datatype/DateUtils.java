@@ -3,52 +3,92 @@ package org.cyberborean.rdfbeans.datatype;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Date;
+import java.util.TimeZone;
 
 /**
- * Utilities for parsing dates.
- * 
+ * Utilities for parsing and formatting dates.
+ *
+ * The <code>xsd:dateTime</code>, <code>xsd:date</code> and
+ * <code>xsd:duration</code> codecs work on the characters directly, without
+ * <code>DateFormat</code> or <code>XMLGregorianCalendar</code> instances, and
+ * are thread-safe without locking. Only the dates of the Gregorian calendar
+ * (years 1583 and later) are handled by the <code>java.util.Date</code>
+ * codecs; the earlier dates are left to the Julian calendar of
+ * <code>GregorianCalendar</code>.
  */
 public class DateUtils {
-	
-	static final SimpleDateFormat ISO8601DateFormat;
-    static final SimpleDateFormat ISO8601DateFormat2; 
-    static final SimpleDateFormat ISO8601DateFormat3; 
-    
-    static final DateFormat[] dateformats;
-    
-    static {
-    	synchronized (DateUtils.class) {
-    		ISO8601DateFormat = (SimpleDateFormat) DateFormat
-                    .getDateTimeInstance();
-        	ISO8601DateFormat.applyPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
-        	
-        	ISO8601DateFormat2 = (SimpleDateFormat) DateFormat
-                    .getDateTimeInstance();
-        	ISO8601DateFormat2.applyPattern("yyyy-MM-dd'T'HH:mm:ssX");
-        	
-        	ISO8601DateFormat3 = (SimpleDateFormat) DateFormat
-                    .getDateTimeInstance();
-        	ISO8601DateFormat3.applyPattern("yyyy-MM-dd'T'HH:mmX");
-        	
-        	dateformats = new DateFormat[] {
-        			ISO8601DateFormat, 
-        			ISO8601DateFormat2, 
-        			ISO8601DateFormat3, 
-        			DateFormat.getInstance(), 
-        			DateFormat.getDateInstance()
-        	};
-		}		
-	}
-    
-    
+
+	private static final String ISO8601_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
+
+	private static final int SECONDS_PER_DAY = 86400;
+
+	private static final int[] POW10 = { 1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000 };
+
+	/**
+	 * First millisecond of the Gregorian calendar year 1583
+	 */
+	private static final long GREGORIAN_MILLIS = -12212553600000L;
+
+	private static final int GREGORIAN_YEAR = 1583;
+
+	/**
+	 * Fallback formats of {@link #parseDate(String)}, per thread as
+	 * <code>DateFormat</code> is not thread-safe.
+	 */
+	private static final ThreadLocal<DateFormat[]> dateformats = new ThreadLocal<DateFormat[]>() {
+
+		@Override
+		protected DateFormat[] initialValue() {
+			return new DateFormat[] {
+					createDateFormat(ISO8601_PATTERN),
+					createDateFormat("yyyy-MM-dd'T'HH:mm:ssX"),
+					createDateFormat("yyyy-MM-dd'T'HH:mmX"),
+					DateFormat.getInstance(),
+					DateFormat.getDateInstance()
+			};
+		}
+	};
+
+	/**
+	 * Fields of a parsed date/time value.
+	 */
+	private static final class DateTime {
+
+		int year;
+		int month;
+		int day;
+		int hour;
+		int minute;
+		int second;
+		int nano;
+		boolean hasOffset;
+		int offsetSeconds;
+
+		long toEpochSecond() {
+			return epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second
+					- offsetSeconds;
+		}
+	}
+
 	/**
 	 * @param s
 	 * @return
-	 * @throws ParseException 
+	 * @throws ParseException
 	 */
-	public static synchronized Date parseDate(String s) throws ParseException {
-		for (DateFormat df: dateformats) {
+	public static Date parseDate(String s) throws ParseException {
+		try {
+			return parseDateTime(s);
+		} catch (IllegalArgumentException e) {
+			// try other formats
+		}
+		for (DateFormat df: dateformats.get()) {
 			try {
 				return df.parse(s);
 			} catch (ParseException e1) {
@@ -58,10 +98,389 @@ public class DateUtils {
 		throw new ParseException("Unknown datetime format: " + s, 0);
 	}
 
+	/**
+	 * @return a new ISO8601 DateFormat instance
+	 */
+	public static DateFormat getDefaultDateFormat() {
+		return createDateFormat(ISO8601_PATTERN);
+	}
+
+	/**
+	 * Parses an <code>xsd:dateTime</code> value with a timezone.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is not a valid <code>xsd:dateTime</code>, has no
+	 *             timezone or is before the Gregorian calendar
+	 */
+	public static Date parseDateTime(String s) {
+		DateTime dt = parseDateTimeFields(s);
+		if (!dt.hasOffset || (dt.year < GREGORIAN_YEAR)) {
+			throw new IllegalArgumentException("Not a Gregorian xsd:dateTime with a timezone: " + s);
+		}
+		return new Date(dt.toEpochSecond() * 1000 + dt.nano / 1000000);
+	}
+
+	/**
+	 * Parses an <code>xsd:dateTime</code> value. A value without a timezone
+	 * is taken as UTC.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is not a valid <code>xsd:dateTime</code>
+	 */
+	public static Instant parseInstant(String s) {
+		DateTime dt = parseDateTimeFields(s);
+		return Instant.ofEpochSecond(dt.toEpochSecond(), dt.nano);
+	}
+
+	/**
+	 * Parses an <code>xsd:dateTime</code> value. A value without a timezone
+	 * is taken as UTC.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is not a valid <code>xsd:dateTime</code>
+	 */
+	public static OffsetDateTime parseOffsetDateTime(String s) {
+		DateTime dt = parseDateTimeFields(s);
+		return OffsetDateTime.of(dt.year, dt.month, dt.day, dt.hour, dt.minute, dt.second, dt.nano,
+				ZoneOffset.ofTotalSeconds(dt.offsetSeconds));
+	}
+
+	/**
+	 * Parses an <code>xsd:dateTime</code> value. The timezone, if any, is
+	 * ignored.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is not a valid <code>xsd:dateTime</code>
+	 */
+	public static LocalDateTime parseLocalDateTime(String s) {
+		DateTime dt = parseDateTimeFields(s);
+		return LocalDateTime.of(dt.year, dt.month, dt.day, dt.hour, dt.minute, dt.second, dt.nano);
+	}
+
+	/**
+	 * Parses an <code>xsd:date</code> value. The timezone, if any, is
+	 * ignored.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is not a valid <code>xsd:date</code>
+	 */
+	public static LocalDate parseLocalDate(String s) {
+		DateTime dt = new DateTime();
+		int i = parseDate(s, 0, dt);
+		parseOffset(s, i, dt);
+		return LocalDate.of(dt.year, dt.month, dt.day);
+	}
+
+	/**
+	 * Parses an <code>xsd:duration</code> (or <code>xsd:dayTimeDuration</code>)
+	 * value without years and months.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the value is not a valid duration without years and
+	 *             months
+	 */
+	public static Duration parseDuration(String s) {
+		try {
+			return Duration.parse(s);
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Not a day-time duration: " + s, e);
+		}
+	}
+
+	/**
+	 * Formats a date as an <code>xsd:dateTime</code> value in UTC, with
+	 * milliseconds.
+	 */
+	public static String formatDateTime(Date date) {
+		long millis = date.getTime();
+		if (millis < GREGORIAN_MILLIS) {
+			DateFormat df = getDefaultDateFormat();
+			df.setTimeZone(TimeZone.getTimeZone("UTC"));
+			return df.format(date);
+		}
+		StringBuilder sb = new StringBuilder(24);
+		appendDateTime(sb, Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1000000, 3);
+		return sb.append('Z').toString();
+	}
+
+	/**
+	 * Formats an instant as an <code>xsd:dateTime</code> value in UTC.
+	 */
+	public static String formatDateTime(Instant instant) {
+		StringBuilder sb = new StringBuilder(30);
+		appendDateTime(sb, instant.getEpochSecond(), instant.getNano(), 0);
+		return sb.append('Z').toString();
+	}
+
+	/**
+	 * Formats a date-time with an offset as an <code>xsd:dateTime</code>
+	 * value.
+	 */
+	public static String formatDateTime(OffsetDateTime dateTime) {
+		StringBuilder sb = new StringBuilder(35);
+		appendDateTime(sb, dateTime.toLocalDateTime().toEpochSecond(ZoneOffset.UTC), dateTime.getNano(), 0);
+		int offset = dateTime.getOffset().getTotalSeconds();
+		if (offset == 0) {
+			return sb.append('Z').toString();
+		}
+		sb.append(offset < 0 ? '-' : '+');
+		offset = Math.abs(offset) / 60;
+		append2(sb, offset / 60);
+		sb.append(':');
+		append2(sb, offset % 60);
+		return sb.toString();
+	}
+
+	/**
+	 * Formats a local date-time as an <code>xsd:dateTime</code> value without
+	 * a timezone.
+	 */
+	public static String formatDateTime(LocalDateTime dateTime) {
+		StringBuilder sb = new StringBuilder(29);
+		appendDateTime(sb, dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano(), 0);
+		return sb.toString();
+	}
+
+	/**
+	 * Formats a date as an <code>xsd:date</code> value without a timezone.
+	 */
+	public static String formatDate(LocalDate date) {
+		StringBuilder sb = new StringBuilder(10);
+		appendDate(sb, date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+		return sb.toString();
+	}
+
+	/**
+	 * Formats a duration as an <code>xsd:duration</code> value.
+	 */
+	public static String formatDuration(Duration duration) {
+		// Duration.toString() puts the sign on every field, XML Schema in front
+		return duration.isNegative() ? "-" + duration.negated().toString() : duration.toString();
+	}
+
+	private static DateFormat createDateFormat(String pattern) {
+		return new SimpleDateFormat(pattern);
+	}
 
-	public static synchronized DateFormat getDefaultDateFormat() {		
-		return ISO8601DateFormat;
+	/*
+	 * Parsing
+	 */
+
+	private static DateTime parseDateTimeFields(String s) {
+		DateTime dt = new DateTime();
+		int i = parseDate(s, 0, dt);
+		i = expect(s, i, 'T');
+		dt.hour = parseDigits(s, i, 2);
+		i = expect(s, i + 2, ':');
+		dt.minute = parseDigits(s, i, 2);
+		i = expect(s, i + 2, ':');
+		dt.second = parseDigits(s, i, 2);
+		i += 2;
+		if ((i < s.length()) && (s.charAt(i) == '.')) {
+			i++;
+			int start = i;
+			int nano = 0;
+			while ((i < s.length()) && isDigit(s.charAt(i))) {
+				if (i - start < 9) {
+					nano = nano * 10 + (s.charAt(i) - '0');
+				}
+				i++;
+			}
+			if (i == start) {
+				throw invalid(s);
+			}
+			for (int n = i - start; n < 9; n++) {
+				nano *= 10;
+			}
+			dt.nano = nano;
+		}
+		parseOffset(s, i, dt);
+		// 24:00:00 and leap seconds are not handled
+		if ((dt.hour > 23) || (dt.minute > 59) || (dt.second > 59)) {
+			throw invalid(s);
+		}
+		return dt;
 	}
-		
-    
+
+	/**
+	 * Parses <code>[-]yyyy-MM-dd</code>.
+	 *
+	 * @return the index after the date
+	 */
+	private static int parseDate(String s, int i, DateTime dt) {
+		boolean negative = (i < s.length()) && (s.charAt(i) == '-');
+		if (negative) {
+			i++;
+		}
+		int start = i;
+		int year = 0;
+		while ((i < s.length()) && isDigit(s.charAt(i))) {
+			if (i - start >= 9) {
+				throw invalid(s);
+			}
+			year = year * 10 + (s.charAt(i) - '0');
+			i++;
+		}
+		if ((i - start < 4) || ((i - start > 4) && (s.charAt(start) == '0'))) {
+			throw invalid(s);
+		}
+		dt.year = negative ? -year : year;
+		i = expect(s, i, '-');
+		dt.month = parseDigits(s, i, 2);
+		i = expect(s, i + 2, '-');
+		dt.day = parseDigits(s, i, 2);
+		if ((dt.month < 1) || (dt.month > 12) || (dt.day < 1) || (dt.day > lengthOfMonth(dt.year, dt.month))) {
+			throw invalid(s);
+		}
+		return i + 2;
+	}
+
+	/**
+	 * Parses the optional timezone (<code>Z</code> or <code>(+|-)hh:mm</code>)
+	 * at the end of the value.
+	 */
+	private static void parseOffset(String s, int i, DateTime dt) {
+		if (i == s.length()) {
+			return;
+		}
+		char c = s.charAt(i);
+		if ((c == 'Z') && (i + 1 == s.length())) {
+			dt.hasOffset = true;
+			return;
+		}
+		if (((c == '+') || (c == '-')) && (i + 6 == s.length()) && (s.charAt(i + 3) == ':')) {
+			int hours = parseDigits(s, i + 1, 2);
+			int minutes = parseDigits(s, i + 4, 2);
+			if ((hours > 14) || (minutes > 59) || ((hours == 14) && (minutes > 0))) {
+				throw invalid(s);
+			}
+			int offset = hours * 3600 + minutes * 60;
+			dt.hasOffset = true;
+			dt.offsetSeconds = c == '-' ? -offset : offset;
+			return;
+		}
+		throw invalid(s);
+	}
+
+	private static int parseDigits(String s, int i, int count) {
+		if (i + count > s.length()) {
+			throw invalid(s);
+		}
+		int value = 0;
+		for (int j = i; j < i + count; j++) {
+			char c = s.charAt(j);
+			if (!isDigit(c)) {
+				throw invalid(s);
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	private static int expect(String s, int i, char c) {
+		if ((i >= s.length()) || (s.charAt(i) != c)) {
+			throw invalid(s);
+		}
+		return i + 1;
+	}
+
+	private static boolean isDigit(char c) {
+		return (c >= '0') && (c <= '9');
+	}
+
+	private static IllegalArgumentException invalid(String s) {
+		return new IllegalArgumentException("Invalid date/time value: " + s);
+	}
+
+	/*
+	 * Formatting
+	 */
+
+	/**
+	 * Appends the date and time of the epoch second in UTC.
+	 *
+	 * @param minFractionDigits
+	 *            the number of fraction digits to append even if zero
+	 */
+	private static void appendDateTime(StringBuilder sb, long epochSecond, int nano, int minFractionDigits) {
+		long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+		int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+		// civil date of the epoch day
+		long z = epochDay + 719468;
+		long era = (z >= 0 ? z : z - 146096) / 146097;
+		long doe = z - era * 146097;
+		long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		long mp = (5 * doy + 2) / 153;
+		int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+		int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+		int year = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+
+		appendDate(sb, year, month, day);
+		sb.append('T');
+		append2(sb, secondOfDay / 3600);
+		sb.append(':');
+		append2(sb, (secondOfDay / 60) % 60);
+		sb.append(':');
+		append2(sb, secondOfDay % 60);
+		if ((nano != 0) || (minFractionDigits > 0)) {
+			sb.append('.');
+			int digits = 9;
+			while ((digits > Math.max(minFractionDigits, 3)) && (nano % 1000 == 0)) {
+				// drop trailing zeros by groups of three
+				nano /= 1000;
+				digits -= 3;
+			}
+			for (int d = digits - 1; d >= 0; d--) {
+				sb.append((char) ('0' + (nano / POW10[d]) % 10));
+			}
+		}
+	}
+
+	private static void appendDate(StringBuilder sb, int year, int month, int day) {
+		if (year < 0) {
+			sb.append('-');
+			year = -year;
+		}
+		if (year < 1000) {
+			sb.append(year < 10 ? "000" : year < 100 ? "00" : "0");
+		}
+		sb.append(year);
+		sb.append('-');
+		append2(sb, month);
+		sb.append('-');
+		append2(sb, day);
+	}
+
+	private static void append2(StringBuilder sb, int value) {
+		sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+	}
+
+	/*
+	 * Proleptic Gregorian calendar
+	 */
+
+	private static long epochDay(int year, int month, int day) {
+		long y = month <= 2 ? year - 1 : year;
+		long era = (y >= 0 ? y : y - 399) / 400;
+		long yoe = y - era * 400;
+		long doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+		return era * 146097 + doe - 719468;
+	}
+
+	private static int lengthOfMonth(int year, int month) {
+		switch (month) {
+		case 2:
+			return ((year % 4 == 0) && ((year % 100 != 0) || (year % 400 == 0))) ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+
 }
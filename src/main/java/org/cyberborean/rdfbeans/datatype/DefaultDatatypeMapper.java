@@ -1,9 +1,19 @@
 package org.cyberborean.rdfbeans.datatype;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
@@ -24,8 +34,18 @@ import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
  * as RDF literals with corresponding XML-Schema datatypes.</li>
  * <li>Instances of {@link Date} are represented as RDF literals of <code>xsd:dateTime</code>
  * type, serialized into ISO8601 date/time format.</li>
+ * <li>Instances of {@link Instant}, {@link OffsetDateTime} and
+ * {@link LocalDateTime} are represented as <code>xsd:dateTime</code>
+ * literals, {@link LocalDate} as <code>xsd:date</code> and {@link Duration}
+ * as <code>xsd:duration</code> literals.</li>
+ * <li>Literals of the packed array datatypes (see {@link PackedArrays}) are
+ * decoded into numeric primitive arrays.</li>
  * </ul>
  * 
+ * Classes and datatypes with a {@link Codec} registered with
+ * {@link CodecRegistry} are converted by the codec instead, the same way as
+ * the values of RDFBean properties bound to it.
+ * 
  * 
  */
 public class DefaultDatatypeMapper implements DatatypeMapper {
@@ -44,13 +64,214 @@ public class DefaultDatatypeMapper implements DatatypeMapper {
 		DATATYPE_MAP.put(Long.class, XMLSchema.LONG);
 		DATATYPE_MAP.put(Short.class, XMLSchema.SHORT);
 		DATATYPE_MAP.put(BigDecimal.class, XMLSchema.DECIMAL);
+		DATATYPE_MAP.put(BigInteger.class, XMLSchema.INTEGER);
 		DATATYPE_MAP.put(java.net.URI.class, XMLSchema.ANYURI);
+		DATATYPE_MAP.put(Instant.class, XMLSchema.DATETIME);
+		DATATYPE_MAP.put(OffsetDateTime.class, XMLSchema.DATETIME);
+		DATATYPE_MAP.put(LocalDateTime.class, XMLSchema.DATETIME);
+		DATATYPE_MAP.put(LocalDate.class, XMLSchema.DATE);
+		DATATYPE_MAP.put(Duration.class, XMLSchema.DURATION);
 		
 		// custom datatypes
 		DATATYPE_MAP.put(Character.class, Java.CHAR);
 	}
 
+	/**
+	 * Datatype mapping of every class looked up so far: the datatype IRI or
+	 * {@link #UNMAPPED}, so that unsupported classes (e.g. RDFBean classes)
+	 * are not scanned again.
+	 */
+	private static final ClassValue<Object> datatypeCache = new ClassValue<Object>() {
+
+		@Override
+		protected Object computeValue(Class<?> c) {
+			IRI uri = resolveDatatypeURI(c);
+			return uri != null ? uri : UNMAPPED;
+		}
+	};
+
+	private static final Object UNMAPPED = new Object();
+
+	/**
+	 * Datatypes decoded into primitive wrappers
+	 */
+	private static final Set<IRI> PRIMITIVE_DATATYPES = new HashSet<>(Arrays.asList(XMLSchema.BOOLEAN,
+			XMLSchema.BYTE, XMLSchema.SHORT, XMLSchema.INT, XMLSchema.LONG, XMLSchema.FLOAT, XMLSchema.DOUBLE,
+			Java.CHAR));
+
+	/**
+	 * Converts a literal of a supported datatype to a Java object.
+	 */
+	private interface LiteralDecoder {
+
+		Object decode(Literal l);
+	}
+
+	private static final Map<IRI, LiteralDecoder> DECODERS = new HashMap<>();
+	static {
+		DECODERS.put(XMLSchema.STRING, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				return l.stringValue();
+			}
+		});
+		DECODERS.put(XMLSchema.BOOLEAN, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				return l.booleanValue();
+			}
+		});
+		DECODERS.put(XMLSchema.INT, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				return l.intValue();
+			}
+		});
+		DECODERS.put(XMLSchema.BYTE, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				return l.byteValue();
+			}
+		});
+		DECODERS.put(XMLSchema.LONG, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				return l.longValue();
+			}
+		});
+		DECODERS.put(XMLSchema.SHORT, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				return l.shortValue();
+			}
+		});
+		DECODERS.put(XMLSchema.FLOAT, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				return l.floatValue();
+			}
+		});
+		DECODERS.put(XMLSchema.DOUBLE, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				return l.doubleValue();
+			}
+		});
+		DECODERS.put(XMLSchema.DECIMAL, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				return l.decimalValue();
+			}
+		});
+		DECODERS.put(XMLSchema.INTEGER, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				try {
+					return l.integerValue();
+				} catch (NumberFormatException e) {
+					// not a valid integer
+					return l.getLabel();
+				}
+			}
+		});
+		DECODERS.put(XMLSchema.ANYURI, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				return java.net.URI.create(l.stringValue());
+			}
+		});
+		DECODERS.put(XMLSchema.DATETIME, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				try {
+					return DateUtils.parseDateTime(l.getLabel());
+				} catch (IllegalArgumentException e) {
+					// no timezone, not a Gregorian date, etc.
+					return l.calendarValue().toGregorianCalendar().getTime();
+				}
+			}
+		});
+		DECODERS.put(XMLSchema.DATE, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				try {
+					return DateUtils.parseLocalDate(l.getLabel());
+				} catch (IllegalArgumentException | DateTimeException e) {
+					// not a valid date
+					return l.getLabel();
+				}
+			}
+		});
+		LiteralDecoder durationDecoder = new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				try {
+					return DateUtils.parseDuration(l.getLabel());
+				} catch (IllegalArgumentException e) {
+					// has years or months
+					return l.getLabel();
+				}
+			}
+		};
+		DECODERS.put(XMLSchema.DURATION, durationDecoder);
+		DECODERS.put(XMLSchema.DAYTIMEDURATION, durationDecoder);
+		DECODERS.put(Java.CHAR, new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				String s = l.stringValue();
+				return s.length() > 0? s.charAt(0) : '\u0000';
+			}
+		});
+		LiteralDecoder packedDecoder = new LiteralDecoder() {
+
+			@Override
+			public Object decode(Literal l) {
+				try {
+					return PackedArrays.decode(l);
+				} catch (IllegalArgumentException e) {
+					// malformed
+					return l.getLabel();
+				}
+			}
+		};
+		DECODERS.put(Java.BYTE_ARRAY, packedDecoder);
+		DECODERS.put(Java.SHORT_ARRAY, packedDecoder);
+		DECODERS.put(Java.INT_ARRAY, packedDecoder);
+		DECODERS.put(Java.LONG_ARRAY, packedDecoder);
+		DECODERS.put(Java.FLOAT_ARRAY, packedDecoder);
+		DECODERS.put(Java.DOUBLE_ARRAY, packedDecoder);
+	}
+
+	/**
+	 * Returns the datatype a Java class is mapped to: the datatype of the
+	 * class itself or, for other classes, of the first mapped class it is
+	 * assignable to. The result is cached per class.
+	 * 
+	 * @param c
+	 *            Java class
+	 * @return the datatype IRI, or null if the class is not supported
+	 */
 	public static IRI getDatatypeURI(Class<?> c) {
+		Object uri = datatypeCache.get(c);
+		return uri != UNMAPPED ? (IRI) uri : null;
+	}
+
+	private static IRI resolveDatatypeURI(Class<?> c) {
 		// Check for direct mapping
 		IRI uri = DATATYPE_MAP.get(c);
 		if (uri == null) {
@@ -66,58 +287,231 @@ public class DefaultDatatypeMapper implements DatatypeMapper {
 
 	public Object getJavaObject(Literal l) {
 		IRI dt = l.getDatatype();
-		if ((dt == null) || XMLSchema.STRING.equals(dt)) {
+		if (dt == null) {
 			return l.stringValue();
-		} 
-		else if (XMLSchema.BOOLEAN.equals(dt)) {
-			return l.booleanValue();
-		} 
-		else if (XMLSchema.INT.equals(dt)) {
-			return l.intValue(); //Integer.valueOf(l.intValue());
-		} 
-		else if (XMLSchema.BYTE.equals(dt)) {
-			return l.byteValue(); //Byte.valueOf(l.byteValue());
-		} 
-		else if (XMLSchema.LONG.equals(dt)) {
-			return l.longValue();//Long.valueOf(l.longValue());
-		} 
-		else if (XMLSchema.SHORT.equals(dt)) {
-			return l.shortValue(); //Short.valueOf(l.shortValue());
-		} 
-		else if (XMLSchema.FLOAT.equals(dt)) {
-			return l.floatValue(); //Float.valueOf(l.floatValue());
-		} 
-		else if (XMLSchema.DOUBLE.equals(dt)) {
-			return l.doubleValue();//Double.valueOf(l.doubleValue());
-		} 
-		else if (XMLSchema.DECIMAL.equals(dt)) {
-			return l.decimalValue();
-		}
-		else if (XMLSchema.ANYURI.equals(dt)) {
-			return java.net.URI.create(l.stringValue());
-		}
-		else if (XMLSchema.DATETIME.equals(dt)) {
-			return l.calendarValue().toGregorianCalendar().getTime();
-		} 
-		else if (Java.CHAR.equals(dt)) {
-			String s = l.stringValue();
-			return s.length() > 0? l.stringValue().charAt(0) : '\u0000';
-		}
-		return l.stringValue();
+		}
+		Codec<?> codec = CodecRegistry.getCodec(dt);
+		if (codec != null) {
+			return codec.decode(l);
+		}
+		LiteralDecoder decoder = DECODERS.get(dt);
+		return decoder != null ? decoder.decode(l) : l.stringValue();
+	}
+
+	/**
+	 * Decodes <code>xsd:dateTime</code> literals to {@link Instant},
+	 * {@link OffsetDateTime} or {@link LocalDateTime} if one of these is
+	 * requested, and to {@link Date} otherwise. Values without a timezone are
+	 * taken as UTC for the types with an offset. The label of a literal of any
+	 * datatype is returned for String properties. A codec registered for the
+	 * requested type takes precedence.
+	 */
+	@Override
+	public Object getJavaObject(Literal l, Class<?> type) {
+		if ((type != null) && (type != Object.class)) {
+			Codec<?> codec = CodecRegistry.getCodec(type);
+			if (codec != null) {
+				return codec.decode(l);
+			}
+		}
+		if (type == String.class) {
+			// e.g. xsd:date, xsd:duration or xsd:integer values kept as text
+			return l.getLabel();
+		}
+		if ((type != null) && type.isPrimitive() && PRIMITIVE_DATATYPES.contains(l.getDatatype())) {
+			try {
+				return getPrimitiveValue(l, type);
+			} catch (IllegalArgumentException e) {
+				// out of range or not a boolean, let the setter reject it
+			}
+		}
+		else if ((type != null) && XMLSchema.DATETIME.equals(l.getDatatype())) {
+			if (type == Instant.class) {
+				return DateUtils.parseInstant(l.getLabel());
+			}
+			else if (type == OffsetDateTime.class) {
+				return DateUtils.parseOffsetDateTime(l.getLabel());
+			}
+			else if (type == LocalDateTime.class) {
+				return DateUtils.parseLocalDateTime(l.getLabel());
+			}
+		}
+		return getJavaObject(l);
+	}
+
+	/**
+	 * Decodes a literal of a primitive datatype into a value of the given
+	 * primitive type, converting between the numeric types (e.g. an
+	 * <code>xsd:long</code> literal for an <code>int</code> property).
+	 */
+	private Object getPrimitiveValue(Literal l, Class<?> type) {
+		if (type == int.class) {
+			return getInt(l);
+		}
+		else if (type == long.class) {
+			return getLong(l);
+		}
+		else if (type == double.class) {
+			return getDouble(l);
+		}
+		else if (type == float.class) {
+			return getFloat(l);
+		}
+		else if (type == boolean.class) {
+			return getBoolean(l);
+		}
+		else if (type == short.class) {
+			return getShort(l);
+		}
+		else if (type == byte.class) {
+			return getByte(l);
+		}
+		return getChar(l);
+	}
+
+	@Override
+	public boolean getBoolean(Literal value) {
+		return value.booleanValue();
+	}
+
+	@Override
+	public byte getByte(Literal value) {
+		return value.byteValue();
+	}
+
+	@Override
+	public short getShort(Literal value) {
+		return value.shortValue();
+	}
+
+	@Override
+	public int getInt(Literal value) {
+		return value.intValue();
+	}
+
+	@Override
+	public long getLong(Literal value) {
+		return value.longValue();
+	}
+
+	@Override
+	public float getFloat(Literal value) {
+		return value.floatValue();
+	}
+
+	@Override
+	public double getDouble(Literal value) {
+		return value.doubleValue();
+	}
+
+	@Override
+	public char getChar(Literal value) {
+		String s = value.getLabel();
+		return s.length() > 0 ? s.charAt(0) : '\u0000';
+	}
+
+	@Override
+	public Literal getRDFValue(boolean value, ValueFactory vf) {
+		return vf.createLiteral(value);
+	}
+
+	@Override
+	public Literal getRDFValue(byte value, ValueFactory vf) {
+		return vf.createLiteral(value);
+	}
+
+	@Override
+	public Literal getRDFValue(short value, ValueFactory vf) {
+		return vf.createLiteral(value);
+	}
+
+	@Override
+	public Literal getRDFValue(int value, ValueFactory vf) {
+		return vf.createLiteral(value);
+	}
+
+	@Override
+	public Literal getRDFValue(long value, ValueFactory vf) {
+		return vf.createLiteral(value);
+	}
+
+	@Override
+	public Literal getRDFValue(float value, ValueFactory vf) {
+		return vf.createLiteral(value);
+	}
+
+	@Override
+	public Literal getRDFValue(double value, ValueFactory vf) {
+		return vf.createLiteral(value);
 	}
 
 	@Override
+	public Literal getRDFValue(char value, ValueFactory vf) {
+		return vf.createLiteral(String.valueOf(value), Java.CHAR);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
 	public Literal getRDFValue(Object value, ValueFactory vf) {
-		if (value instanceof Date) {
-			return vf.createLiteral((Date)value);
+		Class<?> c = value.getClass();
+		Codec codec = CodecRegistry.getCodec(c);
+		if (codec != null) {
+			return codec.encode(value, vf);
 		}
-		IRI dtUri = getDatatypeURI(value.getClass());
+		// primitive wrappers are created with the typed ValueFactory methods
+		if (c == Integer.class) {
+			return getRDFValue(((Integer) value).intValue(), vf);
+		}
+		else if (c == Long.class) {
+			return getRDFValue(((Long) value).longValue(), vf);
+		}
+		else if (c == Double.class) {
+			return getRDFValue(((Double) value).doubleValue(), vf);
+		}
+		else if (c == Boolean.class) {
+			return getRDFValue(((Boolean) value).booleanValue(), vf);
+		}
+		else if (c == Float.class) {
+			return getRDFValue(((Float) value).floatValue(), vf);
+		}
+		else if (c == Short.class) {
+			return getRDFValue(((Short) value).shortValue(), vf);
+		}
+		else if (c == Byte.class) {
+			return getRDFValue(((Byte) value).byteValue(), vf);
+		}
+		else if (c == Character.class) {
+			return getRDFValue(((Character) value).charValue(), vf);
+		}
+		IRI dtUri = getDatatypeURI(c);
 		if (dtUri != null) {
-			if (dtUri.equals(XMLSchema.STRING)) {
+			if (dtUri == XMLSchema.STRING) {
 				return vf.createLiteral(value.toString());
 			}
-			return vf.createLiteral(value.toString(), dtUri);
+			return vf.createLiteral(getLabel(value), dtUri);
 		}
 		return null;
 	}
+
+	private static String getLabel(Object value) {
+		if (value instanceof Date) {
+			return DateUtils.formatDateTime((Date) value);
+		}
+		else if (value instanceof Instant) {
+			return DateUtils.formatDateTime((Instant) value);
+		}
+		else if (value instanceof OffsetDateTime) {
+			return DateUtils.formatDateTime((OffsetDateTime) value);
+		}
+		else if (value instanceof LocalDateTime) {
+			return DateUtils.formatDateTime((LocalDateTime) value);
+		}
+		else if (value instanceof LocalDate) {
+			return DateUtils.formatDate((LocalDate) value);
+		}
+		else if (value instanceof Duration) {
+			return DateUtils.formatDuration((Duration) value);
+		}
+		return value.toString();
+	}
 }
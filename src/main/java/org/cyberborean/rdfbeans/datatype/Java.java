@@ -12,6 +12,29 @@ public class Java {
 	
 	public final static IRI CHAR = SimpleValueFactory.getInstance()
 			.createIRI(NAMESPACE + "char");
+
+	/*
+	 * Packed numeric arrays: base64-encoded little-endian values
+	 * (see PackedArrays)
+	 */
+
+	public final static IRI BYTE_ARRAY = SimpleValueFactory.getInstance()
+			.createIRI(NAMESPACE + "byteArray");
+
+	public final static IRI SHORT_ARRAY = SimpleValueFactory.getInstance()
+			.createIRI(NAMESPACE + "shortArray");
+
+	public final static IRI INT_ARRAY = SimpleValueFactory.getInstance()
+			.createIRI(NAMESPACE + "intArray");
+
+	public final static IRI LONG_ARRAY = SimpleValueFactory.getInstance()
+			.createIRI(NAMESPACE + "longArray");
+
+	public final static IRI FLOAT_ARRAY = SimpleValueFactory.getInstance()
+			.createIRI(NAMESPACE + "floatArray");
+
+	public final static IRI DOUBLE_ARRAY = SimpleValueFactory.getInstance()
+			.createIRI(NAMESPACE + "doubleArray");
 	
 	
 }
@@ -0,0 +1,230 @@
+package org.cyberborean.rdfbeans.datatype;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.ValueFactory;
+
+/**
+ * Binary literal encoding of numeric arrays, used for the properties
+ * declared with
+ * <code>@RDFContainer(ContainerType.PACKED)</code>.
+ *
+ * The values of a <code>byte[]</code>, <code>short[]</code>,
+ * <code>int[]</code>, <code>long[]</code>, <code>float[]</code> or
+ * <code>double[]</code> array are written in little-endian byte order and
+ * base64-encoded into a single literal of the corresponding datatype from the
+ * {@link Java} namespace (e.g. {@link Java#INT_ARRAY}). The arrays are
+ * converted with the bulk <code>java.nio</code> buffer operations, without
+ * boxing the values.
+ */
+public class PackedArrays {
+
+	private static final Map<Class<?>, IRI> DATATYPES = new HashMap<>();
+	private static final Map<Class<?>, Class<?>> PRIMITIVES = new HashMap<>();
+	static {
+		DATATYPES.put(byte.class, Java.BYTE_ARRAY);
+		DATATYPES.put(short.class, Java.SHORT_ARRAY);
+		DATATYPES.put(int.class, Java.INT_ARRAY);
+		DATATYPES.put(long.class, Java.LONG_ARRAY);
+		DATATYPES.put(float.class, Java.FLOAT_ARRAY);
+		DATATYPES.put(double.class, Java.DOUBLE_ARRAY);
+		for (Class<?> c : DATATYPES.keySet()) {
+			PRIMITIVES.put(c, c);
+		}
+		PRIMITIVES.put(Byte.class, byte.class);
+		PRIMITIVES.put(Short.class, short.class);
+		PRIMITIVES.put(Integer.class, int.class);
+		PRIMITIVES.put(Long.class, long.class);
+		PRIMITIVES.put(Float.class, float.class);
+		PRIMITIVES.put(Double.class, double.class);
+	}
+
+	/**
+	 * Returns the primitive element type of packed arrays for a numeric
+	 * primitive type or its wrapper class.
+	 *
+	 * @param type
+	 *            element type of an array or a Collection
+	 * @return the primitive type, or null if values of the type cannot be
+	 *         packed
+	 */
+	public static Class<?> getPrimitiveType(Class<?> type) {
+		return PRIMITIVES.get(type);
+	}
+
+	/**
+	 * Checks if a datatype is the datatype of packed arrays.
+	 */
+	public static boolean isPacked(IRI datatype) {
+		return (datatype != null) && DATATYPES.containsValue(datatype);
+	}
+
+	/**
+	 * Packs a numeric primitive array or a Collection of numbers into a
+	 * literal.
+	 *
+	 * @param value
+	 *            a numeric primitive array or a Collection of
+	 *            {@link Number}s
+	 * @param elementType
+	 *            numeric primitive type the Collection elements are converted
+	 *            to (ignored for arrays)
+	 * @param valueFactory
+	 * @return the literal
+	 * @throws IllegalArgumentException
+	 *             if the value cannot be packed
+	 */
+	public static Literal encode(Object value, Class<?> elementType, ValueFactory valueFactory) {
+		Object array = value;
+		if (value instanceof Collection) {
+			array = toArray((Collection<?>) value, elementType);
+		}
+		IRI datatype = array.getClass().isArray() ? DATATYPES.get(array.getClass().getComponentType()) : null;
+		if (datatype == null) {
+			throw new IllegalArgumentException("Cannot pack a value of " + value.getClass().getName());
+		}
+		ByteBuffer buf;
+		int length = Array.getLength(array);
+		if (array instanceof byte[]) {
+			buf = ByteBuffer.wrap((byte[]) array);
+		}
+		else if (array instanceof short[]) {
+			buf = allocate(length, Short.BYTES);
+			buf.asShortBuffer().put((short[]) array);
+		}
+		else if (array instanceof int[]) {
+			buf = allocate(length, Integer.BYTES);
+			buf.asIntBuffer().put((int[]) array);
+		}
+		else if (array instanceof long[]) {
+			buf = allocate(length, Long.BYTES);
+			buf.asLongBuffer().put((long[]) array);
+		}
+		else if (array instanceof float[]) {
+			buf = allocate(length, Float.BYTES);
+			buf.asFloatBuffer().put((float[]) array);
+		}
+		else {
+			buf = allocate(length, Double.BYTES);
+			buf.asDoubleBuffer().put((double[]) array);
+		}
+		return valueFactory.createLiteral(Base64.getEncoder().encodeToString(buf.array()), datatype);
+	}
+
+	/**
+	 * Unpacks a literal into a numeric primitive array.
+	 *
+	 * @param l
+	 *            a literal of one of the packed array datatypes
+	 * @return the array
+	 * @throws IllegalArgumentException
+	 *             if the literal is not a valid packed array
+	 */
+	public static Object decode(Literal l) {
+		IRI datatype = l.getDatatype();
+		byte[] bytes = Base64.getDecoder().decode(l.getLabel());
+		ByteBuffer buf = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		if (Java.BYTE_ARRAY.equals(datatype)) {
+			return bytes;
+		}
+		else if (Java.SHORT_ARRAY.equals(datatype)) {
+			short[] array = new short[length(bytes, Short.BYTES)];
+			buf.asShortBuffer().get(array);
+			return array;
+		}
+		else if (Java.INT_ARRAY.equals(datatype)) {
+			int[] array = new int[length(bytes, Integer.BYTES)];
+			buf.asIntBuffer().get(array);
+			return array;
+		}
+		else if (Java.LONG_ARRAY.equals(datatype)) {
+			long[] array = new long[length(bytes, Long.BYTES)];
+			buf.asLongBuffer().get(array);
+			return array;
+		}
+		else if (Java.FLOAT_ARRAY.equals(datatype)) {
+			float[] array = new float[length(bytes, Float.BYTES)];
+			buf.asFloatBuffer().get(array);
+			return array;
+		}
+		else if (Java.DOUBLE_ARRAY.equals(datatype)) {
+			double[] array = new double[length(bytes, Double.BYTES)];
+			buf.asDoubleBuffer().get(array);
+			return array;
+		}
+		throw new IllegalArgumentException("Not a packed array datatype: " + datatype);
+	}
+
+	/**
+	 * Unpacks a literal into a value of a property type: the primitive array
+	 * itself for array properties or a List of the boxed values otherwise.
+	 */
+	public static Object decode(Literal l, Class<?> propertyType) {
+		Object array = decode(l);
+		if (propertyType.isArray()) {
+			return array;
+		}
+		int length = Array.getLength(array);
+		List<Object> list = new ArrayList<>(length);
+		for (int i = 0; i < length; i++) {
+			list.add(Array.get(array, i));
+		}
+		return list;
+	}
+
+	private static ByteBuffer allocate(int length, int size) {
+		return ByteBuffer.allocate(length * size).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static int length(byte[] bytes, int size) {
+		if (bytes.length % size != 0) {
+			throw new IllegalArgumentException("Packed array length " + bytes.length
+					+ " is not a multiple of " + size);
+		}
+		return bytes.length / size;
+	}
+
+	private static Object toArray(Collection<?> values, Class<?> elementType) {
+		if (!DATATYPES.containsKey(elementType)) {
+			throw new IllegalArgumentException("Cannot pack values into an array of " + elementType);
+		}
+		Object array = Array.newInstance(elementType, values.size());
+		int i = 0;
+		for (Object v : values) {
+			if (!(v instanceof Number)) {
+				throw new IllegalArgumentException("Cannot pack a Collection element: " + v);
+			}
+			Number n = (Number) v;
+			if (elementType == byte.class) {
+				((byte[]) array)[i++] = n.byteValue();
+			}
+			else if (elementType == short.class) {
+				((short[]) array)[i++] = n.shortValue();
+			}
+			else if (elementType == int.class) {
+				((int[]) array)[i++] = n.intValue();
+			}
+			else if (elementType == long.class) {
+				((long[]) array)[i++] = n.longValue();
+			}
+			else if (elementType == float.class) {
+				((float[]) array)[i++] = n.floatValue();
+			}
+			else {
+				((double[]) array)[i++] = n.doubleValue();
+			}
+		}
+		return array;
+	}
+
+}
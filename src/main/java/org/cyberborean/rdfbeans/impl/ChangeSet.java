@@ -0,0 +1,104 @@
+package org.cyberborean.rdfbeans.impl;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+
+/**
+ * Collects statement additions and removals in memory, to be written to
+ * the repository at once.
+ *
+ * Removals by pattern are resolved against the repository and against the
+ * pending additions, so that the ChangeSet reflects the repository state
+ * after all the changes collected so far. The statements that are both
+ * removed and re-added are dropped from both Models before applying.
+ */
+public class ChangeSet implements Marshaller.Target {
+
+	private final RepositoryConnection conn;
+	private final Model additions = new LinkedHashModel();
+	private final Model removals = new LinkedHashModel();
+	// subjects with all their statements removed from the repository
+	private final Set<Resource> cleared = new HashSet<>();
+
+	public ChangeSet(RepositoryConnection conn) {
+		this.conn = conn;
+	}
+
+	@Override
+	public ValueFactory getValueFactory() {
+		return conn.getValueFactory();
+	}
+
+	@Override
+	public boolean hasSubject(Resource subject, IRI context) {
+		return additions.contains(subject, null, null, context)
+				|| (!cleared.contains(subject) && conn.hasStatement(subject, null, null, false, context));
+	}
+
+	@Override
+	public void add(Resource subject, IRI predicate, Value object, Resource... contexts) {
+		additions.add(subject, predicate, object, contexts);
+	}
+
+	@Override
+	public void remove(Resource subject, IRI predicate, Value object, Resource... contexts) {
+		additions.remove(subject, predicate, object, contexts);
+		Iterations.addAll(conn.getStatements(subject, predicate, object, false, contexts), removals);
+		if (subject != null && predicate == null && object == null) {
+			cleared.add(subject);
+		}
+	}
+
+	/**
+	 * Removes all statements where the resource is either a subject or an
+	 * object.
+	 */
+	public void removeResource(Resource r, IRI context) {
+		remove(r, null, null, context);
+		remove(null, null, r, context);
+	}
+
+	public boolean isEmpty() {
+		return additions.isEmpty() && removals.isEmpty();
+	}
+
+	public Model getAdditions() {
+		return additions;
+	}
+
+	public Model getRemovals() {
+		return removals;
+	}
+
+	/**
+	 * Writes the changes to the connection as one removal and one addition.
+	 * The caller is responsible for the transaction.
+	 */
+	public void apply() throws RepositoryException {
+		// unchanged statements need not be written at all
+		for (Iterator<Statement> it = additions.iterator(); it.hasNext();) {
+			if (removals.remove(it.next())) {
+				it.remove();
+			}
+		}
+		if (!removals.isEmpty()) {
+			conn.remove(removals);
+		}
+		if (!additions.isEmpty()) {
+			conn.add(additions);
+		}
+	}
+
+}
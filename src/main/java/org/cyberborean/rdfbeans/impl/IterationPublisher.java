@@ -0,0 +1,168 @@
+package org.cyberborean.rdfbeans.impl;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * A cold Reactive Streams Publisher over a CloseableIteration.
+ *
+ * Every subscription gets its own emitting task on the given Executor.
+ * The task opens the iteration on the first request and reads from it
+ * only as many elements as the subscriber has requested, waiting for
+ * more demand otherwise, so that a slow subscriber throttles the reads
+ * from the repository. As the iteration is opened and read on the same
+ * thread, it uses the connection of that thread, which is released
+ * when the subscription completes, fails or is cancelled.
+ *
+ * @param <T>
+ *            type of the published elements
+ */
+public class IterationPublisher<T> implements Publisher<T> {
+
+	/**
+	 * Opens the iteration to be published. Invoked on the emitting thread.
+	 */
+	public interface IterationFactory<T> {
+
+		CloseableIteration<? extends T, ? extends Exception> open() throws Exception;
+
+	}
+
+	private final IterationFactory<T> factory;
+	private final Executor executor;
+	private final RepositoryConnectionPool connectionPool;
+
+	public IterationPublisher(IterationFactory<T> factory, Executor executor,
+			RepositoryConnectionPool connectionPool) {
+		this.factory = factory;
+		this.executor = executor;
+		this.connectionPool = connectionPool;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("Subscriber is null");
+		}
+		IterationSubscription subscription = new IterationSubscription(subscriber);
+		subscriber.onSubscribe(subscription);
+		try {
+			executor.execute(subscription);
+		} catch (RejectedExecutionException e) {
+			subscription.cancel();
+			subscriber.onError(e);
+		}
+	}
+
+	private class IterationSubscription implements Subscription, Runnable {
+
+		private final Subscriber<? super T> subscriber;
+		private long demand;
+		private boolean cancelled;
+		private IllegalArgumentException badRequest;
+
+		IterationSubscription(Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public synchronized void request(long n) {
+			if (n <= 0) {
+				if (badRequest == null) {
+					badRequest = new IllegalArgumentException(
+							"Non-positive number of elements requested: " + n);
+				}
+			} else {
+				demand += n;
+				if (demand < 0) {
+					// overflow: unbounded demand
+					demand = Long.MAX_VALUE;
+				}
+			}
+			notifyAll();
+		}
+
+		@Override
+		public synchronized void cancel() {
+			cancelled = true;
+			notifyAll();
+		}
+
+		/**
+		 * Waits for demand and takes one element of it.
+		 *
+		 * @return false if the subscription is cancelled
+		 * @throws IllegalArgumentException
+		 *             if a non-positive number of elements was requested
+		 */
+		private synchronized boolean awaitDemand() throws InterruptedException {
+			while (demand == 0 && !cancelled && badRequest == null) {
+				wait();
+			}
+			if (cancelled) {
+				return false;
+			}
+			if (badRequest != null) {
+				throw badRequest;
+			}
+			if (demand != Long.MAX_VALUE) {
+				demand--;
+			}
+			return true;
+		}
+
+		private synchronized boolean isCancelled() {
+			return cancelled;
+		}
+
+		@Override
+		public void run() {
+			CloseableIteration<? extends T, ? extends Exception> iter = null;
+			// the subscription may run on the subscriber's thread: keep its
+			// connection (and transaction)
+			boolean borrowed = !connectionPool.hasConnection();
+			try {
+				while (awaitDemand()) {
+					if (iter == null) {
+						iter = factory.open();
+					}
+					if (!iter.hasNext()) {
+						cancel();
+						subscriber.onComplete();
+						return;
+					}
+					subscriber.onNext(iter.next());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				signalError(e);
+			} catch (Throwable t) {
+				signalError(t);
+			} finally {
+				if (iter != null) {
+					try {
+						iter.close();
+					} catch (Exception e) {
+						// ignore
+					}
+				}
+				if (borrowed) {
+					connectionPool.releaseConnection();
+				}
+			}
+		}
+
+		private void signalError(Throwable t) {
+			if (!isCancelled()) {
+				cancel();
+				subscriber.onError(t);
+			}
+		}
+	}
+
+}
@@ -1,24 +1,37 @@
 package org.cyberborean.rdfbeans.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.WeakHashMap;
-import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.Lock;
 
 import org.cyberborean.rdfbeans.annotations.RDFContainer.ContainerType;
+import org.cyberborean.rdfbeans.datatype.Codec;
 import org.cyberborean.rdfbeans.datatype.DatatypeMapper;
+import org.cyberborean.rdfbeans.datatype.PackedArrays;
 import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
 import org.cyberborean.rdfbeans.exceptions.RDFBeanValidationException;
 import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.cyberborean.rdfbeans.reflect.RDFEnumInfo;
 import org.cyberborean.rdfbeans.reflect.RDFProperty;
 import org.cyberborean.rdfbeans.reflect.SubjectProperty;
+import org.cyberborean.rdfbeans.reflect.ValueKind;
 import org.cyberborean.rdfbeans.util.LockKeeper;
 import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
@@ -26,6 +39,24 @@ import org.eclipse.rdf4j.repository.RepositoryException;
 
 public class Marshaller {
 
+	/**
+	 * The rdf:type binding and rdfs:subClassOf statements written with every
+	 * object of a class, resolved once per class.
+	 */
+	private static final ClassValue<List<Statement>> schemaStatements = new ClassValue<List<Statement>>() {
+
+		@Override
+		protected List<Statement> computeValue(Class<?> cls) {
+			ValueFactory vf = SimpleValueFactory.getInstance();
+			RDFBeanInfo rbi = RDFBeanInfo.get(cls);
+			List<Statement> statements = new ArrayList<>();
+			statements.add(vf.createStatement(rbi.getRDFType(), Constants.BINDINGCLASS_PROPERTY,
+					vf.createLiteral(cls.getName())));
+			addSuperClassTypes(statements, rbi);
+			return Collections.unmodifiableList(statements);
+		}
+	};
+
 	private final LockKeeper locks;
 	private DatatypeMapper datatypeMapper;
 
@@ -35,10 +66,82 @@ public class Marshaller {
 	}
 
 	public Resource marshal(RepositoryConnection conn, Object o, boolean update, IRI context) throws RDFBeanException, RepositoryException {
-		return marshal(conn, o, update, new WeakHashMap<>(), context);
+		// acquire write locks on all named resources of the object graph
+		// up front and in a deterministic order to prevent deadlocks
+		// between concurrent writers
+		List<Lock> acquired = locks.writeLockAll(collectResources(o));
+		try {
+			return marshal(new ConnectionTarget(conn), o, update, new WeakHashMap<>(), context);
+		} finally {
+			locks.unlockAll(acquired);
+		}
+	}
+
+	/**
+	 * Marshals the object into a ChangeSet instead of writing to the
+	 * repository. Unlike {@link #marshal(RepositoryConnection, Object, boolean, IRI)},
+	 * no locks are taken: the caller must hold the write locks on the
+	 * resources returned by {@link #collectResources(Object)} until the
+	 * ChangeSet is applied.
+	 */
+	public Resource marshal(ChangeSet changes, Object o, boolean update, IRI context) throws RDFBeanException, RepositoryException {
+		return marshal(changes, o, update, new WeakHashMap<>(), context);
+	}
+
+	/**
+	 * Resolves the RDF schema statements written with the objects of the
+	 * class, so that the first marshalling of an object does not have to.
+	 */
+	public void warmUp(Class<?> cls) throws RDFBeanException {
+		schemaStatements.get(cls);
+	}
+
+	/**
+	 * Returns the named resources of the object graph, i.e. the resources
+	 * which are written by marshalling the object.
+	 */
+	public Set<Resource> collectResources(Object o) throws RDFBeanException {
+		Set<Resource> resources = new HashSet<>();
+		collectResources(o, resources, Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>()));
+		return resources;
+	}
+
+	private void collectResources(Object o, Set<Resource> resources, Set<Object> visited) throws RDFBeanException {
+		if (!visited.add(o)) {
+			return;
+		}
+		RDFBeanInfo rbi = RDFBeanInfo.get(o.getClass());
+		SubjectProperty sp = rbi.getSubjectProperty();
+		if (sp != null) {
+			Object value = sp.getValue(o);
+			if (value != null) {
+				resources.add((Resource) value);
+			}
+		}
+		for (RDFProperty p : rbi.getProperties()) {
+			if (p.getContainerType() == ContainerType.PACKED) {
+				// numbers only
+				continue;
+			}
+			Object value = p.getValue(o);
+			if (value == null) {
+				continue;
+			}
+			Collection<?> values = isCollection(value) ? (Collection<?>) value : Collections.singleton(value);
+			for (Object v : values) {
+				if (v == null) {
+					continue;
+				}
+				if (RDFBeanInfo.isRdfBean(v)) {
+					collectResources(v, resources, visited);
+				} else if (p.isInversionOfProperty() && (v instanceof java.net.URI)) {
+					resources.add(SimpleValueFactory.getInstance().createIRI(v.toString()));
+				}
+			}
+		}
 	}
 	
-	private Resource marshal(RepositoryConnection conn, Object o, boolean update, Map<Object, Resource> resourceCache, IRI context) throws RDFBeanException, RepositoryException {
+	private Resource marshal(Target conn, Object o, boolean update, Map<Object, Resource> resourceCache, IRI context) throws RDFBeanException, RepositoryException {
 		// Check if object is already marshalled
 		Resource subject = resourceCache.get(o);
 		if (subject != null && !update) {
@@ -64,153 +167,145 @@ public class Marshaller {
 			subject = conn.getValueFactory().createBNode();
 		}
 
-		// acquire write lock on this resource
-		ReadWriteLock lock = locks.getLock(subject);
-		lock.writeLock().lock();
-		try {			
-			 if (!(subject instanceof BNode) && conn.hasStatement(subject, null, null, false, (IRI)context)) {
-				// Resource is already in the model
-				if (update) {
-					// Remove existing triples
-					conn.remove(subject, null, null, (IRI)context);
-				} else {
-					// Will not be added
-					return subject;
-				}
+		// Write locks of the named resources are already held (see public
+		// marshal() method), blank nodes are new and not visible to other
+		// threads
+		if (!(subject instanceof BNode) && conn.hasSubject(subject, context)) {
+			// Resource is already in the model
+			if (update) {
+				// Remove existing triples
+				conn.remove(subject, null, null, (IRI)context);
+			} else {
+				// Will not be added
+				return subject;
 			}
+		}
 
-			// Add subject to cache
-			resourceCache.put(o, subject);
-
-			// Add rdf:type
-			IRI type = rbi.getRDFType();
-			conn.add(subject, RDF.TYPE, type, (IRI)context);
-			conn.add(type, Constants.BINDINGCLASS_PROPERTY, conn.getValueFactory().createLiteral(cls.getName()), (IRI)context);
-			addSuperClassTypes(conn, rbi, context);
-			// Add properties
-			for (RDFProperty p : rbi.getProperties()) {
-				IRI predicate = p.getUri();
-				Object value = p.getValue(o);
-				if (p.isInversionOfProperty()) {
-					conn.remove((Resource) null, predicate, subject, (IRI)context);
-				}
-				if (value != null) {
-					if (isCollection(value)) {
-						// Collection
-						Collection values = (Collection) value;
-						if (p.getContainerType() == ContainerType.NONE) {
-							// Create multiple triples
-							for (Object v : values) {
-								Value object = toRdf(conn, v, resourceCache, context);
-								if (object != null) {
-									if (p.isInversionOfProperty()) {
-										if (object instanceof Resource) {
-											ReadWriteLock invLock = null;
-											if (!object.equals(subject)) {
-												invLock = locks.getLock(object);
-												invLock.writeLock().lock();
-											}
-											try {												
-												conn.add((Resource) object, predicate, subject, (IRI)context);
-											}
-											finally {
-												if (invLock != null) {
-													invLock.writeLock().unlock();
-												}
-											}
-										} else {
-											throw new RDFBeanException("Value of the \"inverseOf\" property "
-													+ p.getPropertyDescriptor().getName() + " of class "
-													+ rbi.getRDFBeanClass().getName() + " must be of "
-													+ "an RDFBean type (was: " + object.getClass().getName() + ")");
-										}
+		// Add subject to cache
+		resourceCache.put(o, subject);
+
+		// Add rdf:type
+		IRI type = rbi.getRDFType();
+		conn.add(subject, RDF.TYPE, type, (IRI)context);
+		for (Statement st : schemaStatements.get(cls)) {
+			conn.add(st.getSubject(), st.getPredicate(), st.getObject(), (IRI)context);
+		}
+		// Add properties
+		for (RDFProperty p : rbi.getProperties()) {
+			IRI predicate = p.getUri();
+			if (p.getContainerType() == ContainerType.PACKED) {
+				marshalPacked(conn, o, subject, p, context);
+				continue;
+			}
+			Object value = p.getValue(o);
+			if (p.isInversionOfProperty()) {
+				conn.remove((Resource) null, predicate, subject, (IRI)context);
+			}
+			if (value != null) {
+				if (isCollection(value)) {
+					// Collection
+					Collection values = (Collection) value;
+					if (p.getContainerType() == ContainerType.NONE) {
+						// Create multiple triples
+						for (Object v : values) {
+							Value object = toRdf(conn, v, p.getCodec(), resourceCache, context);
+							if (object != null) {
+								if (p.isInversionOfProperty()) {
+									if (object instanceof Resource) {
+										conn.add((Resource) object, predicate, subject, (IRI)context);
 									} else {
-										conn.add(subject, predicate, object, (IRI)context);
-									}
-								}
-							}
-						} else if (p.getContainerType() == ContainerType.LIST) {
-							if (p.isInversionOfProperty()) {
-								throw new RDFBeanException(
-										"RDF container type is not allowed for a \"inverseOf\" property "
+										throw new RDFBeanException("Value of the \"inverseOf\" property "
 												+ p.getPropertyDescriptor().getName() + " of class "
-												+ rbi.getRDFBeanClass().getName());
-							}
-							marshalLinkedList(conn, values, subject, p, resourceCache, context);
-						} else {
-							if (!p.isInversionOfProperty()) {
-								// Create RDF Container bNode
-								IRI ctype = RDF.BAG;
-								if (p.getContainerType() == ContainerType.SEQ) {
-									ctype = RDF.SEQ;
-								} else if (p.getContainerType() == ContainerType.ALT) {
-									ctype = RDF.ALT;
-								}
-								BNode collection = conn.getValueFactory().createBNode();
-								conn.add(collection, RDF.TYPE, ctype, (IRI)context);
-								int i = 1;
-								for (Object v : values) {
-									Value object = toRdf(conn, v, resourceCache, context);
-									if (object != null) {
-										conn.add(collection, conn.getValueFactory().createIRI(RDF.NAMESPACE, "_" + i++),
-												object, (IRI)context);
+												+ rbi.getRDFBeanClass().getName() + " must be of "
+												+ "an RDFBean type (was: " + object.getClass().getName() + ")");
 									}
+								} else {
+									conn.add(subject, predicate, object, (IRI)context);
 								}
-								conn.add(subject, predicate, collection, (IRI)context);
-							} else {
-								throw new RDFBeanException(
-										"RDF container type is not allowed for a \"inverseOf\" property "
-												+ p.getPropertyDescriptor().getName() + " of class "
-												+ rbi.getRDFBeanClass().getName());
 							}
 						}
+					} else if (p.getContainerType() == ContainerType.LIST) {
+						if (p.isInversionOfProperty()) {
+							throw new RDFBeanException(
+									"RDF container type is not allowed for a \"inverseOf\" property "
+											+ p.getPropertyDescriptor().getName() + " of class "
+											+ rbi.getRDFBeanClass().getName());
+						}
+						marshalLinkedList(conn, values, subject, p, resourceCache, context);
 					} else {
-						// Single value
-						Value object = toRdf(conn, value, resourceCache, context);
-						if (object != null) {
-							if (p.isInversionOfProperty()) {
-								if (object instanceof Resource) {
-									ReadWriteLock invLock = null;
-									if (!object.equals(subject)) {
-										invLock = locks.getLock(object);
-										invLock.writeLock().lock();
-									}
-									try {												
-										conn.add((Resource) object, predicate, subject, (IRI)context);
-									}
-									finally {
-										if (invLock != null) {
-											invLock.writeLock().unlock();
-										}
-									}
-									
-								} else {
-									throw new RDFBeanException(
-											"Value of the \"inverseOf\" property " + p.getPropertyDescriptor().getName()
-													+ " of class " + rbi.getRDFBeanClass().getName() + " must be of "
-													+ "an RDFBean type (was: " + object.getClass().getName() + ")");
+						if (!p.isInversionOfProperty()) {
+							// Create RDF Container bNode
+							IRI ctype = RDF.BAG;
+							if (p.getContainerType() == ContainerType.SEQ) {
+								ctype = RDF.SEQ;
+							} else if (p.getContainerType() == ContainerType.ALT) {
+								ctype = RDF.ALT;
+							}
+							BNode collection = conn.getValueFactory().createBNode();
+							conn.add(collection, RDF.TYPE, ctype, (IRI)context);
+							int i = 1;
+							for (Object v : values) {
+								Value object = toRdf(conn, v, p.getCodec(), resourceCache, context);
+								if (object != null) {
+									conn.add(collection, conn.getValueFactory().createIRI(RDF.NAMESPACE, "_" + i++),
+											object, (IRI)context);
 								}
+							}
+							conn.add(subject, predicate, collection, (IRI)context);
+						} else {
+							throw new RDFBeanException(
+									"RDF container type is not allowed for a \"inverseOf\" property "
+											+ p.getPropertyDescriptor().getName() + " of class "
+											+ rbi.getRDFBeanClass().getName());
+						}
+					}
+				} else {
+					// Single value
+					Value object = toRdf(conn, value, p.getCodec(), resourceCache, context);
+					if (object != null) {
+						if (p.isInversionOfProperty()) {
+							if (object instanceof Resource) {
+								conn.add((Resource) object, predicate, subject, (IRI)context);
 							} else {
-								conn.add(subject, predicate, object, (IRI)context);
+								throw new RDFBeanException(
+										"Value of the \"inverseOf\" property " + p.getPropertyDescriptor().getName()
+												+ " of class " + rbi.getRDFBeanClass().getName() + " must be of "
+												+ "an RDFBean type (was: " + object.getClass().getName() + ")");
 							}
+						} else {
+							conn.add(subject, predicate, object, (IRI)context);
 						}
 					}
 				}
 			}
-			return subject;
-		} finally {
-			lock.writeLock().unlock();
+		}
+		return subject;
+	}
+
+	private void marshalPacked(Target conn, Object o, Resource subject, RDFProperty property, IRI context)
+			throws RDFBeanException, RepositoryException {
+		Object value = property.getRawValue(o);
+		if (value != null) {
+			Literal l;
+			try {
+				l = PackedArrays.encode(value, property.getPackedElementType(), conn.getValueFactory());
+			} catch (IllegalArgumentException e) {
+				throw new RDFBeanException("Cannot pack the value of property "
+						+ property.getPropertyDescriptor().getName() + " of class "
+						+ o.getClass().getName(), e);
+			}
+			conn.add(subject, property.getUri(), l, (IRI)context);
 		}
 	}
 
-	private void marshalLinkedList(RepositoryConnection conn, Collection values, Resource subject, RDFProperty property, Map<Object, Resource> resourceCache, IRI context)
+	private void marshalLinkedList(Target conn, Collection values, Resource subject, RDFProperty property, Map<Object, Resource> resourceCache, IRI context)
 			throws RDFBeanException, RepositoryException {
 		BNode listHead = conn.getValueFactory().createBNode();
 		conn.add(subject, property.getUri(), listHead, (IRI)context);
 		Iterator<Object> value = values.iterator();
 		do {
 			if (value.hasNext()) {
-				Value valueNode = toRdf(conn, value.next(), resourceCache, context);
+				Value valueNode = toRdf(conn, value.next(), property.getCodec(), resourceCache, context);
 				conn.add(listHead, RDF.FIRST, valueNode, (IRI)context);
 			}
 			if (value.hasNext()) {
@@ -223,20 +318,30 @@ public class Marshaller {
 		} while (value.hasNext());
 	}
 
-	private Value toRdf(RepositoryConnection conn, Object value, Map<Object, Resource> resourceCache, IRI context) throws RDFBeanException, RepositoryException {
-		// Check if another RDFBean
-		if (RDFBeanInfo.isRdfBean(value)) {
-			return marshal(conn, value, false, resourceCache, context);
+	private Value toRdf(Target conn, Object value, Codec<Object> codec, Map<Object, Resource> resourceCache, IRI context) throws RDFBeanException, RepositoryException {
+		if ((codec != null) && (value != null)) {
+			// bound to the property
+			return codec.encode(value, conn.getValueFactory());
 		}
-		// Check if URI
-		if (java.net.URI.class.isAssignableFrom(value.getClass())) {
+		ValueKind kind = ValueKind.of(value);
+		switch (kind) {
+		case RDFBEAN:
+			// another RDFBean
+			return marshal(conn, value, false, resourceCache, context);
+		case URI:
 			return conn.getValueFactory().createIRI(value.toString());
+		default:
+			break;
 		}
 		// Check if a Literal
 		Literal l = datatypeMapper.getRDFValue(value, conn.getValueFactory());
 		if (l != null) {
 			return l;
 		}
+		// enums not handled by the DatatypeMapper
+		if (kind == ValueKind.ENUM) {
+			return RDFEnumInfo.get(value.getClass()).getValue((Enum<?>) value);
+		}
 		throw new RDFBeanException(
 				"Unsupported class [" + value.getClass().getName() + "] of value " + value.toString());
 	}
@@ -254,14 +359,59 @@ public class Marshaller {
 	}
 	
 
-	private void addSuperClassTypes(RepositoryConnection conn, RDFBeanInfo rbi, IRI context) throws RDFBeanValidationException {
+	private static void addSuperClassTypes(List<Statement> statements, RDFBeanInfo rbi) throws RDFBeanValidationException {
 		Class<?> superClass = rbi.getRDFBeanClass().getSuperclass();
 		if (superClass != null && RDFBeanInfo.isRdfBeanClass(superClass)) {
 			RDFBeanInfo superRbi = RDFBeanInfo.get(superClass);
 			if (superRbi != null) {
-				conn.add(rbi.getRDFType(), RDFS.SUBCLASSOF, superRbi.getRDFType(), (IRI)context);
-				addSuperClassTypes(conn, superRbi, context);
+				statements.add(SimpleValueFactory.getInstance().createStatement(rbi.getRDFType(), RDFS.SUBCLASSOF,
+						superRbi.getRDFType()));
+				addSuperClassTypes(statements, superRbi);
 			}
 		}
 	}
-}
+
+	/**
+	 * Destination of the marshalled statements.
+	 */
+	interface Target {
+
+		ValueFactory getValueFactory();
+
+		boolean hasSubject(Resource subject, IRI context);
+
+		void add(Resource subject, IRI predicate, Value object, Resource... contexts);
+
+		void remove(Resource subject, IRI predicate, Value object, Resource... contexts);
+
+	}
+
+	private static class ConnectionTarget implements Target {
+
+		private final RepositoryConnection conn;
+
+		ConnectionTarget(RepositoryConnection conn) {
+			this.conn = conn;
+		}
+
+		@Override
+		public ValueFactory getValueFactory() {
+			return conn.getValueFactory();
+		}
+
+		@Override
+		public boolean hasSubject(Resource subject, IRI context) {
+			return conn.hasStatement(subject, null, null, false, context);
+		}
+
+		@Override
+		public void add(Resource subject, IRI predicate, Value object, Resource... contexts) {
+			conn.add(subject, predicate, object, contexts);
+		}
+
+		@Override
+		public void remove(Resource subject, IRI predicate, Value object, Resource... contexts) {
+			conn.remove(subject, predicate, object, contexts);
+		}
+	}
+}
\ No newline at end of file
@@ -1,52 +1,482 @@
 package org.cyberborean.rdfbeans.impl;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Hands out RepositoryConnection objects to threads.
+ *
+ * A thread borrows a connection on its first {@link #getConnection()} call
+ * and keeps getting the same connection until it calls
+ * {@link #releaseConnection()}, which marks the end of its unit of work
+ * (including any transaction begun on that connection).
+ *
+ * The pool works in one of two modes:
+ * <ul>
+ * <li>thread-affine (the default): the number of connections is not
+ * limited, every thread gets a new connection, which is closed on
+ * release;</li>
+ * <li>bounded: at most <code>maxSize</code> connections are open at a time.
+ * Released connections are kept idle for reuse by other threads and closed
+ * after the idle timeout. A thread which finds the pool exhausted waits up
+ * to the borrow timeout for a connection to be released.</li>
+ * </ul>
+ *
+ * A connection borrowed by a thread is not released automatically while the
+ * thread is alive, except at the end of a
+ * {@link org.cyberborean.rdfbeans.UnitOfWork} which borrowed it. In the
+ * bounded mode, long-lived threads (e.g. of a thread pool) must call
+ * {@link #releaseConnection()} after their unit of work, otherwise the pool
+ * is exhausted once <code>maxSize</code> threads have used it.
+ *
+ * In both modes, connections of threads that have terminated without
+ * releasing them are reclaimed, and connections held longer than the leak
+ * detection threshold (if set) are reported to the log with the stack trace
+ * of the borrowing call.
+ */
 public class RepositoryConnectionPool {
-	
-	private Repository repo;
-	private ConcurrentMap<Thread, RepositoryConnection> pool = new ConcurrentHashMap<>();	
-	private ThreadLocal<RepositoryConnection> connHolder = new ThreadLocal<RepositoryConnection>() {
-
-		@Override
-		protected RepositoryConnection initialValue() {
-			RepositoryConnection conn = repo.getConnection();
-			pool.put(Thread.currentThread(), conn);
-			return conn;
-		}
-
-		@Override
-		public RepositoryConnection get() {			
-			RepositoryConnection conn = super.get();
-			if (!conn.isOpen()) {
-				// create new connection if the current one is closed
-				conn = initialValue();
-				set(conn);				
-			}
-			return conn;
-		}
-		
-	}; 
-		
+
+	private static final Logger log = LoggerFactory.getLogger(RepositoryConnectionPool.class);
+
+	private static final long HOUSEKEEPING_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+	private final Repository repo;
+	private final boolean bounded;
+	private final int maxSize;
+	private final long borrowTimeoutNanos;
+	private volatile long idleTimeoutNanos = TimeUnit.MINUTES.toNanos(5);
+	private volatile long leakThresholdNanos = 0;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition available = lock.newCondition();
+	private final Map<Thread, Borrowed> borrowed = new HashMap<>();
+	private final Deque<Idle> idle = new ArrayDeque<>();
+	private int opening = 0;
+	private long leakCount = 0;
+	private long reclaimedCount = 0;
+	private long evictedCount = 0;
+	private long lastHousekeeping = System.nanoTime();
+
+	private final ThreadLocal<Borrowed> holder = new ThreadLocal<>();
+
+	/**
+	 * Creates a thread-affine pool.
+	 *
+	 * @param repo
+	 *            RDF4J Repository to open the connections to
+	 */
 	public RepositoryConnectionPool(Repository repo) {
 		this.repo = repo;
+		this.bounded = false;
+		this.maxSize = Integer.MAX_VALUE;
+		this.borrowTimeoutNanos = 0;
 	}
-	
+
+	/**
+	 * Creates a bounded pool.
+	 *
+	 * Every thread keeps its connection until it calls
+	 * {@link #releaseConnection()}, closes the
+	 * {@link org.cyberborean.rdfbeans.UnitOfWork} that borrowed it or
+	 * terminates. With more live threads than <code>maxSize</code>, the
+	 * threads must release their connections after each unit of work, or
+	 * the others time out waiting for one.
+	 *
+	 * @param repo
+	 *            RDF4J Repository to open the connections to
+	 * @param maxSize
+	 *            Maximum number of open connections
+	 * @param borrowTimeout
+	 *            Maximum time to wait for a connection when the pool is
+	 *            exhausted
+	 * @param unit
+	 *            Time unit of the borrowTimeout argument
+	 */
+	public RepositoryConnectionPool(Repository repo, int maxSize, long borrowTimeout, TimeUnit unit) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+		}
+		this.repo = repo;
+		this.bounded = true;
+		this.maxSize = maxSize;
+		this.borrowTimeoutNanos = unit.toNanos(borrowTimeout);
+	}
+
+	/**
+	 * Returns the connection borrowed by the current thread, borrowing one
+	 * if the thread has none.
+	 *
+	 * @return RepositoryConnection of the current thread
+	 * @throws RepositoryException
+	 *             If the connection cannot be opened or if the bounded pool
+	 *             remained exhausted during the borrow timeout
+	 */
 	public RepositoryConnection getConnection() throws RepositoryException {
-		return connHolder.get();
+		Borrowed b = holder.get();
+		if (b != null) {
+			if (b.conn.isOpen()) {
+				return b.conn;
+			}
+			// the connection has been closed: forget it and borrow a new one
+			discard(b);
+		}
+		b = borrow();
+		holder.set(b);
+		return b.conn;
+	}
+
+	/**
+	 * Checks if the current thread holds a connection of this pool, i.e. if
+	 * {@link #getConnection()} would not borrow a new one. Tasks which may run
+	 * on the caller's thread use this to release only the connections they
+	 * borrowed themselves.
+	 *
+	 * @return true if the current thread holds an open connection
+	 */
+	public boolean hasConnection() {
+		Borrowed b = holder.get();
+		return (b != null) && b.conn.isOpen();
+	}
+
+	/**
+	 * Ends the unit of work of the current thread and releases its
+	 * connection, if any. An active transaction on the connection is rolled
+	 * back. In the bounded mode, the connection is returned to the pool,
+	 * otherwise it is closed. The next {@link #getConnection()} call on this
+	 * thread borrows a connection again.
+	 *
+	 * This should be called when a thread completes a unit of work and may
+	 * not use the pool for a while (e.g. a thread-per-task executor), so that
+	 * the connection is not held until {@link #closeAll()}.
+	 */
+	public void releaseConnection() throws RepositoryException {
+		Borrowed b = holder.get();
+		holder.remove();
+		if (b == null) {
+			return;
+		}
+		lock.lock();
+		try {
+			if (borrowed.get(b.thread) != b) {
+				// already reclaimed or closed
+				return;
+			}
+			borrowed.remove(b.thread);
+			if (bounded && b.conn.isOpen()) {
+				try {
+					if (b.conn.isActive()) {
+						b.conn.rollback();
+					}
+					idle.push(new Idle(b.conn, System.nanoTime()));
+				} catch (RepositoryException e) {
+					close(b.conn);
+				}
+			} else {
+				close(b.conn);
+			}
+			available.signal();
+		} finally {
+			lock.unlock();
+		}
 	}
 
-	public synchronized void closeAll() throws RepositoryException {
-		for (RepositoryConnection conn: pool.values()) {
-			conn.close();
+	/**
+	 * Closes all connections of this pool, both idle and borrowed ones.
+	 * Threads holding a closed connection borrow a new one on their next
+	 * {@link #getConnection()} call.
+	 */
+	public void closeAll() throws RepositoryException {
+		lock.lock();
+		try {
+			for (Borrowed b : borrowed.values()) {
+				close(b.conn);
+			}
+			borrowed.clear();
+			for (Idle i : idle) {
+				close(i.conn);
+			}
+			idle.clear();
+			available.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Borrowed borrow() throws RepositoryException {
+		Thread thread = Thread.currentThread();
+		lock.lock();
+		try {
+			long deadline = System.nanoTime() + borrowTimeoutNanos;
+			while (true) {
+				long now = System.nanoTime();
+				if (now - lastHousekeeping >= HOUSEKEEPING_INTERVAL) {
+					housekeep(now);
+				}
+				Idle i = idle.poll();
+				if (i != null) {
+					if (!i.conn.isOpen()) {
+						continue;
+					}
+					return register(thread, i.conn, now);
+				}
+				if (borrowed.size() + opening < maxSize) {
+					break;
+				}
+				// exhausted: try to reclaim connections before waiting
+				housekeep(now);
+				if (borrowed.size() + opening < maxSize) {
+					break;
+				}
+				long remaining = deadline - now;
+				if (remaining <= 0) {
+					throw new RepositoryException("Timed out waiting for a repository connection: all "
+							+ maxSize + " connections are in use");
+				}
+				try {
+					available.awaitNanos(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RepositoryException("Interrupted while waiting for a repository connection", e);
+				}
+			}
+			opening++;
+		} finally {
+			lock.unlock();
+		}
+
+		RepositoryConnection conn;
+		try {
+			conn = repo.getConnection();
+		} catch (RuntimeException e) {
+			lock.lock();
+			try {
+				opening--;
+				available.signal();
+			} finally {
+				lock.unlock();
+			}
+			throw e;
+		}
+		lock.lock();
+		try {
+			opening--;
+			return register(thread, conn, System.nanoTime());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Borrowed register(Thread thread, RepositoryConnection conn, long now) {
+		Borrowed b = new Borrowed(thread, conn, now,
+				leakThresholdNanos > 0 ? new Throwable("Connection borrowed by " + thread) : null);
+		borrowed.put(thread, b);
+		return b;
+	}
+
+	private void discard(Borrowed b) {
+		holder.remove();
+		lock.lock();
+		try {
+			if (borrowed.get(b.thread) == b) {
+				borrowed.remove(b.thread);
+				available.signal();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Evicts expired idle connections, reclaims the connections of
+	 * terminated threads and reports leaked connections. Called with the
+	 * lock held, at most once per second unless the pool is exhausted.
+	 */
+	private void housekeep(long now) {
+		lastHousekeeping = now;
+		for (Iterator<Idle> it = idle.descendingIterator(); it.hasNext();) {
+			Idle i = it.next();
+			if (now - i.since < idleTimeoutNanos && i.conn.isOpen()) {
+				// the deque is ordered by release time
+				break;
+			}
+			it.remove();
+			close(i.conn);
+			evictedCount++;
+		}
+		List<Borrowed> dead = null;
+		for (Borrowed b : borrowed.values()) {
+			if (!b.thread.isAlive() || !b.conn.isOpen()) {
+				if (dead == null) {
+					dead = new ArrayList<>();
+				}
+				dead.add(b);
+			} else if (leakThresholdNanos > 0 && !b.reported && now - b.since > leakThresholdNanos) {
+				b.reported = true;
+				leakCount++;
+				log.warn("Repository connection held by " + b.thread + " for "
+						+ TimeUnit.NANOSECONDS.toMillis(now - b.since) + " ms, possible leak", b.origin);
+			}
+		}
+		if (dead != null) {
+			for (Borrowed b : dead) {
+				borrowed.remove(b.thread);
+				close(b.conn);
+				reclaimedCount++;
+			}
+		}
+	}
+
+	private static void close(RepositoryConnection conn) {
+		try {
+			if (conn.isOpen()) {
+				conn.close();
+			}
+		} catch (RepositoryException e) {
+			log.warn("Failed to close repository connection", e);
+		}
+	}
+
+	/**
+	 * Runs the pool maintenance: closes idle connections older than the
+	 * idle timeout, reclaims connections of terminated threads and reports
+	 * leaked connections. The maintenance also runs periodically on borrow.
+	 */
+	public void evict() {
+		lock.lock();
+		try {
+			housekeep(System.nanoTime());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Sets the time after which an idle connection is closed. Applies to the
+	 * bounded mode only. The default is 5 minutes.
+	 */
+	public void setIdleTimeout(long timeout, TimeUnit unit) {
+		idleTimeoutNanos = unit.toNanos(timeout);
+	}
+
+	/**
+	 * Sets the time after which a borrowed connection is reported as a
+	 * possible leak. Zero (the default) disables leak detection.
+	 */
+	public void setLeakDetectionThreshold(long threshold, TimeUnit unit) {
+		leakThresholdNanos = unit.toNanos(threshold);
+	}
+
+	/**
+	 * @return true if this pool is bounded, false if it is thread-affine
+	 */
+	public boolean isBounded() {
+		return bounded;
+	}
+
+	/**
+	 * @return maximum number of open connections
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return number of connections currently borrowed by threads
+	 */
+	public int getActiveCount() {
+		lock.lock();
+		try {
+			return borrowed.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return number of idle connections
+	 */
+	public int getIdleCount() {
+		lock.lock();
+		try {
+			return idle.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return number of connections reported as possible leaks
+	 */
+	public long getLeakCount() {
+		lock.lock();
+		try {
+			return leakCount;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return number of connections reclaimed from terminated threads
+	 */
+	public long getReclaimedCount() {
+		lock.lock();
+		try {
+			return reclaimedCount;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return number of idle connections closed on timeout
+	 */
+	public long getEvictedCount() {
+		lock.lock();
+		try {
+			return evictedCount;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static class Borrowed {
+		final Thread thread;
+		final RepositoryConnection conn;
+		final long since;
+		final Throwable origin;
+		boolean reported;
+
+		Borrowed(Thread thread, RepositoryConnection conn, long since, Throwable origin) {
+			this.thread = thread;
+			this.conn = conn;
+			this.since = since;
+			this.origin = origin;
+		}
+	}
+
+	private static class Idle {
+		final RepositoryConnection conn;
+		final long since;
+
+		Idle(RepositoryConnection conn, long since) {
+			this.conn = conn;
+			this.since = since;
 		}
-		pool.clear();
 	}
 
-	
 }
@@ -6,17 +6,23 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.cyberborean.rdfbeans.annotations.RDFContainer.ContainerType;
+import org.cyberborean.rdfbeans.datatype.Codec;
 import org.cyberborean.rdfbeans.datatype.DatatypeMapper;
+import org.cyberborean.rdfbeans.datatype.PackedArrays;
 import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
 import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.cyberborean.rdfbeans.reflect.RDFEnumInfo;
 import org.cyberborean.rdfbeans.reflect.RDFProperty;
 import org.cyberborean.rdfbeans.reflect.SubjectProperty;
 import org.cyberborean.rdfbeans.util.LockKeeper;
@@ -37,7 +43,7 @@ import org.eclipse.rdf4j.repository.RepositoryResult;
 
 public class Unmarshaller {
 
-	private Map<IRI, Class> classCache = new HashMap<>();
+	private Map<IRI, Class> classCache = new ConcurrentHashMap<>();
 	private LockKeeper locks;
 	private DatatypeMapper datatypeMapper;
 	private ClassLoader classLoader;
@@ -48,6 +54,16 @@ public class Unmarshaller {
 		this.classLoader = classLoader;
 	}
 
+	/**
+	 * Restores an RDFBean object from the statements about the given resource.
+	 * 
+	 * The existence of the resource is detected from the same scan of its
+	 * statements which is used to read the property values, so no separate
+	 * existence check is needed.
+	 * 
+	 * @return Unmarshalled object or null if the resource has no statements
+	 *         in the context
+	 */
 	public <T> T unmarshal(RepositoryConnection conn, Resource resource, Class<T> cls, IRI context)
 			throws RDFBeanException, RDF4JException {		
 		return unmarshal(conn, resource, cls, new WeakHashMap<>(), context);
@@ -62,118 +78,183 @@ public class Unmarshaller {
 			return o;
 		}
 
-		// acquire read lock on this resource
+		// Read the statements under a read lock on this resource. The lock is
+		// released before the referenced objects are unmarshalled, so that a
+		// reader never holds more than one resource lock at a time.
+		RDFBeanInfo rbi;
+		Map<RDFProperty, List<Value>> propertyValues = new LinkedHashMap<>();
 		ReadWriteLock lock = locks.getLock(resource);
 		lock.readLock().lock();
 		try {
+			// Read all statements about the resource at once
+			Map<IRI, List<Value>> subjectValues = new HashMap<>();
+			try (RepositoryResult<Statement> sts = conn.getStatements(resource, null, null, false, (IRI)context)) {
+				while (sts.hasNext()) {
+					Statement st = sts.next();
+					List<Value> values = subjectValues.get(st.getPredicate());
+					if (values == null) {
+						values = new ArrayList<>();
+						subjectValues.put(st.getPredicate(), values);
+					}
+					values.add(st.getObject());
+				}
+			}
+			if (subjectValues.isEmpty()) {
+				// the resource does not exist
+				return null;
+			}
+
 			if (cls == null) {
-				cls = (Class<T>) getBindingClass(conn, resource, context);
+				cls = (Class<T>) getBindingClass(conn, resource, subjectValues.get(RDF.TYPE), context);
 				if (cls == null) {
 					throw new RDFBeanException("Cannot detect a binding class for " + resource.stringValue());
 				}
 			}
-			// Instantiate RDFBean
-			try {
-				o = cls.newInstance();
-			} catch (Exception ex) {
-				throw new RDFBeanException(ex);
-			}
-			objectCache.put(resource, o);
 			// introspect RDFBean
-			RDFBeanInfo rbi = RDFBeanInfo.get(cls);
-			SubjectProperty subjectProperty = rbi.getSubjectProperty();
-			if ((subjectProperty != null) && !(resource instanceof BNode)) {
-				String id = resource.stringValue();
-				subjectProperty.setValue(o, id);
-			}
+			rbi = RDFBeanInfo.get(cls);
 			for (RDFProperty p : rbi.getProperties()) {
-				// Get values
-				IRI predicate = p.getUri();
-				CloseableIteration<Statement, ? extends RDF4JException> statements;
+				List<Value> values;
 				if (p.isInversionOfProperty()) {
-					statements = conn.getStatements(null, predicate, resource, false, (IRI)context);
-					if (!statements.hasNext()) {
-						// try a container
-						GraphQuery q = conn.prepareGraphQuery(QueryLanguage.SPARQL,
-								"CONSTRUCT { ?subject <" + p.getUri() + "> <" + resource + "> } " + "WHERE { ?subject <"
-										+ p.getUri() + "> ?container. " + "?container ?li <" + resource + ">" + " }");
-						statements = q.evaluate();
-					}
+					values = getInverseValues(conn, resource, p, context);
 				} else {
-					statements = conn.getStatements(resource, predicate, null, false, (IRI)context);
+					values = subjectValues.get(p.getUri());
 				}
-
-				// Collect all values
-				List<Value> values = new ArrayList<>();
-				try {
-					while (statements.hasNext()) {
-						values.add(p.isInversionOfProperty() ? statements.next().getSubject()
-								: statements.next().getObject());
-					}
-				} finally {
-					statements.close();
+				if (values != null && !values.isEmpty()) {
+					propertyValues.put(p, values);
 				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		// Instantiate RDFBean
+		try {
+			o = cls.newInstance();
+		} catch (Exception ex) {
+			throw new RDFBeanException(ex);
+		}
+		objectCache.put(resource, o);
+		SubjectProperty subjectProperty = rbi.getSubjectProperty();
+		if ((subjectProperty != null) && !(resource instanceof BNode)) {
+			String id = resource.stringValue();
+			subjectProperty.setValue(o, id);
+		}
+		for (Map.Entry<RDFProperty, List<Value>> me : propertyValues.entrySet()) {
+			RDFProperty p = me.getKey();
+			List<Value> values = me.getValue();
 
-				if (values.isEmpty()) {
-					continue;
+			if (p.getContainerType() == ContainerType.PACKED) {
+				Value value = values.get(0);
+				if (value instanceof Literal) {
+					p.setValue(o, unpack(p, (Literal) value));
 				}
+				continue;
+			}
 
-				// Determine field type
-				Class fClass = p.getPropertyType();
-				if (Collection.class.isAssignableFrom(fClass) || fClass.isArray()) {
-					// Collection property - collect all values
-					// Check if an array or interface or abstract class
-					if (fClass.isArray() || List.class.equals(fClass) || AbstractList.class.equals(fClass)) {
-						fClass = ArrayList.class;
-					} else if (SortedSet.class.equals(fClass)) {
-						fClass = TreeSet.class;
-					} else if (Set.class.equals(fClass) || AbstractSet.class.equals(fClass)
-							|| Collection.class.equals(fClass)) {
-						fClass = HashSet.class;
-					}
-					// Instantiate collection
-					Collection items;
-					try {
-						items = (Collection) fClass.newInstance();
-					} catch (Exception ex) {
-						throw new RDFBeanException(ex);
-					}
-					// Collect values
-					for (Value value : values) {
-						Object object = unmarshalObject(conn, value, objectCache, context);
-						if (object != null) {
-							if (object instanceof Collection) {
-								items.addAll((Collection) object);
-							} else {
-								items.add(object);
-							}
-						}
-					}
-					// Assign collection property
-					p.setValue(o, items);
-				} else {
-					// Not a collection - get the first value only
-					Value value = values.iterator().next();
-					Object object = unmarshalObject(conn, value, objectCache, context);
+			// Determine field type
+			Class fClass = p.getPropertyType();
+			Class<?> type = fClass;
+			if (Collection.class.isAssignableFrom(fClass) || fClass.isArray()) {
+				type = p.getPropertyComponentType();
+				// Collection property - collect all values
+				// Check if an array or interface or abstract class
+				if (fClass.isArray() || List.class.equals(fClass) || AbstractList.class.equals(fClass)) {
+					fClass = ArrayList.class;
+				} else if (SortedSet.class.equals(fClass)) {
+					fClass = TreeSet.class;
+				} else if (Set.class.equals(fClass) || AbstractSet.class.equals(fClass)
+						|| Collection.class.equals(fClass)) {
+					fClass = HashSet.class;
+				}
+				// Instantiate collection
+				Collection items;
+				try {
+					items = (Collection) fClass.newInstance();
+				} catch (Exception ex) {
+					throw new RDFBeanException(ex);
+				}
+				// Collect values
+				for (Value value : values) {
+					Object object = unmarshalObject(conn, value, type, p.getCodec(), objectCache, context);
 					if (object != null) {
-						if ((object instanceof Collection) && ((Collection) object).iterator().hasNext()) {
-							object = ((Collection) object).iterator().next();
+						if (object instanceof Collection) {
+							items.addAll((Collection) object);
+						} else {
+							items.add(object);
 						}
-						p.setValue(o, object);
 					}
 				}
+				// Assign collection property
+				p.setValue(o, items);
+			} else {
+				// Not a collection - get the first value only
+				Value value = values.iterator().next();
+				Object object = unmarshalObject(conn, value, type, p.getCodec(), objectCache, context);
+				if (object != null) {
+					if ((object instanceof Collection) && ((Collection) object).iterator().hasNext()) {
+						object = ((Collection) object).iterator().next();
+					}
+					p.setValue(o, object);
+				}
+			}
+		}
+		return o;
+	}
+
+	private static Object unpack(RDFProperty p, Literal l) throws RDFBeanException {
+		try {
+			return PackedArrays.decode(l, p.getPropertyType());
+		} catch (IllegalArgumentException e) {
+			throw new RDFBeanException("Invalid packed value of property "
+					+ p.getPropertyDescriptor().getName() + ": " + l, e);
+		}
+	}
+
+	private List<Value> getInverseValues(RepositoryConnection conn, Resource resource, RDFProperty p, IRI context)
+			throws RDF4JException {
+		CloseableIteration<Statement, ? extends RDF4JException> statements;
+		statements = conn.getStatements(null, p.getUri(), resource, false, (IRI)context);
+		if (!statements.hasNext()) {
+			// try a container
+			statements.close();
+			GraphQuery q = conn.prepareGraphQuery(QueryLanguage.SPARQL,
+					"CONSTRUCT { ?subject <" + p.getUri() + "> <" + resource + "> } " + "WHERE { ?subject <"
+							+ p.getUri() + "> ?container. " + "?container ?li <" + resource + ">" + " }");
+			statements = q.evaluate();
+		}
+		List<Value> values = new ArrayList<>();
+		try {
+			while (statements.hasNext()) {
+				values.add(statements.next().getSubject());
 			}
-			return o;
 		} finally {
-			lock.readLock().unlock();
+			statements.close();
 		}
+		return values;
 	}
 
-	private Object unmarshalObject(RepositoryConnection conn, Value object, Map<Resource, Object> objectCache, IRI context)
+	private Object unmarshalObject(RepositoryConnection conn, Value object, Class<?> type, Codec<?> codec, Map<Resource, Object> objectCache, IRI context)
 			throws RDFBeanException, RDF4JException {
+		if ((type != null) && type.isEnum() && !(object instanceof BNode)) {
+			if (object instanceof Literal) {
+				if (codec != null) {
+					return codec.decode((Literal) object);
+				}
+				// a custom DatatypeMapper may map enums to literals
+				Object o = datatypeMapper.getJavaObject((Literal) object, type);
+				if (type.isInstance(o)) {
+					return o;
+				}
+			}
+			// enum constant, or null if unknown
+			return RDFEnumInfo.get(type).getConstant(object);
+		}
 		if (object instanceof Literal) {
 			// literal
-			return datatypeMapper.getJavaObject((Literal) object);
+			if (codec != null) {
+				return codec.decode((Literal) object);
+			}
+			return datatypeMapper.getJavaObject((Literal) object, type);
 		} else if (object instanceof BNode) {
 			// Blank node - check if an RDF collection
 			Resource r = (Resource) object;
@@ -190,7 +271,7 @@ public class Unmarshaller {
 							conn.getValueFactory().createIRI(RDF.NAMESPACE, "_" + i), null, false, (IRI)context);
 					try {
 						if (itemst.hasNext()) {
-							item = unmarshalObject(conn, itemst.next().getObject(), objectCache, context);
+							item = unmarshalObject(conn, itemst.next().getObject(), type, codec, objectCache, context);
 							if (item != null) {
 								items.add(item);
 							}
@@ -205,7 +286,7 @@ public class Unmarshaller {
 			} else if (conn.hasStatement(r, RDF.FIRST, null, false, (IRI)context)) {
 				// Head-Tail list, also collect all items
 				ArrayList<Object> items = new ArrayList<Object>();
-				addList(conn, items, r, objectCache, context);
+				addList(conn, items, r, type, codec, objectCache, context);
 				return items;
 			}
 		}
@@ -225,13 +306,13 @@ public class Unmarshaller {
 		return java.net.URI.create(object.stringValue());
 	}
 
-	private void addList(RepositoryConnection conn, List<Object> list, final Resource currentHead,
+	private void addList(RepositoryConnection conn, List<Object> list, final Resource currentHead, Class<?> type, Codec<?> codec,
 			Map<Resource, Object> objectCache, IRI context) throws RDF4JException, RDFBeanException {
 		// add the "first" items.
 		RepositoryResult<Statement> firstStatements = conn.getStatements(currentHead, RDF.FIRST, null, false, (IRI)context);
 		while (firstStatements.hasNext()) {
 			// multi-headed lists are possible, but flattened here.
-			Object item = unmarshalObject(conn, firstStatements.next().getObject(), objectCache, context);
+			Object item = unmarshalObject(conn, firstStatements.next().getObject(), type, codec, objectCache, context);
 			if (item != null) {
 				list.add(item);
 			}
@@ -244,13 +325,32 @@ public class Unmarshaller {
 			Value nextHead = restStatements.next().getObject();
 			if (!RDF.NIL.equals(nextHead)) {
 				if (nextHead instanceof BNode) {
-					addList(conn, list, (BNode) nextHead, objectCache, context);
+					addList(conn, list, (BNode) nextHead, type, codec, objectCache, context);
 				}
 			}
 		}
 		restStatements.close();
 	}
 
+	private Class<?> getBindingClass(RepositoryConnection conn, Resource r, List<Value> types, Resource... contexts)
+			throws RDFBeanException, RepositoryException {
+		Class<?> cls = null;
+		if (types != null) {
+			for (Value type : types) {
+				if (type instanceof IRI) {
+					cls = getBindingClassForType(conn, (IRI) type, contexts);
+					if (cls != null) {
+						break;
+					}
+				} else {
+					throw new RDFBeanException("Resource " + r.stringValue() + " has invalid RDF type "
+							+ type.stringValue() + ": not a URI");
+				}
+			}
+		}
+		return cls;
+	}
+
 	private Class<?> getBindingClass(RepositoryConnection conn, Resource r, Resource... contexts)
 			throws RDFBeanException, RepositoryException {
 		Class<?> cls = null;
@@ -268,6 +368,16 @@ public class Unmarshaller {
 		return cls;
 	}
 
+	/**
+	 * Resolves the class bound to the RDF type in the repository (in any
+	 * context) into the cache of binding classes.
+	 * 
+	 * @return the bound class or null if the type has no binding class
+	 */
+	public Class<?> warmUp(RepositoryConnection conn, IRI rdfType) throws RDFBeanException, RepositoryException {
+		return getBindingClassForType(conn, rdfType);
+	}
+
 	private Class<?> getBindingClassForType(RepositoryConnection conn, IRI rdfType, Resource... contexts)
 			throws RDFBeanException, RepositoryException {
 		Class cls = classCache.get(rdfType);
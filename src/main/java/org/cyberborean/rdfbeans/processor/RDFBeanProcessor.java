@@ -0,0 +1,555 @@
+package org.cyberborean.rdfbeans.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+import org.cyberborean.rdfbeans.annotations.RDF;
+import org.cyberborean.rdfbeans.annotations.RDFBean;
+import org.cyberborean.rdfbeans.annotations.RDFContainer;
+import org.cyberborean.rdfbeans.annotations.RDFSubject;
+import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.cyberborean.rdfbeans.reflect.RDFBeanMetadata;
+
+/**
+ * Annotation processor generating {@link RDFBeanMetadata} classes for the
+ * classes and interfaces annotated with {@link RDFBean}.
+ *
+ * The generated classes describe the annotated properties as
+ * {@link RDFBeanInfo} would find them with <code>java.beans.Introspector</code>
+ * and call the getters and setters directly, so that
+ * {@link RDFBeanInfo#get(Class)} neither introspects the class nor scans the
+ * annotations at runtime. Namespace prefixes are still resolved at runtime
+ * from the <code>@RDFNamespaces</code> declarations.
+ *
+ * The processor is not registered as a service and must be enabled
+ * explicitly, e.g. with <code>javac -processor</code> or with the
+ * maven-compiler-plugin configuration:
+ *
+ * ```xml
+ * <annotationProcessors>
+ *   <annotationProcessor>org.cyberborean.rdfbeans.processor.RDFBeanProcessor</annotationProcessor>
+ * </annotationProcessors>
+ * ```
+ *
+ * Classes which cannot be accessed from a generated class in the same package
+ * (e.g. private nested classes) are skipped and introspected at runtime.
+ */
+@SupportedAnnotationTypes("org.cyberborean.rdfbeans.annotations.RDFBean")
+public class RDFBeanProcessor extends AbstractProcessor {
+
+	private Elements elements;
+	private Types types;
+	private Messager messager;
+
+	@Override
+	public synchronized void init(ProcessingEnvironment processingEnv) {
+		super.init(processingEnv);
+		elements = processingEnv.getElementUtils();
+		types = processingEnv.getTypeUtils();
+		messager = processingEnv.getMessager();
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getElementsAnnotatedWith(RDFBean.class)) {
+			if ((element.getKind() == ElementKind.CLASS) || (element.getKind() == ElementKind.INTERFACE)) {
+				TypeElement type = (TypeElement) element;
+				try {
+					generate(type);
+				} catch (IOException e) {
+					messager.printMessage(Kind.WARNING, "Cannot write RDFBean metadata: " + e.getMessage(), type);
+				}
+			}
+		}
+		return false;
+	}
+
+	private void generate(TypeElement type) throws IOException {
+		PackageElement pkg = elements.getPackageOf(type);
+		if (!isAccessible(type, pkg)) {
+			messager.printMessage(Kind.NOTE, "RDFBean metadata is not generated for inaccessible class", type);
+			return;
+		}
+		List<TypeElement> owners = new ArrayList<>();
+		owners.add(type);
+		if (type.getKind() == ElementKind.INTERFACE) {
+			addAllInterfaces(type, owners);
+		}
+		List<Property> properties = new ArrayList<>();
+		for (TypeElement owner : owners) {
+			for (Property p : introspect(owner, type)) {
+				if ((p.subject != null) || (p.rdf != null)) {
+					if (!isAccessible(owner, pkg) || !isAccessible(p.type, pkg)) {
+						messager.printMessage(Kind.NOTE, "RDFBean metadata is not generated: type of property '"
+								+ p.name + "' is inaccessible", type);
+						return;
+					}
+					properties.add(p);
+				}
+			}
+		}
+
+		String binaryName = elements.getBinaryName(type).toString();
+		String packageName = pkg.getQualifiedName().toString();
+		String className = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+				+ RDFBeanMetadata.CLASS_NAME_SUFFIX;
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(binaryName + RDFBeanMetadata.CLASS_NAME_SUFFIX,
+				type);
+		try (PrintWriter out = new PrintWriter(file.openWriter())) {
+			write(out, type, packageName, className, properties);
+		}
+	}
+
+	private void write(PrintWriter out, TypeElement type, String packageName, String className,
+			List<Property> properties) {
+		if (!packageName.isEmpty()) {
+			out.println("package " + packageName + ";");
+			out.println();
+		}
+		out.println("import org.cyberborean.rdfbeans.annotations.RDFContainer.ContainerType;");
+		out.println("import org.cyberborean.rdfbeans.reflect.PropertyMetadata;");
+		out.println("import org.cyberborean.rdfbeans.reflect.RDFBeanMetadata;");
+		out.println();
+		out.println("/**");
+		out.println(" * RDFBean metadata of {@link " + type.getQualifiedName() + "}.");
+		out.println(" * Generated by " + getClass().getName() + ", do not edit.");
+		out.println(" */");
+		out.println("@SuppressWarnings({\"rawtypes\", \"unchecked\"})");
+		out.println("public final class " + className + " implements RDFBeanMetadata {");
+		out.println();
+		out.println("\tprivate static final PropertyMetadata[] PROPERTIES = {");
+		for (Property p : properties) {
+			StringBuilder sb = new StringBuilder("\t\tPropertyMetadata.property(");
+			sb.append(typeName(p.owner.asType())).append(".class, ");
+			sb.append(literal(p.name)).append(", ");
+			sb.append(typeName(p.type)).append(".class)");
+			if (p.getter != null) {
+				sb.append(".getter(").append(literal(p.getter.getSimpleName().toString())).append(")");
+			}
+			if (p.setter != null) {
+				sb.append(".setter(").append(literal(p.setter.getSimpleName().toString())).append(")");
+			}
+			if (p.indexedGetter != null) {
+				sb.append(".indexedGetter(").append(literal(p.indexedGetter.getSimpleName().toString())).append(")");
+			}
+			if (p.indexedSetter != null) {
+				sb.append(".indexedSetter(").append(literal(p.indexedSetter.getSimpleName().toString())).append(")");
+			}
+			if (p.subject != null) {
+				sb.append(".subject(").append(literal(p.subject.prefix())).append(")");
+			}
+			if (p.rdf != null) {
+				sb.append(".rdf(").append(literal(p.rdf.value())).append(", ").append(literal(p.rdf.inverseOf()))
+						.append(")");
+				if (p.container != null) {
+					sb.append(".container(ContainerType.").append(p.container.value().name()).append(")");
+				}
+			}
+			out.println(sb.append(",").toString());
+		}
+		out.println("\t};");
+		out.println();
+		out.println("\t@Override");
+		out.println("\tpublic PropertyMetadata[] getProperties() {");
+		out.println("\t\treturn PROPERTIES;");
+		out.println("\t}");
+		out.println();
+		out.println("\t@Override");
+		out.println("\tpublic Object getValue(Object bean, int index) throws Exception {");
+		out.println("\t\tswitch (index) {");
+		for (int i = 0; i < properties.size(); i++) {
+			Property p = properties.get(i);
+			if (p.getter != null) {
+				out.println("\t\tcase " + i + ":");
+				out.println("\t\t\treturn ((" + typeName(p.owner.asType()) + ") bean)." + p.getter.getSimpleName()
+						+ "();");
+			}
+		}
+		out.println("\t\tdefault:");
+		out.println("\t\t\tthrow new IllegalArgumentException(\"No getter for property #\" + index);");
+		out.println("\t\t}");
+		out.println("\t}");
+		out.println();
+		out.println("\t@Override");
+		out.println("\tpublic void setValue(Object bean, int index, Object value) throws Exception {");
+		out.println("\t\tswitch (index) {");
+		for (int i = 0; i < properties.size(); i++) {
+			Property p = properties.get(i);
+			if (p.setter != null) {
+				out.println("\t\tcase " + i + ":");
+				out.println("\t\t\t((" + typeName(p.owner.asType()) + ") bean)." + p.setter.getSimpleName() + "("
+						+ unboxed(p.type) + ");");
+				out.println("\t\t\tbreak;");
+			}
+		}
+		out.println("\t\tdefault:");
+		out.println("\t\t\tthrow new IllegalArgumentException(\"No setter for property #\" + index);");
+		out.println("\t\t}");
+		out.println("\t}");
+		out.println();
+		out.println("}");
+	}
+
+	private String typeName(TypeMirror type) {
+		return types.erasure(type).toString();
+	}
+
+	private String literal(String s) {
+		return elements.getConstantExpression(s);
+	}
+
+	private String unboxed(TypeMirror type) {
+		switch (type.getKind()) {
+		case BOOLEAN:
+			return "((java.lang.Boolean) value).booleanValue()";
+		case CHAR:
+			return "((java.lang.Character) value).charValue()";
+		case BYTE:
+		case SHORT:
+		case INT:
+		case LONG:
+		case FLOAT:
+		case DOUBLE:
+			// widening as with Method.invoke()
+			return "((java.lang.Number) value)." + type.getKind().name().toLowerCase() + "Value()";
+		default:
+			return "(" + typeName(type) + ") value";
+		}
+	}
+
+	/**
+	 * Finds the JavaBean properties of a class or an interface as
+	 * <code>java.beans.Introspector</code> does and resolves their annotations
+	 * as <code>RDFBeanInfo</code> does.
+	 */
+	private List<Property> introspect(TypeElement owner, TypeElement beanType) {
+		Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+		if (owner.getKind() == ElementKind.INTERFACE) {
+			// interface properties are introspected per interface
+			for (ExecutableElement m : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+				if (isPublicInstanceMethod(m)) {
+					methods.put(signature(m), m);
+				}
+			}
+		}
+		else {
+			for (TypeElement c = owner; c != null; c = superclass(c)) {
+				if (c.getQualifiedName().contentEquals(Object.class.getName())) {
+					break;
+				}
+				for (ExecutableElement m : ElementFilter.methodsIn(c.getEnclosedElements())) {
+					if (isPublicInstanceMethod(m) && !methods.containsKey(signature(m))) {
+						methods.put(signature(m), m);
+					}
+				}
+			}
+		}
+
+		Map<String, Property> properties = new TreeMap<>();
+		Map<String, List<ExecutableElement>> setters = new LinkedHashMap<>();
+		for (ExecutableElement m : methods.values()) {
+			String name = m.getSimpleName().toString();
+			List<? extends VariableElement> params = m.getParameters();
+			TypeMirror returnType = m.getReturnType();
+			boolean isVoid = returnType.getKind() == TypeKind.VOID;
+			if (name.startsWith("get") && (name.length() > 3) && !isVoid) {
+				if (params.isEmpty()) {
+					Property p = property(properties, owner, name.substring(3));
+					if (p.getter == null) {
+						p.getter = m;
+					}
+				}
+				else if ((params.size() == 1) && (params.get(0).asType().getKind() == TypeKind.INT)) {
+					property(properties, owner, name.substring(3)).indexedGetter = m;
+				}
+			}
+			else if (name.startsWith("is") && (name.length() > 2) && params.isEmpty()
+					&& (returnType.getKind() == TypeKind.BOOLEAN)) {
+				// is<Property>() takes precedence over get<Property>()
+				property(properties, owner, name.substring(2)).getter = m;
+			}
+			else if (name.startsWith("set") && (name.length() > 3) && isVoid) {
+				if (params.size() == 1) {
+					String propertyName = decapitalize(name.substring(3));
+					if (!setters.containsKey(propertyName)) {
+						setters.put(propertyName, new ArrayList<ExecutableElement>());
+					}
+					setters.get(propertyName).add(m);
+					property(properties, owner, name.substring(3));
+				}
+				else if ((params.size() == 2) && (params.get(0).asType().getKind() == TypeKind.INT)) {
+					property(properties, owner, name.substring(3)).indexedSetter = m;
+				}
+			}
+		}
+
+		List<Property> result = new ArrayList<>();
+		for (Property p : properties.values()) {
+			List<ExecutableElement> candidates = setters.get(p.name);
+			if (p.getter != null) {
+				p.type = p.getter.getReturnType();
+				if (candidates != null) {
+					for (ExecutableElement setter : candidates) {
+						if (isSameErasure(setter.getParameters().get(0).asType(), p.type)) {
+							p.setter = setter;
+							break;
+						}
+					}
+				}
+			}
+			else if (candidates != null) {
+				p.setter = candidates.get(0);
+				p.type = p.setter.getParameters().get(0).asType();
+			}
+
+			TypeMirror indexedType = null;
+			if (p.indexedGetter != null) {
+				indexedType = p.indexedGetter.getReturnType();
+			}
+			else if (p.indexedSetter != null) {
+				indexedType = p.indexedSetter.getParameters().get(1).asType();
+			}
+			if ((p.indexedSetter != null)
+					&& !isSameErasure(p.indexedSetter.getParameters().get(1).asType(), indexedType)) {
+				p.indexedSetter = null;
+			}
+			if (indexedType != null) {
+				if (p.type == null) {
+					p.type = types.getArrayType(types.erasure(indexedType));
+				}
+				else if ((p.type.getKind() != TypeKind.ARRAY)
+						|| !isSameErasure(((ArrayType) p.type).getComponentType(), indexedType)) {
+					p.indexedGetter = null;
+					p.indexedSetter = null;
+				}
+			}
+			if (p.type == null) {
+				continue;
+			}
+
+			p.subject = annotation(p, beanType, RDFSubject.class);
+			p.rdf = annotation(p, beanType, RDF.class);
+			if (p.rdf != null) {
+				p.container = annotation(p, beanType, RDFContainer.class);
+			}
+			result.add(p);
+		}
+		return result;
+	}
+
+	private Property property(Map<String, Property> properties, TypeElement owner, String baseName) {
+		String name = decapitalize(baseName);
+		Property p = properties.get(name);
+		if (p == null) {
+			p = new Property(owner, name);
+			properties.put(name, p);
+		}
+		return p;
+	}
+
+	/**
+	 * @see RDFBeanInfo
+	 */
+	private <A extends Annotation> A annotation(Property p, TypeElement beanType,
+			Class<A> annotationType) {
+		A annotation = null;
+		if (p.getter != null) {
+			annotation = methodAnnotation(p.getter, annotationType);
+		}
+		else if (p.setter != null) {
+			annotation = methodAnnotation(p.setter, annotationType);
+		}
+		if (annotation == null) {
+			for (VariableElement field : ElementFilter.fieldsIn(beanType.getEnclosedElements())) {
+				if (field.getSimpleName().contentEquals(p.name)) {
+					if (types.isAssignable(types.erasure(field.asType()), types.erasure(p.type))) {
+						annotation = field.getAnnotation(annotationType);
+					}
+					break;
+				}
+			}
+		}
+		return annotation;
+	}
+
+	/**
+	 * @see org.cyberborean.rdfbeans.reflect.ReflectionUtil#getMethodAnnotation(java.lang.reflect.Method,
+	 *      Class)
+	 */
+	private <A extends Annotation> A methodAnnotation(ExecutableElement method,
+			Class<A> annotationType) {
+		A annotation = method.getAnnotation(annotationType);
+		if (annotation == null) {
+			TypeElement declaringType = (TypeElement) method.getEnclosingElement();
+			for (TypeMirror iface : declaringType.getInterfaces()) {
+				ExecutableElement other = findMethod((TypeElement) types.asElement(iface), method);
+				if (other != null) {
+					return methodAnnotation(other, annotationType);
+				}
+			}
+		}
+		return annotation;
+	}
+
+	private ExecutableElement findMethod(TypeElement iface, ExecutableElement method) {
+		for (ExecutableElement m : ElementFilter.methodsIn(iface.getEnclosedElements())) {
+			if (isPublicInstanceMethod(m) && m.getSimpleName().equals(method.getSimpleName())
+					&& isSameErasure(m.getReturnType(), method.getReturnType())
+					&& isSameParameters(m, method)) {
+				return m;
+			}
+		}
+		for (TypeMirror superIface : iface.getInterfaces()) {
+			ExecutableElement m = findMethod((TypeElement) types.asElement(superIface), method);
+			if (m != null) {
+				return m;
+			}
+		}
+		return null;
+	}
+
+	private boolean isSameParameters(ExecutableElement m1, ExecutableElement m2) {
+		List<? extends VariableElement> params1 = m1.getParameters();
+		List<? extends VariableElement> params2 = m2.getParameters();
+		if (params1.size() != params2.size()) {
+			return false;
+		}
+		for (int i = 0; i < params1.size(); i++) {
+			if (!isSameErasure(params1.get(i).asType(), params2.get(i).asType())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isSameErasure(TypeMirror t1, TypeMirror t2) {
+		if ((t1.getKind() == TypeKind.VOID) || (t2.getKind() == TypeKind.VOID)) {
+			return t1.getKind() == t2.getKind();
+		}
+		return types.isSameType(types.erasure(t1), types.erasure(t2));
+	}
+
+	private String signature(ExecutableElement m) {
+		StringBuilder sb = new StringBuilder(m.getSimpleName());
+		for (VariableElement param : m.getParameters()) {
+			sb.append(',').append(typeName(param.asType()));
+		}
+		return sb.toString();
+	}
+
+	private boolean isPublicInstanceMethod(ExecutableElement m) {
+		return m.getModifiers().contains(Modifier.PUBLIC) && !m.getModifiers().contains(Modifier.STATIC);
+	}
+
+	private TypeElement superclass(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+	}
+
+	private void addAllInterfaces(TypeElement type, List<TypeElement> result) {
+		List<TypeElement> interfaces = new ArrayList<>();
+		for (TypeMirror iface : type.getInterfaces()) {
+			interfaces.add((TypeElement) types.asElement(iface));
+		}
+		result.addAll(interfaces);
+		for (TypeElement iface : interfaces) {
+			addAllInterfaces(iface, result);
+		}
+	}
+
+	private boolean isAccessible(TypeMirror type, PackageElement pkg) {
+		if (type.getKind() == TypeKind.ARRAY) {
+			return isAccessible(((ArrayType) type).getComponentType(), pkg);
+		}
+		if (type.getKind() == TypeKind.DECLARED) {
+			return isAccessible((TypeElement) ((DeclaredType) types.erasure(type)).asElement(), pkg);
+		}
+		if (type.getKind() == TypeKind.TYPEVAR) {
+			return isAccessible(types.erasure(type), pkg);
+		}
+		return type.getKind().isPrimitive();
+	}
+
+	private boolean isAccessible(TypeElement type, PackageElement pkg) {
+		for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+			NestingKind nesting = ((TypeElement) e).getNestingKind();
+			if ((nesting != NestingKind.TOP_LEVEL) && (nesting != NestingKind.MEMBER)) {
+				return false;
+			}
+			Set<Modifier> modifiers = e.getModifiers();
+			if (modifiers.contains(Modifier.PRIVATE)) {
+				return false;
+			}
+			if (!modifiers.contains(Modifier.PUBLIC) && !elements.getPackageOf(e).equals(pkg)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @see java.beans.Introspector#decapitalize(String)
+	 */
+	private static String decapitalize(String name) {
+		if ((name.length() > 1) && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+			return name;
+		}
+		return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private static class Property {
+
+		final TypeElement owner;
+		final String name;
+		TypeMirror type;
+		ExecutableElement getter;
+		ExecutableElement setter;
+		ExecutableElement indexedGetter;
+		ExecutableElement indexedSetter;
+		RDFSubject subject;
+		RDF rdf;
+		RDFContainer container;
+
+		Property(TypeElement owner, String name) {
+			this.owner = owner;
+			this.name = name;
+		}
+	}
+
+}
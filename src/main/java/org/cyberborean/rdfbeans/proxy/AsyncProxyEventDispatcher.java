@@ -0,0 +1,388 @@
+package org.cyberborean.rdfbeans.proxy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ProxyEventDispatcher} which delivers the events asynchronously on a
+ * dedicated thread, so that the listeners do not add to the latency of proxy
+ * setters.
+ * 
+ * The events are collected in a bounded queue and delivered in batches of
+ * up to `maxBatchSize` events, in the order they occurred. Instances of
+ * {@link BatchProxyListener} receive each batch with a single
+ * {@link BatchProxyListener#proxyEvents(List)} call, other listeners are
+ * invoked once per event.
+ * 
+ * The behaviour on a full queue is controlled by {@link BackpressurePolicy}.
+ * 
+ * Exceptions thrown by the listeners are counted and logged and do not stop
+ * delivery. If the dispatcher thread terminates abnormally, the dispatcher is
+ * closed, so that the threads firing events do not wait for it.
+ * 
+ */
+public class AsyncProxyEventDispatcher implements ProxyEventDispatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(AsyncProxyEventDispatcher.class);
+
+	public static final int DEFAULT_CAPACITY = 10000;
+	public static final int DEFAULT_BATCH_SIZE = 100;
+
+	/**
+	 * Policies of handling events when the queue is full:
+	 */
+	public enum BackpressurePolicy {
+		/** The thread firing the event waits for free space in the queue */
+		BLOCK,
+		/** The new event is discarded */
+		DROP,
+		/**
+		 * A property change replaces a pending event for the same object and
+		 * property, if any; otherwise the thread firing the event waits for
+		 * free space in the queue. The replacing event takes the place of the
+		 * replaced one in the queue, so it is delivered before the events
+		 * which occurred in between
+		 */
+		COALESCE;
+	}
+
+	private final int capacity;
+	private final int maxBatchSize;
+	private final BackpressurePolicy policy;
+	private final ExecutorService executor;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+	private final ArrayDeque<Entry> queue = new ArrayDeque<Entry>();
+	private final Map<CoalesceKey, Entry> pending = new HashMap<CoalesceKey, Entry>();
+	private boolean closed = false;
+
+	private final AtomicLong deliveredCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong coalescedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private volatile long lastLag = 0;
+	private volatile long maxLag = 0;
+
+	/**
+	 * Creates a dispatcher with the default queue capacity and batch size
+	 * and {@link BackpressurePolicy#BLOCK} policy.
+	 */
+	public AsyncProxyEventDispatcher() {
+		this(DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, BackpressurePolicy.BLOCK);
+	}
+
+	/**
+	 * @param capacity
+	 *            Maximum number of pending events
+	 * @param maxBatchSize
+	 *            Maximum number of events delivered in one batch
+	 * @param policy
+	 *            Policy of handling events when the queue is full
+	 */
+	public AsyncProxyEventDispatcher(int capacity, int maxBatchSize, BackpressurePolicy policy) {
+		if (capacity < 1 || maxBatchSize < 1) {
+			throw new IllegalArgumentException("Queue capacity and batch size must be positive");
+		}
+		this.capacity = capacity;
+		this.maxBatchSize = maxBatchSize;
+		this.policy = policy;
+		this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "rdfbeans-proxy-events");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		executor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					processQueue();
+				} finally {
+					// normally closed already; otherwise stop the producers
+					// from waiting for a dead thread
+					lock.lock();
+					try {
+						if (!closed) {
+							log.error("Proxy event dispatcher thread terminated, the dispatcher is closed");
+							closed = true;
+						}
+						notFull.signalAll();
+					} finally {
+						lock.unlock();
+					}
+				}
+			}
+		});
+	}
+
+	@Override
+	public void dispatch(ProxyEvent event, List<ProxyListener> listeners) {
+		if (listeners.isEmpty()) {
+			return;
+		}
+		CoalesceKey key = null;
+		if ((policy == BackpressurePolicy.COALESCE) && (event.getType() == ProxyEvent.Type.PROPERTY_CHANGED)) {
+			key = new CoalesceKey(event.getObject(), event.getProperty());
+		}
+		lock.lock();
+		try {
+			while (!closed && (queue.size() >= capacity)) {
+				if (policy == BackpressurePolicy.DROP) {
+					droppedCount.incrementAndGet();
+					return;
+				}
+				if (key != null) {
+					Entry e = pending.get(key);
+					if (e != null) {
+						e.event = event;
+						e.listeners = listeners;
+						coalescedCount.incrementAndGet();
+						return;
+					}
+				}
+				try {
+					notFull.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					droppedCount.incrementAndGet();
+					return;
+				}
+			}
+			if (closed) {
+				// the change itself is already written, only its event is lost
+				droppedCount.incrementAndGet();
+				return;
+			}
+			Entry e = new Entry(event, listeners, key);
+			queue.add(e);
+			if (key != null) {
+				pending.put(key, e);
+			}
+			notEmpty.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void processQueue() {
+		List<Entry> batch = new ArrayList<Entry>(maxBatchSize);
+		while (true) {
+			lock.lock();
+			try {
+				while (queue.isEmpty() && !closed) {
+					notEmpty.await();
+				}
+				if (queue.isEmpty()) {
+					// closed and drained
+					return;
+				}
+				while ((batch.size() < maxBatchSize) && !queue.isEmpty()) {
+					Entry e = queue.poll();
+					if (e.key != null) {
+						pending.remove(e.key);
+					}
+					batch.add(e);
+				}
+				notFull.signalAll();
+			} catch (InterruptedException e) {
+				return;
+			} finally {
+				lock.unlock();
+			}
+			deliver(batch);
+			batch.clear();
+		}
+	}
+
+	private void deliver(List<Entry> batch) {
+		// group events by listener, keeping the order of events
+		Map<ProxyListener, List<ProxyEvent>> byListener = new LinkedHashMap<ProxyListener, List<ProxyEvent>>();
+		for (Entry e : batch) {
+			for (ProxyListener l : e.listeners) {
+				List<ProxyEvent> events = byListener.get(l);
+				if (events == null) {
+					events = new ArrayList<ProxyEvent>(batch.size());
+					byListener.put(l, events);
+				}
+				events.add(e.event);
+			}
+		}
+		for (Map.Entry<ProxyListener, List<ProxyEvent>> me : byListener.entrySet()) {
+			ProxyListener l = me.getKey();
+			if (l instanceof BatchProxyListener) {
+				try {
+					((BatchProxyListener) l).proxyEvents(me.getValue());
+				} catch (Throwable ex) {
+					failed(l, ex);
+				}
+			}
+			else {
+				for (ProxyEvent event : me.getValue()) {
+					try {
+						event.deliver(l);
+					} catch (Throwable ex) {
+						failed(l, ex);
+					}
+				}
+			}
+		}
+		long now = System.nanoTime();
+		long lag = 0;
+		for (Entry e : batch) {
+			lag = now - e.event.getNanoTime();
+			if (lag > maxLag) {
+				maxLag = lag;
+			}
+		}
+		lastLag = lag;
+		deliveredCount.addAndGet(batch.size());
+	}
+
+	private void failed(ProxyListener l, Throwable ex) {
+		failedCount.incrementAndGet();
+		log.warn("Proxy listener " + l + " failed", ex);
+	}
+
+	/**
+	 * Stops accepting new events, delivers all pending events and stops the
+	 * dispatcher thread. Events fired afterwards are dropped.
+	 */
+	@Override
+	public void close() {
+		lock.lock();
+		try {
+			closed = true;
+			notEmpty.signalAll();
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public BackpressurePolicy getBackpressurePolicy() {
+		return policy;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the current number of pending events
+	 */
+	public int getQueueDepth() {
+		lock.lock();
+		try {
+			return queue.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of events delivered to the listeners
+	 */
+	public long getDeliveredCount() {
+		return deliveredCount.get();
+	}
+
+	/**
+	 * @return the number of events discarded on a full queue or after the
+	 *         dispatcher is closed
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * @return the number of events which replaced a pending event
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+	/**
+	 * @return the number of listener invocations terminated by an exception
+	 */
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+	/**
+	 * @return the time between occurrence and delivery of the most recently
+	 *         delivered event, in milliseconds
+	 */
+	public long getLastEventLag() {
+		return TimeUnit.NANOSECONDS.toMillis(lastLag);
+	}
+
+	/**
+	 * @return the maximum time between occurrence and delivery of an event,
+	 *         in milliseconds
+	 */
+	public long getMaxEventLag() {
+		return TimeUnit.NANOSECONDS.toMillis(maxLag);
+	}
+
+	private static class Entry {
+		ProxyEvent event;
+		List<ProxyListener> listeners;
+		final CoalesceKey key;
+
+		Entry(ProxyEvent event, List<ProxyListener> listeners, CoalesceKey key) {
+			this.event = event;
+			this.listeners = listeners;
+			this.key = key;
+		}
+	}
+
+	private static class CoalesceKey {
+		private final Object object;
+		private final Object property;
+
+		CoalesceKey(Object object, Object property) {
+			this.object = object;
+			this.property = property;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(object) * 31 + property.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof CoalesceKey)) {
+				return false;
+			}
+			CoalesceKey other = (CoalesceKey) obj;
+			return (object == other.object) && property.equals(other.property);
+		}
+	}
+}
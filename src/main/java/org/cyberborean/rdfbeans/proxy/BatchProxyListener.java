@@ -0,0 +1,22 @@
+package org.cyberborean.rdfbeans.proxy;
+
+import java.util.List;
+
+/**
+ * A {@link ProxyListener} which accepts events in batches when they are
+ * delivered by {@link AsyncProxyEventDispatcher}.
+ * 
+ * Synchronous dispatchers deliver the events one by one through the
+ * {@link ProxyListener} methods.
+ * 
+ */
+public interface BatchProxyListener extends ProxyListener {
+
+	/**
+	 * Invoked with a list of events in the order they occurred.
+	 * 
+	 * @param events
+	 */
+	void proxyEvents(List<ProxyEvent> events);
+
+}
@@ -0,0 +1,23 @@
+package org.cyberborean.rdfbeans.proxy;
+
+import java.util.List;
+
+/**
+ * Default {@link ProxyEventDispatcher} which invokes the listeners
+ * synchronously on the thread where the event occurred.
+ * 
+ */
+public class DirectProxyEventDispatcher implements ProxyEventDispatcher {
+
+	@Override
+	public void dispatch(ProxyEvent event, List<ProxyListener> listeners) {
+		for (ProxyListener l : listeners) {
+			event.deliver(l);
+		}
+	}
+
+	@Override
+	public void close() {
+	}
+
+}
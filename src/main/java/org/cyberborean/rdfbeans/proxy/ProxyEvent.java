@@ -0,0 +1,113 @@
+package org.cyberborean.rdfbeans.proxy;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+
+/**
+ * A dynamic proxy creation or property changing event, as delivered to
+ * {@link BatchProxyListener} instances.
+ * 
+ */
+public class ProxyEvent {
+
+	/**
+	 * Event types
+	 */
+	public enum Type {
+		/** RDFBean proxy object is created in the RDF model */
+		OBJECT_CREATED,
+		/** RDFBean proxy object property is changed by a setter method */
+		PROPERTY_CHANGED;
+	}
+
+	private final Type type;
+	private final Object object;
+	private final Class<?> objectClass;
+	private final Resource resource;
+	private final IRI property;
+	private final Object newValue;
+	private final long timestamp;
+	private final long nanoTime;
+
+	private ProxyEvent(Type type, Object object, Class<?> objectClass, Resource resource, IRI property, Object newValue) {
+		this.type = type;
+		this.object = object;
+		this.objectClass = objectClass;
+		this.resource = resource;
+		this.property = property;
+		this.newValue = newValue;
+		this.timestamp = System.currentTimeMillis();
+		this.nanoTime = System.nanoTime();
+	}
+
+	public static ProxyEvent objectCreated(Object object, Class<?> cls, Resource resource) {
+		return new ProxyEvent(Type.OBJECT_CREATED, object, cls, resource, null, null);
+	}
+
+	public static ProxyEvent objectPropertyChanged(Object object, IRI property, Object newValue) {
+		return new ProxyEvent(Type.PROPERTY_CHANGED, object, null, null, property, newValue);
+	}
+
+	/**
+	 * Delivers this event to a listener by invoking the {@link ProxyListener}
+	 * method matching the event type.
+	 * 
+	 * @param l
+	 */
+	public void deliver(ProxyListener l) {
+		if (type == Type.OBJECT_CREATED) {
+			l.objectCreated(object, objectClass, resource);
+		}
+		else {
+			l.objectPropertyChanged(object, property, newValue);
+		}
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public Object getObject() {
+		return object;
+	}
+
+	/**
+	 * @return the proxy interface (OBJECT_CREATED events only)
+	 */
+	public Class<?> getObjectClass() {
+		return objectClass;
+	}
+
+	/**
+	 * @return the proxy resource (OBJECT_CREATED events only)
+	 */
+	public Resource getResource() {
+		return resource;
+	}
+
+	/**
+	 * @return the changed property (PROPERTY_CHANGED events only)
+	 */
+	public IRI getProperty() {
+		return property;
+	}
+
+	/**
+	 * @return the new property value (PROPERTY_CHANGED events only)
+	 */
+	public Object getNewValue() {
+		return newValue;
+	}
+
+	/**
+	 * @return the event creation time, in milliseconds
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	long getNanoTime() {
+		return nanoTime;
+	}
+
+}
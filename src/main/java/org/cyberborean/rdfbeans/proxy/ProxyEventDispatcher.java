@@ -0,0 +1,28 @@
+package org.cyberborean.rdfbeans.proxy;
+
+import java.util.List;
+
+/**
+ * Delivers {@link ProxyEvent} objects to the registered {@link ProxyListener}
+ * instances.
+ * 
+ * @see DirectProxyEventDispatcher
+ * @see AsyncProxyEventDispatcher
+ */
+public interface ProxyEventDispatcher extends AutoCloseable {
+
+	/**
+	 * Dispatches an event to the given listeners.
+	 * 
+	 * @param event
+	 * @param listeners
+	 */
+	void dispatch(ProxyEvent event, List<ProxyListener> listeners);
+
+	/**
+	 * Delivers all pending events and releases the dispatcher resources.
+	 */
+	@Override
+	void close();
+
+}
@@ -1,6 +1,9 @@
 package org.cyberborean.rdfbeans.proxy;
 
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 
 import org.cyberborean.rdfbeans.RDFBeanManagerContext;
@@ -17,8 +20,32 @@ public class ProxyInstancesPool {
 		this.rdfBeanManagerContext = rdfBeanManagerContext;
 	}
 
-	@SuppressWarnings("unchecked")
 	public synchronized <T> T getInstance(Resource r, RDFBeanInfo rbi, Class<T> iface) {
+		return lookup(r, rbi, iface);
+	}
+
+	/**
+	 * Returns proxy instances for a batch of resources, acquiring the pool
+	 * monitor once for the whole batch.
+	 * 
+	 * @param resources
+	 *            Resources to return the proxies for
+	 * @param rbi
+	 *            RDFBeanInfo of the proxy interface
+	 * @param iface
+	 *            RDFBean-compliant Java interface
+	 * @return List of proxy objects in the order of the given resources
+	 */
+	public synchronized <T> List<T> getInstances(Collection<? extends Resource> resources, RDFBeanInfo rbi, Class<T> iface) {
+		List<T> result = new ArrayList<T>(resources.size());
+		for (Resource r : resources) {
+			result.add(lookup(r, rbi, iface));
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T lookup(Resource r, RDFBeanInfo rbi, Class<T> iface) {
 		int key = createCacheKey(r);
 		Object instance = instances.get(key);
 		if (instance == null) {		
@@ -36,4 +63,14 @@ public class ProxyInstancesPool {
 	public synchronized void purge(Resource r) {
 		instances.remove(createCacheKey(r));
 	}
+
+	/**
+	 * Removes the proxy instances of a batch of resources, acquiring the
+	 * pool monitor once for the whole batch.
+	 */
+	public synchronized void purge(Collection<? extends Resource> resources) {
+		for (Resource r : resources) {
+			instances.remove(createCacheKey(r));
+		}
+	}
 }
@@ -10,18 +10,25 @@ import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
 import org.cyberborean.rdfbeans.RDFBeanManagerContext;
 import org.cyberborean.rdfbeans.annotations.RDFContainer.ContainerType;
+import org.cyberborean.rdfbeans.datatype.Codec;
+import org.cyberborean.rdfbeans.datatype.PackedArrays;
 import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
 import org.cyberborean.rdfbeans.exceptions.RDFBeanValidationException;
 import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.cyberborean.rdfbeans.reflect.RDFEnumInfo;
 import org.cyberborean.rdfbeans.reflect.RDFProperty;
+import org.cyberborean.rdfbeans.reflect.ValueKind;
 import org.eclipse.rdf4j.RDF4JException;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.model.BNode;
@@ -130,7 +137,7 @@ public class RDFBeanDelegator implements InvocationHandler {
 							+ " argument.");
 				}
 				setValue(p, args[0]);
-				fireObjectPropertyChanged(proxy, p.getUri(), args[0]);
+				rdfBeanManagerContext.fireObjectPropertyChanged(proxy, p.getUri(), args[0]);
 				return null;
 			}
 			if (p.getPropertyDescriptor() instanceof IndexedPropertyDescriptor) {
@@ -147,7 +154,7 @@ public class RDFBeanDelegator implements InvocationHandler {
 						Object array = getValue(p);
 						Array.set(array, index, args[1]);
 						setValue(p, array);
-						fireObjectPropertyChanged(proxy, p.getUri(), array);
+						rdfBeanManagerContext.fireObjectPropertyChanged(proxy, p.getUri(), array);
 						return null;
 					}
 				}
@@ -202,7 +209,21 @@ public class RDFBeanDelegator implements InvocationHandler {
 		}
 		// Determine field type
 		Class fClass = p.getPropertyType();
-		if (Collection.class.isAssignableFrom(fClass) || fClass.isArray()) {			
+		if (p.getContainerType() == ContainerType.PACKED) {
+			if (sts.hasNext()) {
+				Value object = sts.next().getObject();
+				if (object instanceof Literal) {
+					try {
+						result = PackedArrays.decode((Literal) object, fClass);
+					} catch (IllegalArgumentException e) {
+						sts.close();
+						throw new RDFBeanException("Invalid packed value of property "
+								+ p.getPropertyDescriptor().getName() + ": " + object, e);
+					}
+				}
+			}
+		}
+		else if (Collection.class.isAssignableFrom(fClass) || fClass.isArray()) {			
 			// Collection property - collect all values
 			// Check if an array or interface or abstract class			
 			if (fClass.isArray() 
@@ -227,15 +248,16 @@ public class RDFBeanDelegator implements InvocationHandler {
 			// Determine component type
 			Class cClass = p.getPropertyComponentType();
 			// Collect values
+			List<Value> values = new ArrayList<Value>();
 			while (sts.hasNext()) {
-				Value object;
 				if (p.isInversionOfProperty()) {
-					object = sts.next().getSubject();
+					values.add(sts.next().getSubject());
 				}
 				else {
-					object = sts.next().getObject();
+					values.add(sts.next().getObject());
 				}
-				Object item = unmarshalObject(object, cClass);
+			}
+			for (Object item : unmarshalObjects(values, cClass, p.getCodec())) {
 				if (item != null) {
 					if (item instanceof Collection) {
 						items.addAll((Collection) item);
@@ -270,7 +292,7 @@ public class RDFBeanDelegator implements InvocationHandler {
 				else {
 					object = sts.next().getObject();
 				}
-				Object value = unmarshalObject(object, fClass);
+				Object value = unmarshalObject(object, fClass, p.getCodec());
 				if (value != null) {
 					if ((value instanceof Collection)
 							&& ((Collection) value).iterator().hasNext()) {
@@ -288,41 +310,79 @@ public class RDFBeanDelegator implements InvocationHandler {
 		return result;
 	}
 
+	/**
+	 * Default values of the primitive types, returned for the properties
+	 * without a value
+	 */
+	private static final Map<Class<?>, Object> PRIMITIVE_DEFAULTS = new HashMap<Class<?>, Object>();
+	static {
+		PRIMITIVE_DEFAULTS.put(int.class, Integer.valueOf(0));
+		PRIMITIVE_DEFAULTS.put(float.class, Float.valueOf(0.0f));
+		PRIMITIVE_DEFAULTS.put(double.class, Double.valueOf(0.0d));
+		PRIMITIVE_DEFAULTS.put(long.class, Long.valueOf(0L));
+		PRIMITIVE_DEFAULTS.put(short.class, Short.valueOf((short) 0));
+		PRIMITIVE_DEFAULTS.put(byte.class, Byte.valueOf((byte) 0));
+		PRIMITIVE_DEFAULTS.put(char.class, Character.valueOf('\u0000'));
+		PRIMITIVE_DEFAULTS.put(boolean.class, Boolean.FALSE);
+	}
+
 	private Object checkPrimitiveTypeDefault(Class<?> type) {
-		if (type.equals(int.class)) {
-			return Integer.valueOf(0);
-		}
-		if (type.equals(float.class)) {
-			return Float.valueOf(0.0f);
-		}
-		if (type.equals(double.class)) {
-			return Double.valueOf(0.0d);
-		}
-		if (type.equals(long.class)) {
-			return Long.valueOf(0L);
-		}
-		if (type.equals(short.class)) {
-			return Short.valueOf((short) 0);
-		}
-		if (type.equals(byte.class)) {
-			return Byte.valueOf((byte) 0);
+		return type.isPrimitive() ? PRIMITIVE_DEFAULTS.get(type) : null;
+	}
+
+	/**
+	 * Unmarshals a list of values. If the values are references to RDFBeans
+	 * of the given interface, their proxies are obtained with a single bulk
+	 * call to {@link RDFBeanManagerContext#createAll(List, Class)}.
+	 * 
+	 * @return List of unmarshalled objects in the order of the given values
+	 */
+	private List<Object> unmarshalObjects(List<Value> values, Class<?> iface, Codec<?> codec) throws RDFBeanException, RepositoryException {
+		List<Object> result = new ArrayList<Object>(values.size());
+		if ((iface != null) && iface.isInterface() && RDFBeanInfo.isRdfBeanClass(iface)) {
+			List<IRI> refs = new ArrayList<IRI>(values.size());
+			for (Value v : values) {
+				if (v instanceof IRI) {
+					refs.add((IRI) v);
+				}
+			}
+			if (!refs.isEmpty()) {
+				Iterator<?> proxies = rdfBeanManagerContext.createAll(refs, iface).iterator();
+				for (Value v : values) {
+					result.add((v instanceof IRI) ? proxies.next() : unmarshalObject(v, iface, codec));
+				}
+				return result;
+			}
 		}
-		if (type.equals(char.class)) {
-			return Character.valueOf('\u0000');
+		for (Value v : values) {
+			result.add(unmarshalObject(v, iface, codec));
 		}
-		if (type.equals(boolean.class)) {
-			return Boolean.FALSE;
-		}		
-		return null;
+		return result;
 	}
 
 	@SuppressWarnings({
 		"rawtypes", "unchecked"
 	})
-	private Object unmarshalObject(Value object, Class<?> iface) throws RDFBeanException, RepositoryException {
+	private Object unmarshalObject(Value object, Class<?> iface, Codec<?> codec) throws RDFBeanException, RepositoryException {
+		if ((iface != null) && iface.isEnum() && !(object instanceof BNode)) {
+			if (object instanceof Literal) {
+				if (codec != null) {
+					return codec.decode((Literal) object);
+				}
+				Object o = rdfBeanManagerContext.getDatatypeMapper().getJavaObject((Literal) object, iface);
+				if (iface.isInstance(o)) {
+					return o;
+				}
+			}
+			// enum constant, or null if unknown
+			return RDFEnumInfo.get(iface).getConstant(object);
+		}
 		if (object instanceof Literal) {
 			// literal
-			return rdfBeanManagerContext.getDatatypeMapper().getJavaObject((Literal)object);
+			if (codec != null) {
+				return codec.decode((Literal) object);
+			}
+			return rdfBeanManagerContext.getDatatypeMapper().getJavaObject((Literal)object, iface);
 		}
 		else if (object instanceof BNode) {
 			RepositoryConnection conn = getRepositoryConnection();
@@ -332,9 +392,9 @@ public class RDFBeanDelegator implements InvocationHandler {
 					|| conn.hasStatement(r, RDF.TYPE, RDF.SEQ, false, (IRI)context)
 					|| conn.hasStatement(r, RDF.TYPE, RDF.ALT, false, (IRI)context)) {	
 				// Collect all items (ordered)
-				ArrayList items = new ArrayList();
+				List<Value> values = new ArrayList<Value>();
 				int i = 1;
-				Object item = null;
+				Value item = null;
 				do {
 					item = null;
 					RepositoryResult<Statement> itemst = conn.getStatements(
@@ -342,14 +402,18 @@ public class RDFBeanDelegator implements InvocationHandler {
 							conn.getValueFactory().createIRI(RDF.NAMESPACE, "_" + i),
 							null, false, (IRI)context);
 					if (itemst.hasNext()) {
-						item = unmarshalObject(itemst.next().getObject(), iface);
-						if (item != null) {
-							items.add(item);
-						}
+						item = itemst.next().getObject();
+						values.add(item);
 						i++;
 					}
 					itemst.close();
 				} while (item != null);
+				ArrayList items = new ArrayList(values.size());
+				for (Object o : unmarshalObjects(values, iface, codec)) {
+					if (o != null) {
+						items.add(o);
+					}
+				}
 				// Return collection
 				return items; 
 			}
@@ -393,6 +457,11 @@ public class RDFBeanDelegator implements InvocationHandler {
 			return;
 		}
 				
+		if (p.getContainerType() == ContainerType.PACKED) {
+			setPackedValue(p, value);
+			return;
+		}
+
 		// Prepare value		
 		if (value.getClass().isArray()) {
 			// wrap array into the List
@@ -431,7 +500,7 @@ public class RDFBeanDelegator implements InvocationHandler {
 					Collection values = (Collection) value;
 					// Create multiple triples
 					for (Object v : values) {
-						Value object = toRdf(v, conn.getValueFactory());
+						Value object = toRdf(v, p.getCodec(), conn.getValueFactory());
 						if (object != null) {
 							if (p.isInversionOfProperty()) {
 								if (object instanceof Resource) {								
@@ -452,7 +521,7 @@ public class RDFBeanDelegator implements InvocationHandler {
 				}
 				else {
 					// Single value
-					Value object = toRdf(value, conn.getValueFactory());
+					Value object = toRdf(value, p.getCodec(), conn.getValueFactory());
 					if (object != null) {	
 						if (p.isInversionOfProperty()) {
 							if (object instanceof Resource) {
@@ -491,7 +560,7 @@ public class RDFBeanDelegator implements InvocationHandler {
 					conn.add(collection, RDF.TYPE, ctype, (IRI)context);
 					int i = 1;
 					for (Object v : values) {
-						Value object = toRdf(v, conn.getValueFactory());
+						Value object = toRdf(v, p.getCodec(), conn.getValueFactory());
 						if (object != null) {
 							conn.add(collection,
 									conn.getValueFactory().createIRI(RDF.NAMESPACE, "_" + i),
@@ -520,28 +589,67 @@ public class RDFBeanDelegator implements InvocationHandler {
 		
 	}
 
-	private synchronized Value toRdf(Object value, ValueFactory valueFactory)
+	private void setPackedValue(RDFProperty p, Object value) throws RDFBeanException, RepositoryException {
+		RepositoryConnection conn = getRepositoryConnection();
+		Literal l;
+		try {
+			l = PackedArrays.encode(value, p.getPackedElementType(), conn.getValueFactory());
+		} catch (IllegalArgumentException e) {
+			throw new RDFBeanException("Cannot pack the value of property "
+					+ p.getPropertyDescriptor().getName() + " of class "
+					+ rdfBeanInfo.getRDFBeanClass().getName(), e);
+		}
+		boolean newTxn = !conn.isActive();
+		if (newTxn) {
+			conn.begin();
+		}
+		try {
+			conn.remove(subject, p.getUri(), null, (IRI)context);
+			conn.add(subject, p.getUri(), l, (IRI)context);
+			if (newTxn) {
+				conn.commit();
+			}
+		}
+		catch (RepositoryException e) {
+			if (newTxn) {
+				conn.rollback();
+			}
+			throw e;
+		}
+	}
+
+	private synchronized Value toRdf(Object value, Codec<Object> codec, ValueFactory valueFactory)
 			throws RDFBeanException {
-		// Check if a Literal
-		Literal l = rdfBeanManagerContext.getDatatypeMapper().getRDFValue(value, valueFactory);
-		if (l != null) {
-			return l;
+		if ((codec != null) && (value != null)) {
+			// bound to the property
+			return codec.encode(value, valueFactory);
 		}
-		// Check if another RDFBean
-		if (RDFBeanInfo.isRdfBean(value)) {
+		ValueKind kind = ValueKind.of(value);
+		switch (kind) {
+		case RDFBEAN:
+			// another RDFBean
 			checkIfTheSameContext(value);
 			RDFBeanInfo rbi = RDFBeanInfo.get(value.getClass());
 			if (rbi.getSubjectProperty() == null) {
 				throw new RDFBeanException("RDFSubject property is not declared in " + value.getClass().getName() + " class or its interfaces");
 			}
 			return (IRI) rbi.getSubjectProperty().getValue(value);
-		}
-		// Check if a Resource
-		if (value instanceof Resource) {
+		case RESOURCE:
 			return (Resource)value;
+		default:
+			break;
+		}
+		// Check if a Literal
+		Literal l = rdfBeanManagerContext.getDatatypeMapper().getRDFValue(value, valueFactory);
+		if (l != null) {
+			return l;
+		}
+		// enums not handled by the DatatypeMapper
+		if (kind == ValueKind.ENUM) {
+			return RDFEnumInfo.get(value.getClass()).getValue((Enum<?>) value);
 		}
 		// Check if Java URI
-		if (java.net.URI.class.isAssignableFrom(value.getClass())) {
+		if (kind == ValueKind.URI) {
 			return valueFactory.createIRI(value.toString());
 		}
 		
@@ -557,10 +665,4 @@ public class RDFBeanDelegator implements InvocationHandler {
 		}
 	}
 
-	private void fireObjectPropertyChanged(Object object, IRI property, Object newValue) {
-		for (ProxyListener l : rdfBeanManagerContext.getProxyListeners()) {
-			l.objectPropertyChanged(object, property, newValue);
-		}
-	}
-
 }
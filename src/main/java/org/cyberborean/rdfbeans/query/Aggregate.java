@@ -0,0 +1,12 @@
+package org.cyberborean.rdfbeans.query;
+
+/**
+ * Aggregate functions over property values.
+ *
+ * @see Query#aggregate(String, Aggregate)
+ */
+public enum Aggregate {
+
+	SUM, MIN, MAX, AVG
+
+}
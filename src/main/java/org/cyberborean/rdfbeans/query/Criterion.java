@@ -0,0 +1,121 @@
+package org.cyberborean.rdfbeans.query;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A condition on the value of an RDFBean property in a {@link Query}.
+ *
+ * The values are Java objects which are converted to RDF values when the
+ * query is compiled: literals through the DatatypeMapper of the
+ * RDFBeanManager, RDFBean objects to their subject IRIs and
+ * <code>java.net.URI</code> objects to IRIs.
+ *
+ * Criteria are created with the static factory methods of this class,
+ * which are meant to be statically imported:
+ *
+ * <pre>
+ * import static org.cyberborean.rdfbeans.query.Criterion.*;
+ * ...
+ * manager.query(Person.class).where("age", gt(30)).orderBy("name").limit(100);
+ * </pre>
+ */
+public class Criterion {
+
+	enum Operator {
+		EQ("="), NE("!="), GT(">"), GE(">="), LT("<"), LE("<="), IN("IN"), REGEX("regex");
+
+		final String sparql;
+
+		Operator(String sparql) {
+			this.sparql = sparql;
+		}
+	}
+
+	private final Operator operator;
+	private final List<Object> values;
+
+	private Criterion(Operator operator, List<Object> values) {
+		for (Object v : values) {
+			if (v == null) {
+				throw new IllegalArgumentException("Criterion value must not be null");
+			}
+		}
+		this.operator = operator;
+		this.values = values;
+	}
+
+	private Criterion(Operator operator, Object value) {
+		this(operator, Collections.singletonList(value));
+	}
+
+	Operator getOperator() {
+		return operator;
+	}
+
+	List<Object> getValues() {
+		return values;
+	}
+
+	/**
+	 * The property value is equal to the given value.
+	 */
+	public static Criterion eq(Object value) {
+		return new Criterion(Operator.EQ, value);
+	}
+
+	/**
+	 * The property value is not equal to the given value.
+	 */
+	public static Criterion ne(Object value) {
+		return new Criterion(Operator.NE, value);
+	}
+
+	/**
+	 * The property value is greater than the given value.
+	 */
+	public static Criterion gt(Object value) {
+		return new Criterion(Operator.GT, value);
+	}
+
+	/**
+	 * The property value is greater than or equal to the given value.
+	 */
+	public static Criterion ge(Object value) {
+		return new Criterion(Operator.GE, value);
+	}
+
+	/**
+	 * The property value is less than the given value.
+	 */
+	public static Criterion lt(Object value) {
+		return new Criterion(Operator.LT, value);
+	}
+
+	/**
+	 * The property value is less than or equal to the given value.
+	 */
+	public static Criterion le(Object value) {
+		return new Criterion(Operator.LE, value);
+	}
+
+	/**
+	 * The property value is equal to one of the given values.
+	 */
+	public static Criterion in(Object... values) {
+		if (values.length == 0) {
+			throw new IllegalArgumentException("At least one value is required");
+		}
+		return new Criterion(Operator.IN, Arrays.asList(values));
+	}
+
+	/**
+	 * The lexical form of the property value matches the given regular
+	 * expression (SPARQL <code>regex()</code> function syntax).
+	 */
+	public static Criterion regex(String pattern) {
+		return new Criterion(Operator.REGEX, pattern);
+	}
+
+}
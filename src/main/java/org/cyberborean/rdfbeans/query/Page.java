@@ -0,0 +1,47 @@
+package org.cyberborean.rdfbeans.query;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of RDFBean objects returned by keyset pagination.
+ *
+ * @param <T>
+ *            RDFBean class
+ * @see Query#page(int, String)
+ */
+public class Page<T> {
+
+	private final List<T> items;
+	private final String continuationToken;
+
+	public Page(List<T> items, String continuationToken) {
+		this.items = Collections.unmodifiableList(items);
+		this.continuationToken = continuationToken;
+	}
+
+	/**
+	 * @return the objects of this page
+	 */
+	public List<T> getItems() {
+		return items;
+	}
+
+	/**
+	 * Returns an opaque token to pass to the next page request, or null if
+	 * this page is the last one.
+	 *
+	 * @return continuation token or null
+	 */
+	public String getContinuationToken() {
+		return continuationToken;
+	}
+
+	/**
+	 * @return true if there is a next page
+	 */
+	public boolean hasNext() {
+		return continuationToken != null;
+	}
+
+}
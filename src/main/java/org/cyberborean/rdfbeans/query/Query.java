@@ -0,0 +1,695 @@
+package org.cyberborean.rdfbeans.query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.cyberborean.rdfbeans.RDFBeanManagerContext;
+import org.cyberborean.rdfbeans.annotations.RDFContainer.ContainerType;
+import org.cyberborean.rdfbeans.datatype.Codec;
+import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
+import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.cyberborean.rdfbeans.reflect.RDFEnumInfo;
+import org.cyberborean.rdfbeans.reflect.RDFProperty;
+import org.cyberborean.rdfbeans.reflect.SubjectProperty;
+import org.eclipse.rdf4j.RDF4JException;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.SESAME;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.impl.SimpleDataset;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+
+/**
+ * A query for RDFBean objects of a given class, compiled to a single SPARQL
+ * SELECT query so that the filtering, ordering and slicing are done by the
+ * repository.
+ *
+ * Properties are referred to by their JavaBean names and are resolved to
+ * the RDF predicates declared with the {@link org.cyberborean.rdfbeans.annotations.RDF}
+ * annotations. Dotted paths (e.g. <code>"knows.name"</code>) traverse the
+ * properties of nested RDFBeans.
+ *
+ * <pre>
+ * import static org.cyberborean.rdfbeans.query.Criterion.*;
+ * ...
+ * List&lt;Person&gt; persons = manager.query(Person.class)
+ *         .where("age", gt(30))
+ *         .orderBy("name")
+ *         .limit(100)
+ *         .list();
+ * </pre>
+ *
+ * @param <T>
+ *            RDFBean class
+ */
+public class Query<T> {
+
+	private static final String SUBJECT = "s";
+
+	private final RDFBeanManagerContext context;
+	private final Class<T> rdfBeanClass;
+	private final RDFBeanInfo rbi;
+	private final List<Condition> conditions = new ArrayList<>();
+	private final List<Order> orders = new ArrayList<>();
+	private long limit = -1;
+	private long offset = 0;
+
+	public Query(RDFBeanManagerContext context, Class<T> rdfBeanClass) throws RDFBeanException {
+		this.context = context;
+		this.rdfBeanClass = rdfBeanClass;
+		this.rbi = RDFBeanInfo.get(rdfBeanClass);
+	}
+
+	/**
+	 * Adds a condition on a property value. All conditions must hold for a
+	 * matching object; a condition on a multi-valued property holds if any
+	 * of the values matches.
+	 *
+	 * @param path
+	 *            Property name or dotted path of property names
+	 * @param criterion
+	 *            Condition on the property value
+	 * @return this query
+	 * @throws RDFBeanException
+	 *             If the property path cannot be resolved
+	 */
+	public Query<T> where(String path, Criterion criterion) throws RDFBeanException {
+		List<RDFProperty> properties = new ArrayList<>();
+		String resolved = resolvePath(path, properties);
+		conditions.add(new Condition(resolved, properties.get(properties.size() - 1), criterion));
+		return this;
+	}
+
+	/**
+	 * Adds an ascending sort key. Objects without a value of the property
+	 * come first.
+	 *
+	 * @param path
+	 *            Property name or dotted path of property names
+	 * @return this query
+	 * @throws RDFBeanException
+	 *             If the property path cannot be resolved or is multi-valued
+	 */
+	public Query<T> orderBy(String path) throws RDFBeanException {
+		orders.add(new Order(resolveSortPath(path), false));
+		return this;
+	}
+
+	/**
+	 * Adds a descending sort key.
+	 *
+	 * @see #orderBy(String)
+	 */
+	public Query<T> orderByDesc(String path) throws RDFBeanException {
+		orders.add(new Order(resolveSortPath(path), true));
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of objects to return.
+	 */
+	public Query<T> limit(long limit) {
+		this.limit = limit;
+		return this;
+	}
+
+	/**
+	 * Sets the number of matching objects to skip.
+	 */
+	public Query<T> offset(long offset) {
+		this.offset = offset;
+		return this;
+	}
+
+	/**
+	 * Returns the SPARQL query this query is compiled to. The condition
+	 * values are bound to the <code>?_cN</code> variables at evaluation.
+	 *
+	 * @return SPARQL query string
+	 */
+	public String toSparql() throws RDFBeanException {
+		return compile(new LinkedHashMap<String, Value>());
+	}
+
+	/**
+	 * Evaluates the query and returns an iterator over the matching objects.
+	 *
+	 * The returned Iterator performs "lazy" restoring of Java objects (on
+	 * every `next()` call). When iterator is exhausted, the caller must
+	 * invoke `close()` method to release the query result.
+	 *
+	 * @return Iterator over matching objects
+	 * @throws RDFBeanException
+	 *             If a condition value cannot be converted to an RDF value
+	 * @throws RDF4JException
+	 */
+	public CloseableIteration<T, Exception> getResults() throws RDFBeanException, RDF4JException {
+		final TupleQueryResult result = evaluate();
+		return new CloseableIteration<T, Exception>() {
+
+			@Override
+			public boolean hasNext() throws Exception {
+				return result.hasNext();
+			}
+
+			@Override
+			public T next() throws Exception {
+				Resource r = (Resource) result.next().getValue(SUBJECT);
+				return context.get(r, rdfBeanClass);
+			}
+
+			@Override
+			public void remove() throws Exception {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public void close() throws Exception {
+				result.close();
+			}
+		};
+	}
+
+	/**
+	 * Evaluates the query and returns the matching objects.
+	 *
+	 * @return List of matching objects in the query order
+	 */
+	public List<T> list() throws Exception {
+		List<T> list = new ArrayList<>();
+		CloseableIteration<T, Exception> results = getResults();
+		try {
+			while (results.hasNext()) {
+				list.add(results.next());
+			}
+		} finally {
+			results.close();
+		}
+		return list;
+	}
+
+	/**
+	 * Evaluates the query and returns a sequential Stream of the matching
+	 * objects. The Stream must be closed to release the query result.
+	 *
+	 * @return Stream of matching objects in the query order
+	 */
+	public Stream<T> stream() throws RDFBeanException, RDF4JException {
+		final CloseableIteration<T, Exception> results = getResults();
+		Iterator<T> iterator = new Iterator<T>() {
+
+			@Override
+			public boolean hasNext() {
+				try {
+					return results.hasNext();
+				} catch (Exception e) {
+					throw new RDFBeanException(e);
+				}
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				try {
+					return results.next();
+				} catch (Exception e) {
+					throw new RDFBeanException(e);
+				}
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+				.onClose(new Runnable() {
+
+					@Override
+					public void run() {
+						try {
+							results.close();
+						} catch (Exception e) {
+							throw new RDFBeanException(e);
+						}
+					}
+				});
+	}
+
+	/**
+	 * Returns a page of the matching objects ordered by their subject IRIs.
+	 *
+	 * Instead of skipping the objects of the preceding pages, the next page
+	 * starts right after the last object of the previous one (keyset
+	 * pagination), so that the cost of a page does not grow with its
+	 * position. Anonymous RDFBeans (blank nodes) are not paged. The
+	 * ordering, limit and offset set on this query are ignored.
+	 *
+	 * @param size
+	 *            Maximum number of objects in the page
+	 * @param continuationToken
+	 *            Token of the previous page, or null for the first page
+	 * @return Page of objects
+	 * @throws RDFBeanException
+	 *             If the continuation token is invalid
+	 * @throws RDF4JException
+	 * @see Page#getContinuationToken()
+	 */
+	public Page<T> page(int size, String continuationToken) throws RDFBeanException, RDF4JException {
+		return page(null, size, continuationToken);
+	}
+
+	/**
+	 * Returns a page of the matching objects ordered by the value of a
+	 * single-valued property (and by subject IRI among equal values).
+	 *
+	 * Only the objects having a value of the property are paged. IRI values
+	 * (RDFBean references, URIs and enum constants mapped to IRIs) are
+	 * ordered by their string form.
+	 *
+	 * @param sortPath
+	 *            Property name or dotted path of property names to sort by
+	 * @param size
+	 *            Maximum number of objects in the page
+	 * @param continuationToken
+	 *            Token of the previous page, or null for the first page
+	 * @return Page of objects
+	 * @throws RDFBeanException
+	 *             If the property path cannot be resolved or is
+	 *             multi-valued, or the continuation token is invalid
+	 * @throws RDF4JException
+	 * @see #page(int, String)
+	 */
+	public Page<T> page(String sortPath, int size, String continuationToken) throws RDFBeanException, RDF4JException {
+		if (size < 1) {
+			throw new IllegalArgumentException("Page size must be positive: " + size);
+		}
+		String sortProperty = sortPath != null ? resolveSortPath(sortPath) : null;
+		Keyset after = continuationToken != null ? Keyset.decode(continuationToken, sortPath) : null;
+
+		Map<String, Value> bindings = new LinkedHashMap<>();
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT DISTINCT ?").append(SUBJECT).append(" ?_key");
+		if (sortProperty != null) {
+			sb.append(" ?_sort");
+		}
+		sb.append(" WHERE {\n");
+		appendConditions(sb, bindings);
+		sb.append("  FILTER(isIRI(?").append(SUBJECT).append("))\n");
+		sb.append("  BIND(str(?").append(SUBJECT).append(") AS ?_key)\n");
+		if (sortProperty != null) {
+			sb.append("  ?").append(SUBJECT).append(' ').append(sortProperty).append(" ?_sort .\n");
+			// IRIs (RDFBean references, URIs, enum constants) cannot be
+			// compared with '>', so they are ordered by their string form
+			sb.append("  BIND(IF(isIRI(?_sort), str(?_sort), ?_sort) AS ?_sortKey)\n");
+		}
+		if (after != null) {
+			ValueFactory vf = SimpleValueFactory.getInstance();
+			String key = bind(bindings, vf.createLiteral(after.subject), null);
+			if (sortProperty != null) {
+				Value sortKey = after.value instanceof IRI ? vf.createLiteral(after.value.stringValue()) : after.value;
+				String sort = bind(bindings, sortKey, null);
+				sb.append("  FILTER(?_sortKey > ").append(sort).append(" || (?_sortKey = ").append(sort)
+						.append(" && ?_key > ").append(key).append("))\n");
+			} else {
+				sb.append("  FILTER(?_key > ").append(key).append(")\n");
+			}
+		}
+		sb.append("}\nORDER BY");
+		if (sortProperty != null) {
+			sb.append(" ?_sortKey");
+		}
+		sb.append(" ?_key\nLIMIT ").append(size + 1);
+
+		List<T> items = new ArrayList<>(size);
+		Keyset last = null;
+		boolean more = false;
+		TupleQueryResult result = evaluate(sb.toString(), bindings);
+		try {
+			while (result.hasNext()) {
+				BindingSet bs = result.next();
+				if (items.size() == size) {
+					more = true;
+					break;
+				}
+				Resource r = (Resource) bs.getValue(SUBJECT);
+				items.add(context.get(r, rdfBeanClass));
+				last = new Keyset(r.stringValue(), sortProperty != null ? bs.getValue("_sort") : null);
+			}
+		} finally {
+			result.close();
+		}
+		return new Page<T>(items, more ? last.encode(sortPath) : null);
+	}
+
+	/**
+	 * Counts the matching objects in the repository, without restoring them.
+	 *
+	 * @return number of matching objects
+	 * @throws RDFBeanException
+	 *             If a condition value cannot be converted to an RDF value
+	 * @throws RDF4JException
+	 */
+	public long count() throws RDFBeanException, RDF4JException {
+		Map<String, Value> bindings = new LinkedHashMap<>();
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT (COUNT(DISTINCT ?").append(SUBJECT).append(") AS ?_result) WHERE {\n");
+		appendConditions(sb, bindings);
+		sb.append('}');
+		Value result = evaluateSingle(sb.toString(), bindings);
+		return result != null ? ((Literal) result).longValue() : 0;
+	}
+
+	/**
+	 * Computes an aggregate of the property values of the matching objects
+	 * in the repository, without restoring the objects. The result is
+	 * decoded with the DatatypeMapper of the RDFBeanManager.
+	 *
+	 * @param path
+	 *            Property name or dotted path of property names
+	 * @param function
+	 *            Aggregate function
+	 * @return Aggregate value, or null if there are no values to compute
+	 *         MIN or MAX of
+	 * @throws RDFBeanException
+	 *             If the property path cannot be resolved
+	 * @throws RDF4JException
+	 */
+	public Object aggregate(String path, Aggregate function) throws RDFBeanException, RDF4JException {
+		String property = resolvePath(path);
+		Map<String, Value> bindings = new LinkedHashMap<>();
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT (").append(function.name()).append("(?_value) AS ?_result) WHERE {\n");
+		// every matching object counts once, however many conditions it matches
+		sb.append("  { SELECT DISTINCT ?").append(SUBJECT).append(" WHERE {\n");
+		appendConditions(sb, bindings);
+		sb.append("  } }\n");
+		sb.append("  ?").append(SUBJECT).append(' ').append(property).append(" ?_value .\n");
+		sb.append('}');
+		Value result = evaluateSingle(sb.toString(), bindings);
+		if (result instanceof Literal) {
+			return context.getDatatypeMapper().getJavaObject((Literal) result);
+		}
+		return result;
+	}
+
+	private Value evaluateSingle(String sparql, Map<String, Value> bindings) throws RDF4JException {
+		TupleQueryResult result = evaluate(sparql, bindings);
+		try {
+			return result.hasNext() ? result.next().getValue("_result") : null;
+		} finally {
+			result.close();
+		}
+	}
+
+	private TupleQueryResult evaluate() throws RDFBeanException, RDF4JException {
+		Map<String, Value> bindings = new LinkedHashMap<>();
+		return evaluate(compile(bindings), bindings);
+	}
+
+	private TupleQueryResult evaluate(String sparql, Map<String, Value> bindings) throws RDF4JException {
+		RepositoryConnection conn = context.getRepositoryConnection();
+		TupleQuery query = conn.prepareTupleQuery(QueryLanguage.SPARQL, sparql);
+		for (Map.Entry<String, Value> binding : bindings.entrySet()) {
+			query.setBinding(binding.getKey(), binding.getValue());
+		}
+		// restrict to the context of the manager, as getAll() does
+		SimpleDataset dataset = new SimpleDataset();
+		dataset.addDefaultGraph(context.getContext() != null ? context.getContext() : SESAME.NIL);
+		query.setDataset(dataset);
+		return query.evaluate();
+	}
+
+	private String compile(Map<String, Value> bindings) throws RDFBeanException {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT DISTINCT ?").append(SUBJECT).append(" WHERE {\n");
+		appendConditions(sb, bindings);
+		int o = 0;
+		for (Order order : orders) {
+			order.var = "?_o" + o++;
+			sb.append("  OPTIONAL { ?").append(SUBJECT).append(' ').append(order.path).append(' ')
+					.append(order.var).append(" }\n");
+		}
+		sb.append('}');
+		if (!orders.isEmpty()) {
+			sb.append("\nORDER BY");
+			for (Order order : orders) {
+				sb.append(order.descending ? " DESC(" : " ASC(").append(order.var).append(')');
+			}
+		}
+		if (limit >= 0) {
+			sb.append("\nLIMIT ").append(limit);
+		}
+		if (offset > 0) {
+			sb.append("\nOFFSET ").append(offset);
+		}
+		return sb.toString();
+	}
+
+	private void appendConditions(StringBuilder sb, Map<String, Value> bindings) throws RDFBeanException {
+		sb.append("  ?").append(SUBJECT).append(" a <").append(rbi.getRDFType()).append("> .\n");
+		int v = 0;
+		for (Condition c : conditions) {
+			String var = "?_v" + v++;
+			Criterion.Operator op = c.criterion.getOperator();
+			List<Object> values = c.criterion.getValues();
+			if (op == Criterion.Operator.EQ) {
+				// match the term directly, so that the store can use its indexes
+				String constant = bind(bindings, values.get(0), c.property);
+				sb.append("  ?").append(SUBJECT).append(' ').append(c.path).append(' ').append(constant).append(" .\n");
+				continue;
+			}
+			sb.append("  ?").append(SUBJECT).append(' ').append(c.path).append(' ').append(var).append(" .\n");
+			sb.append("  FILTER(");
+			if (op == Criterion.Operator.IN) {
+				sb.append(var).append(" IN (");
+				for (int i = 0; i < values.size(); i++) {
+					if (i > 0) {
+						sb.append(", ");
+					}
+					sb.append(bind(bindings, values.get(i), c.property));
+				}
+				sb.append(')');
+			} else if (op == Criterion.Operator.REGEX) {
+				sb.append("regex(str(").append(var).append("), ")
+						.append(bind(bindings, SimpleValueFactory.getInstance().createLiteral((String) values.get(0)), null))
+						.append(')');
+			} else {
+				sb.append(var).append(' ').append(op.sparql).append(' ').append(bind(bindings, values.get(0), c.property));
+			}
+			sb.append(")\n");
+		}
+	}
+
+	private String bind(Map<String, Value> bindings, Object value, RDFProperty property) throws RDFBeanException {
+		String var = "_c" + bindings.size();
+		bindings.put(var, toRdf(value, property));
+		return "?" + var;
+	}
+
+	private Value toRdf(Object value, RDFProperty property) throws RDFBeanException {
+		if (value instanceof Value) {
+			return (Value) value;
+		}
+		Codec<Object> codec = property != null ? property.getCodec() : null;
+		if ((codec != null) && codec.getJavaClass().isInstance(value)) {
+			return codec.encode(value, SimpleValueFactory.getInstance());
+		}
+		ValueFactory vf = SimpleValueFactory.getInstance();
+		if (value instanceof java.net.URI) {
+			return vf.createIRI(value.toString());
+		}
+		if (RDFBeanInfo.isRdfBean(value)) {
+			SubjectProperty sp = RDFBeanInfo.get(value.getClass()).getSubjectProperty();
+			Object subject = sp != null ? sp.getValue(value) : null;
+			if (subject == null) {
+				throw new RDFBeanException("Anonymous RDFBean cannot be used as a query value: " + value);
+			}
+			return (IRI) subject;
+		}
+		Literal l = context.getDatatypeMapper().getRDFValue(value, vf);
+		if ((l == null) && (value instanceof Enum)) {
+			// enums not handled by the DatatypeMapper
+			return RDFEnumInfo.get(value.getClass()).getValue((Enum<?>) value);
+		}
+		if (l == null) {
+			throw new RDFBeanException(
+					"Unsupported class [" + value.getClass().getName() + "] of query value " + value);
+		}
+		return l;
+	}
+
+	/**
+	 * Resolves a dotted path of JavaBean property names to a SPARQL property
+	 * path.
+	 */
+	private String resolvePath(String path) throws RDFBeanException {
+		return resolvePath(path, null);
+	}
+
+	/**
+	 * Resolves a dotted path of JavaBean property names to sort by. An object
+	 * with several values of a multi-valued (Collection or array) property
+	 * would have no single sort key, so such paths are rejected.
+	 */
+	private String resolveSortPath(String path) throws RDFBeanException {
+		List<RDFProperty> properties = new ArrayList<>();
+		String resolved = resolvePath(path, properties);
+		for (RDFProperty p : properties) {
+			Class<?> type = p.getPropertyType();
+			if (type.isArray() || Collection.class.isAssignableFrom(type)) {
+				throw new RDFBeanException("Cannot sort by multi-valued property '"
+						+ p.getPropertyDescriptor().getName() + "' in path '" + path + "'");
+			}
+		}
+		return resolved;
+	}
+
+	/**
+	 * Resolves a dotted path of JavaBean property names to a SPARQL property
+	 * path and collects the properties of the path into the given list, if
+	 * not null.
+	 */
+	private String resolvePath(String path, List<RDFProperty> properties) throws RDFBeanException {
+		StringBuilder sb = new StringBuilder();
+		RDFBeanInfo current = rbi;
+		String[] names = path.split("\\.");
+		for (int i = 0; i < names.length; i++) {
+			RDFProperty p = current.getProperty(names[i]);
+			if (p == null) {
+				throw new RDFBeanException("No RDF property '" + names[i] + "' in class "
+						+ current.getRDFBeanClass().getName());
+			}
+			if (p.getContainerType() != ContainerType.NONE) {
+				throw new RDFBeanException("RDF container property '" + names[i] + "' of class "
+						+ current.getRDFBeanClass().getName() + " cannot be queried");
+			}
+			if (properties != null) {
+				properties.add(p);
+			}
+			if (i > 0) {
+				sb.append('/');
+			}
+			if (p.isInversionOfProperty()) {
+				sb.append('^');
+			}
+			sb.append('<').append(p.getUri()).append('>');
+			if (i < names.length - 1) {
+				Class<?> type = p.getPropertyComponentType();
+				if (type == null) {
+					type = p.getPropertyType();
+				}
+				if (!RDFBeanInfo.isRdfBeanClass(type)) {
+					throw new RDFBeanException("Property '" + names[i] + "' of class "
+							+ current.getRDFBeanClass().getName() + " is not of an RDFBean type");
+				}
+				current = RDFBeanInfo.get(type);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Position after the last object of a page, encoded in an opaque
+	 * continuation token.
+	 */
+	private static class Keyset {
+		private static final char SEPARATOR = '\u0000';
+
+		final String subject;
+		final Value value;
+
+		Keyset(String subject, Value value) {
+			this.subject = subject;
+			this.value = value;
+		}
+
+		String encode(String sortPath) {
+			StringBuilder sb = new StringBuilder();
+			sb.append(sortPath != null ? sortPath : "").append(SEPARATOR).append(subject);
+			if (value != null) {
+				sb.append(SEPARATOR);
+				if (value instanceof Literal) {
+					Literal l = (Literal) value;
+					sb.append('L').append(SEPARATOR).append(l.getLabel()).append(SEPARATOR);
+					if (l.getLanguage().isPresent()) {
+						sb.append('@').append(l.getLanguage().get());
+					} else {
+						sb.append(l.getDatatype());
+					}
+				} else {
+					sb.append('I').append(SEPARATOR).append(value.stringValue());
+				}
+			}
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+		}
+
+		static Keyset decode(String token, String sortPath) throws RDFBeanException {
+			String[] parts;
+			try {
+				parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+						.split(String.valueOf(SEPARATOR), -1);
+			} catch (IllegalArgumentException e) {
+				throw new RDFBeanException("Invalid continuation token", e);
+			}
+			String expectedPath = sortPath != null ? sortPath : "";
+			if (parts.length < 2 || !parts[0].equals(expectedPath)) {
+				throw new RDFBeanException("Continuation token does not belong to this ordering");
+			}
+			ValueFactory vf = SimpleValueFactory.getInstance();
+			if (sortPath == null) {
+				return new Keyset(parts[1], null);
+			}
+			if (parts.length == 4 && parts[2].equals("I")) {
+				return new Keyset(parts[1], vf.createIRI(parts[3]));
+			}
+			if (parts.length == 5 && parts[2].equals("L")) {
+				String type = parts[4];
+				Literal l = type.startsWith("@") ? vf.createLiteral(parts[3], type.substring(1))
+						: vf.createLiteral(parts[3], vf.createIRI(type));
+				return new Keyset(parts[1], l);
+			}
+			throw new RDFBeanException("Invalid continuation token");
+		}
+	}
+
+	private static class Condition {
+		final String path;
+		final RDFProperty property;
+		final Criterion criterion;
+
+		Condition(String path, RDFProperty property, Criterion criterion) {
+			this.path = path;
+			this.property = property;
+			this.criterion = criterion;
+		}
+	}
+
+	private static class Order {
+		final String path;
+		final boolean descending;
+		String var;
+
+		Order(String path, boolean descending) {
+			this.path = path;
+			this.descending = descending;
+		}
+	}
+
+}
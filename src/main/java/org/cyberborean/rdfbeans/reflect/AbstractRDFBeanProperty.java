@@ -16,25 +16,44 @@ import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
 public abstract class AbstractRDFBeanProperty {
 
 	protected PropertyDescriptor propertyDescriptor;
+	private RDFBeanMetadata accessor;
+	private int accessorIndex;
 
 	public AbstractRDFBeanProperty(PropertyDescriptor propertyDescriptor) {
 		this.propertyDescriptor = propertyDescriptor;
 	}
 
+	/**
+	 * Binds the generated accessors of the property, which are used instead of
+	 * the reflective calls of the getter and setter methods.
+	 */
+	void setAccessor(RDFBeanMetadata accessor, int index) {
+		this.accessor = accessor;
+		this.accessorIndex = index;
+	}
+
 	public Object getValue(Object rdfBean) throws RDFBeanException {
+		Object value = getRawValue(rdfBean);
+		if ((value != null) && value.getClass().isArray()) {
+			// wrap array into the List
+			ArrayList list = new ArrayList(Array.getLength(value));
+			for (int i = 0; i < Array.getLength(value); i++) {
+				list.add(Array.get(value, i));
+			}
+			value = list;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the property value as returned by the getter, without
+	 * wrapping arrays into Lists.
+	 */
+	public Object getRawValue(Object rdfBean) throws RDFBeanException {
 		Method getter = propertyDescriptor.getReadMethod();
 		if (getter != null) {
 			try {
-				Object value = getter.invoke(rdfBean);
-				if ((value != null) && value.getClass().isArray()) {
-					// wrap array into the List
-					ArrayList list = new ArrayList(Array.getLength(value));
-					for (int i = 0; i < Array.getLength(value); i++) {
-						list.add(Array.get(value, i));
-					}
-					value = list;
-				}
-				return value;
+				return accessor != null ? accessor.getValue(rdfBean, accessorIndex) : getter.invoke(rdfBean);
 			} catch (IllegalArgumentException ex) {
 				throw new RDFBeanException("No method "
 						+ rdfBean.getClass().getName() + "." + getter.getName()
@@ -45,6 +64,11 @@ public abstract class AbstractRDFBeanProperty {
 						+ " is inaccessible", ex);
 			} catch (InvocationTargetException ex) {
 				throw new RDFBeanException(ex);
+			} catch (RDFBeanException ex) {
+				throw ex;
+			} catch (Exception ex) {
+				// thrown by a generated accessor
+				throw new RDFBeanException(ex);
 			}
 		}
 		throw new RDFBeanException(
@@ -75,7 +99,12 @@ public abstract class AbstractRDFBeanProperty {
 					}
 					v = array;
 				}
-				setter.invoke(rdfBean, v);
+				if (accessor != null) {
+					accessor.setValue(rdfBean, accessorIndex, v);
+				}
+				else {
+					setter.invoke(rdfBean, v);
+				}
 			} catch (IllegalArgumentException ex) {
 				throw new RDFBeanException("No method "
 						+ rdfBean.getClass().getName() + "." + setter.getName()
@@ -87,6 +116,11 @@ public abstract class AbstractRDFBeanProperty {
 						ex);
 			} catch (InvocationTargetException ex) {
 				throw new RDFBeanException(ex);
+			} catch (RDFBeanException ex) {
+				throw ex;
+			} catch (Exception ex) {
+				// thrown by a generated accessor
+				throw new RDFBeanException(ex);
 			}
 		} else {
 			throw new RDFBeanException(
@@ -115,7 +149,7 @@ public abstract class AbstractRDFBeanProperty {
 				if (returnType instanceof ParameterizedType){
 				    ParameterizedType type = (ParameterizedType) returnType;
 				    Type[] typeArguments = type.getActualTypeArguments();
-				    if (typeArguments.length > 0) {
+				    if ((typeArguments.length > 0) && (typeArguments[0] instanceof Class)) {
 				    	return (Class<?>) typeArguments[0];
 				    }
 				}
@@ -0,0 +1,342 @@
+package org.cyberborean.rdfbeans.reflect;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import org.cyberborean.rdfbeans.annotations.RDFContainer.ContainerType;
+
+/**
+ * Resolved RDFBean metadata of a set of classes, stored in a file to skip the
+ * introspection of the classes on the next start.
+ *
+ * For every class, the snapshot stores the annotated properties with their
+ * accessor method names and annotation values, the namespace declarations and
+ * the RDF type, together with a checksum of the class files of the class, its
+ * superclasses and interfaces and their <code>package-info</code> classes. An
+ * entry is only used if the checksum still matches the loaded classes, so a
+ * recompiled class is introspected again (and its entry is replaced).
+ *
+ * A snapshot is installed with
+ * {@link RDFBeanInfo#setMetadataSnapshot(MetadataSnapshot)}, usually by
+ * {@link RDFBeanInfo#setMetadataSnapshotFile(Path)}.
+ */
+public class MetadataSnapshot {
+
+	private static final String MAGIC = "RDFBeans metadata snapshot";
+
+	/**
+	 * Version of the file format. Files of other versions are ignored.
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	private static final Map<String, Class<?>> primitiveTypes = new HashMap<>();
+
+	static {
+		for (Class<?> c : new Class<?>[] { boolean.class, byte.class, char.class, short.class, int.class,
+				long.class, float.class, double.class }) {
+			primitiveTypes.put(c.getName(), c);
+		}
+	}
+
+	/**
+	 * Snapshot of a single class.
+	 */
+	static class Entry {
+
+		private final long checksum;
+		private final String rdfType;
+		private final Map<String, String> namespaces;
+		private final List<String[]> properties;
+
+		Entry(long checksum, String rdfType, Map<String, String> namespaces, List<String[]> properties) {
+			this.checksum = checksum;
+			this.rdfType = rdfType;
+			this.namespaces = namespaces;
+			this.properties = properties;
+		}
+
+		String getRDFType() {
+			return rdfType;
+		}
+
+		Map<String, String> getNamespaces() {
+			return namespaces;
+		}
+
+		/**
+		 * @return the property metadata, or null if a property type cannot be
+		 *         loaded
+		 */
+		PropertyMetadata[] getProperties(ClassLoader classLoader) {
+			PropertyMetadata[] pms = new PropertyMetadata[properties.size()];
+			try {
+				for (int i = 0; i < pms.length; i++) {
+					String[] p = properties.get(i);
+					PropertyMetadata pm = PropertyMetadata.property(loadClass(p[0], classLoader), p[1],
+							loadClass(p[2], classLoader));
+					pm.getter(p[3]).setter(p[4]).indexedGetter(p[5]).indexedSetter(p[6]);
+					if (p[7] != null) {
+						pm.subject(p[7]);
+					}
+					if (p[8] != null) {
+						pm.rdf(p[8], p[9]);
+					}
+					if (p[10] != null) {
+						pm.container(ContainerType.valueOf(p[10]));
+					}
+					pms[i] = pm;
+				}
+			} catch (ClassNotFoundException | IllegalArgumentException e) {
+				return null;
+			}
+			return pms;
+		}
+
+	}
+
+	private static final int PROPERTY_FIELDS = 11;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private volatile boolean modified;
+
+	/**
+	 * Creates an empty snapshot.
+	 */
+	public MetadataSnapshot() {
+	}
+
+	/**
+	 * Reads a snapshot file.
+	 *
+	 * @param file
+	 *            the snapshot file
+	 * @return the snapshot, or an empty snapshot if the file does not exist or
+	 *         has been written in another format version
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	public static MetadataSnapshot read(Path file) throws IOException {
+		MetadataSnapshot snapshot = new MetadataSnapshot();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (!MAGIC.equals(in.readUTF()) || (in.readInt() != FORMAT_VERSION)) {
+				return snapshot;
+			}
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				String className = in.readUTF();
+				long checksum = in.readLong();
+				String rdfType = in.readUTF();
+				int nsCount = in.readInt();
+				Map<String, String> namespaces = new HashMap<>();
+				for (int j = 0; j < nsCount; j++) {
+					namespaces.put(in.readUTF(), in.readUTF());
+				}
+				int propertyCount = in.readInt();
+				List<String[]> properties = new ArrayList<>(propertyCount);
+				for (int j = 0; j < propertyCount; j++) {
+					String[] p = new String[PROPERTY_FIELDS];
+					for (int k = 0; k < PROPERTY_FIELDS; k++) {
+						p[k] = readString(in);
+					}
+					properties.add(p);
+				}
+				snapshot.entries.put(className, new Entry(checksum, rdfType, namespaces, properties));
+			}
+		} catch (NoSuchFileException e) {
+			// nothing saved yet
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Writes the snapshot to a file. The file is replaced atomically, where
+	 * supported by the file system.
+	 *
+	 * @param file
+	 *            the snapshot file
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		Path dir = file.toAbsolutePath().getParent();
+		Files.createDirectories(dir);
+		Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+		try {
+			modified = false;
+			Map<String, Entry> copy = new HashMap<>(entries);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				out.writeUTF(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(copy.size());
+				for (Map.Entry<String, Entry> me : copy.entrySet()) {
+					Entry e = me.getValue();
+					out.writeUTF(me.getKey());
+					out.writeLong(e.checksum);
+					out.writeUTF(e.rdfType);
+					out.writeInt(e.namespaces.size());
+					for (Map.Entry<String, String> ns : e.namespaces.entrySet()) {
+						out.writeUTF(ns.getKey());
+						out.writeUTF(ns.getValue());
+					}
+					out.writeInt(e.properties.size());
+					for (String[] p : e.properties) {
+						for (String s : p) {
+							writeString(out, s);
+						}
+					}
+				}
+			}
+			try {
+				Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			modified = true;
+			Files.deleteIfExists(tmp);
+			throw e;
+		}
+	}
+
+	/**
+	 * @return true if classes have been added to the snapshot since it was
+	 *         read or last written
+	 */
+	public boolean isModified() {
+		return modified;
+	}
+
+	/**
+	 * @return the number of classes in the snapshot
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the entry of the class, or null if the class is not in the
+	 *         snapshot or has changed since the entry was stored
+	 */
+	Entry get(Class<?> rdfBeanClass) {
+		Entry entry = entries.get(rdfBeanClass.getName());
+		if (entry == null) {
+			return null;
+		}
+		Long checksum = checksum(rdfBeanClass);
+		if ((checksum == null) || (checksum.longValue() != entry.checksum)) {
+			entries.remove(rdfBeanClass.getName(), entry);
+			modified = true;
+			return null;
+		}
+		return entry;
+	}
+
+	/**
+	 * Adds the metadata of an introspected class to the snapshot.
+	 */
+	void put(RDFBeanInfo rbi) {
+		Class<?> cls = rbi.getRDFBeanClass();
+		Long checksum = checksum(cls);
+		if ((checksum == null) || (rbi.getRDFType() == null)) {
+			return;
+		}
+		List<String[]> properties = new ArrayList<>();
+		for (PropertyMetadata pm : rbi.getPropertyMetadata()) {
+			properties.add(new String[] { pm.getDeclaringClass().getName(), pm.getName(), pm.getType().getName(),
+					pm.getGetterName(), pm.getSetterName(), pm.getIndexedGetterName(),
+					pm.getIndexedSetterName(), pm.getSubjectPrefix(), pm.getRDF(), pm.getInverseOf(),
+					pm.getContainer() != null ? pm.getContainer().name() : null });
+		}
+		entries.put(cls.getName(), new Entry(checksum, rbi.getRDFType().stringValue(),
+				new HashMap<>(rbi.getRDFNamespaces()), properties));
+		modified = true;
+	}
+
+	/**
+	 * Computes the checksum of the class files the metadata of a class is
+	 * read from.
+	 *
+	 * @return the checksum, or null if a class file cannot be read
+	 */
+	static Long checksum(Class<?> cls) {
+		Set<Class<?>> classes = new LinkedHashSet<>();
+		collectTypes(cls, classes);
+		CRC32 crc = new CRC32();
+		byte[] buf = new byte[8192];
+		for (Class<?> c : classes) {
+			if (c.getClassLoader() == null) {
+				// JDK classes
+				continue;
+			}
+			if (!update(crc, c, c.getName(), buf)) {
+				return null;
+			}
+			Package pkg = c.getPackage();
+			if (pkg != null) {
+				// package-info is optional
+				update(crc, c, pkg.getName() + ".package-info", buf);
+			}
+		}
+		return crc.getValue();
+	}
+
+	private static void collectTypes(Class<?> cls, Set<Class<?>> classes) {
+		if ((cls == null) || !classes.add(cls)) {
+			return;
+		}
+		collectTypes(cls.getSuperclass(), classes);
+		for (Class<?> i : cls.getInterfaces()) {
+			collectTypes(i, classes);
+		}
+	}
+
+	private static boolean update(CRC32 crc, Class<?> cls, String className, byte[] buf) {
+		String resource = className.replace('.', '/') + ".class";
+		try (InputStream in = cls.getClassLoader().getResourceAsStream(resource)) {
+			if (in == null) {
+				return false;
+			}
+			int n;
+			while ((n = in.read(buf)) > 0) {
+				crc.update(buf, 0, n);
+			}
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static Class<?> loadClass(String name, ClassLoader classLoader) throws ClassNotFoundException {
+		Class<?> c = primitiveTypes.get(name);
+		return c != null ? c : Class.forName(name, false, classLoader);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		out.writeBoolean(s != null);
+		if (s != null) {
+			out.writeUTF(s);
+		}
+	}
+
+}
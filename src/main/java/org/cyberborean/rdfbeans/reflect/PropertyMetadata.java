@@ -0,0 +1,211 @@
+package org.cyberborean.rdfbeans.reflect;
+
+import java.beans.IndexedPropertyDescriptor;
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+
+import org.cyberborean.rdfbeans.annotations.RDFContainer.ContainerType;
+
+/**
+ * Precomputed description of an annotated RDFBean property, as emitted in
+ * {@link RDFBeanMetadata} classes.
+ *
+ * The accessor methods are stored by name and resolved against the declaring
+ * class when the {@link PropertyDescriptor} is created, so that a metadata
+ * class compiled against an older version of the RDFBean class fails the
+ * lookup instead of binding to the wrong methods.
+ */
+public class PropertyMetadata {
+
+	private final Class<?> declaringClass;
+	private final String name;
+	private final Class<?> type;
+	private String getter;
+	private String setter;
+	private String indexedGetter;
+	private String indexedSetter;
+	private String subjectPrefix;
+	private String rdf;
+	private String inverseOf;
+	private ContainerType container;
+
+	private PropertyMetadata(Class<?> declaringClass, String name, Class<?> type) {
+		this.declaringClass = declaringClass;
+		this.name = name;
+		this.type = type;
+	}
+
+	/**
+	 * @param declaringClass
+	 *            the class or interface the property is introspected from
+	 * @param name
+	 *            JavaBean property name
+	 * @param type
+	 *            the property type (an array type for indexed properties)
+	 */
+	public static PropertyMetadata property(Class<?> declaringClass, String name, Class<?> type) {
+		return new PropertyMetadata(declaringClass, name, type);
+	}
+
+	public PropertyMetadata getter(String methodName) {
+		getter = methodName;
+		return this;
+	}
+
+	public PropertyMetadata setter(String methodName) {
+		setter = methodName;
+		return this;
+	}
+
+	public PropertyMetadata indexedGetter(String methodName) {
+		indexedGetter = methodName;
+		return this;
+	}
+
+	public PropertyMetadata indexedSetter(String methodName) {
+		indexedSetter = methodName;
+		return this;
+	}
+
+	/**
+	 * Marks the property as annotated with <code>@RDFSubject</code>.
+	 */
+	public PropertyMetadata subject(String prefix) {
+		subjectPrefix = prefix;
+		return this;
+	}
+
+	/**
+	 * Sets the parameters of the <code>@RDF</code> annotation of the property.
+	 */
+	public PropertyMetadata rdf(String value, String inverseOf) {
+		this.rdf = value;
+		this.inverseOf = inverseOf;
+		return this;
+	}
+
+	/**
+	 * Sets the value of the <code>@RDFContainer</code> annotation of the
+	 * property.
+	 */
+	public PropertyMetadata container(ContainerType container) {
+		this.container = container;
+		return this;
+	}
+
+	/**
+	 * Describes the accessor methods of an introspected property.
+	 */
+	static PropertyMetadata describe(Class<?> rdfBeanClass, PropertyDescriptor pd) {
+		Method method = pd.getReadMethod() != null ? pd.getReadMethod() : pd.getWriteMethod();
+		Class<?> type = pd.getPropertyType();
+		String indexedGetter = null;
+		String indexedSetter = null;
+		if (pd instanceof IndexedPropertyDescriptor) {
+			IndexedPropertyDescriptor ipd = (IndexedPropertyDescriptor) pd;
+			if (ipd.getIndexedReadMethod() != null) {
+				indexedGetter = ipd.getIndexedReadMethod().getName();
+				method = method != null ? method : ipd.getIndexedReadMethod();
+			}
+			if (ipd.getIndexedWriteMethod() != null) {
+				indexedSetter = ipd.getIndexedWriteMethod().getName();
+				method = method != null ? method : ipd.getIndexedWriteMethod();
+			}
+			if (type == null) {
+				type = Array.newInstance(ipd.getIndexedPropertyType(), 0).getClass();
+			}
+		}
+		// interface properties are introspected per interface
+		Class<?> declaringClass = rdfBeanClass.isInterface() ? method.getDeclaringClass() : rdfBeanClass;
+		PropertyMetadata pm = property(declaringClass, pd.getName(), type);
+		pm.getter = pd.getReadMethod() != null ? pd.getReadMethod().getName() : null;
+		pm.setter = pd.getWriteMethod() != null ? pd.getWriteMethod().getName() : null;
+		pm.indexedGetter = indexedGetter;
+		pm.indexedSetter = indexedSetter;
+		return pm;
+	}
+
+	public Class<?> getDeclaringClass() {
+		return declaringClass;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	public boolean hasGetter() {
+		return getter != null;
+	}
+
+	public boolean hasSetter() {
+		return setter != null;
+	}
+
+	public String getGetterName() {
+		return getter;
+	}
+
+	public String getSetterName() {
+		return setter;
+	}
+
+	public String getIndexedGetterName() {
+		return indexedGetter;
+	}
+
+	public String getIndexedSetterName() {
+		return indexedSetter;
+	}
+
+	public boolean isSubject() {
+		return subjectPrefix != null;
+	}
+
+	public String getSubjectPrefix() {
+		return subjectPrefix;
+	}
+
+	public boolean isRDF() {
+		return rdf != null;
+	}
+
+	public String getRDF() {
+		return rdf;
+	}
+
+	public String getInverseOf() {
+		return inverseOf;
+	}
+
+	public ContainerType getContainer() {
+		return container;
+	}
+
+	/**
+	 * Resolves the accessor methods of the property.
+	 *
+	 * @throws NoSuchMethodException
+	 *             if a method does not exist in the declaring class
+	 * @throws IntrospectionException
+	 *             if the methods do not form a valid property
+	 */
+	public PropertyDescriptor createPropertyDescriptor() throws NoSuchMethodException, IntrospectionException {
+		Method read = getter != null ? declaringClass.getMethod(getter) : null;
+		Method write = setter != null ? declaringClass.getMethod(setter, type) : null;
+		if ((indexedGetter != null) || (indexedSetter != null)) {
+			Class<?> componentType = type.getComponentType();
+			Method indexedRead = indexedGetter != null ? declaringClass.getMethod(indexedGetter, int.class) : null;
+			Method indexedWrite = indexedSetter != null
+					? declaringClass.getMethod(indexedSetter, int.class, componentType) : null;
+			return new IndexedPropertyDescriptor(name, read, write, indexedRead, indexedWrite);
+		}
+		return new PropertyDescriptor(name, read, write);
+	}
+
+}
@@ -0,0 +1,235 @@
+package org.cyberborean.rdfbeans.reflect;
+
+import java.beans.IndexedPropertyDescriptor;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Finds the JavaBean properties of RDFBean classes and interfaces without
+ * <code>java.beans.Introspector</code>.
+ *
+ * The properties are found as the Introspector finds them (only the public
+ * instance getters and setters are considered, events and method descriptors
+ * are not built). The properties of an interface are scanned once and shared
+ * by all its subinterfaces.
+ *
+ * Classes which are not public or have non-public superclasses are not
+ * scanned, because the Introspector resolves their methods to the methods of
+ * their public interfaces.
+ */
+public class PropertyScanner {
+
+	private static final PropertyDescriptor[] NO_PROPERTIES = new PropertyDescriptor[0];
+
+	/**
+	 * Properties declared by an interface (without its superinterfaces) or
+	 * found in a class hierarchy, or null if the type cannot be scanned.
+	 */
+	private static final ClassValue<PropertyDescriptor[]> cache = new ClassValue<PropertyDescriptor[]>() {
+
+		@Override
+		protected PropertyDescriptor[] computeValue(Class<?> type) {
+			try {
+				return scan(type);
+			} catch (IntrospectionException e) {
+				return null;
+			}
+		}
+	};
+
+	/**
+	 * Finds the JavaBean properties of a class or an interface.
+	 *
+	 * The properties of an interface include the properties of all its
+	 * superinterfaces, in the order of
+	 * {@link ReflectionUtil#getAllInterfaces(Class)}.
+	 *
+	 * @param type
+	 *            a class or an interface
+	 * @return the properties, or null if the type cannot be scanned and has
+	 *         to be introspected with <code>java.beans.Introspector</code>
+	 */
+	public static PropertyDescriptor[] getPropertyDescriptors(Class<?> type) {
+		PropertyDescriptor[] pds = cache.get(type);
+		if ((pds == null) || !type.isInterface()) {
+			return pds;
+		}
+		List<PropertyDescriptor> result = new ArrayList<>(Arrays.asList(pds));
+		for (Class<?> superIface : ReflectionUtil.getAllInterfaces(type)) {
+			PropertyDescriptor[] superPds = cache.get(superIface);
+			if (superPds == null) {
+				return null;
+			}
+			result.addAll(Arrays.asList(superPds));
+		}
+		return result.toArray(NO_PROPERTIES);
+	}
+
+	private static PropertyDescriptor[] scan(Class<?> type) throws IntrospectionException {
+		// the methods by signature, the most specific first
+		Map<String, Method> methods = new HashMap<>();
+		List<Method> ordered = new ArrayList<>();
+		if (type.isInterface()) {
+			if (!Modifier.isPublic(type.getModifiers())) {
+				return null;
+			}
+			addMethods(type, methods, ordered);
+		}
+		else {
+			for (Class<?> c = type; (c != null) && (c != Object.class); c = c.getSuperclass()) {
+				if (!Modifier.isPublic(c.getModifiers())) {
+					return null;
+				}
+				addMethods(c, methods, ordered);
+			}
+		}
+
+		Map<String, Property> properties = new TreeMap<>();
+		Map<String, List<Method>> setters = new TreeMap<>();
+		for (Method m : ordered) {
+			String name = m.getName();
+			Class<?>[] params = m.getParameterTypes();
+			Class<?> returnType = m.getReturnType();
+			if (name.startsWith("get") && (name.length() > 3) && (returnType != void.class)) {
+				if (params.length == 0) {
+					Property p = property(properties, name.substring(3));
+					if (p.getter == null) {
+						p.getter = m;
+					}
+				}
+				else if ((params.length == 1) && (params[0] == int.class)) {
+					property(properties, name.substring(3)).indexedGetter = m;
+				}
+			}
+			else if (name.startsWith("is") && (name.length() > 2) && (params.length == 0)
+					&& (returnType == boolean.class)) {
+				// is<Property>() takes precedence over get<Property>()
+				property(properties, name.substring(2)).getter = m;
+			}
+			else if (name.startsWith("set") && (name.length() > 3) && (returnType == void.class)) {
+				if (params.length == 1) {
+					Property p = property(properties, name.substring(3));
+					List<Method> candidates = setters.get(p.name);
+					if (candidates == null) {
+						candidates = new ArrayList<>();
+						setters.put(p.name, candidates);
+					}
+					candidates.add(m);
+				}
+				else if ((params.length == 2) && (params[0] == int.class)) {
+					property(properties, name.substring(3)).indexedSetter = m;
+				}
+			}
+		}
+
+		List<PropertyDescriptor> result = new ArrayList<>(properties.size());
+		for (Property p : properties.values()) {
+			PropertyDescriptor pd = p.createPropertyDescriptor(setters.get(p.name));
+			if (pd != null) {
+				result.add(pd);
+			}
+		}
+		return result.toArray(NO_PROPERTIES);
+	}
+
+	private static void addMethods(Class<?> c, Map<String, Method> methods, List<Method> ordered) {
+		for (Method m : c.getDeclaredMethods()) {
+			int modifiers = m.getModifiers();
+			if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || m.isBridge() || m.isSynthetic()) {
+				continue;
+			}
+			String signature = signature(m);
+			if (!methods.containsKey(signature)) {
+				// not overridden in a subclass
+				methods.put(signature, m);
+				ordered.add(m);
+			}
+		}
+	}
+
+	private static String signature(Method m) {
+		StringBuilder sb = new StringBuilder(m.getName());
+		for (Class<?> param : m.getParameterTypes()) {
+			sb.append(',').append(param.getName());
+		}
+		return sb.toString();
+	}
+
+	private static Property property(Map<String, Property> properties, String baseName) {
+		String name = Introspector.decapitalize(baseName);
+		Property p = properties.get(name);
+		if (p == null) {
+			p = new Property(name);
+			properties.put(name, p);
+		}
+		return p;
+	}
+
+	private static class Property {
+
+		final String name;
+		Method getter;
+		Method indexedGetter;
+		Method indexedSetter;
+
+		Property(String name) {
+			this.name = name;
+		}
+
+		PropertyDescriptor createPropertyDescriptor(List<Method> setterCandidates) throws IntrospectionException {
+			Class<?> type = null;
+			Method setter = null;
+			if (getter != null) {
+				type = getter.getReturnType();
+				if (setterCandidates != null) {
+					for (Method m : setterCandidates) {
+						if (m.getParameterTypes()[0] == type) {
+							setter = m;
+							break;
+						}
+					}
+				}
+			}
+			else if (setterCandidates != null) {
+				setter = setterCandidates.get(0);
+				type = setter.getParameterTypes()[0];
+			}
+
+			Class<?> indexedType = null;
+			if (indexedGetter != null) {
+				indexedType = indexedGetter.getReturnType();
+			}
+			else if (indexedSetter != null) {
+				indexedType = indexedSetter.getParameterTypes()[1];
+			}
+			Method iread = indexedGetter;
+			Method iwrite = indexedSetter;
+			if ((iwrite != null) && (iwrite.getParameterTypes()[1] != indexedType)) {
+				iwrite = null;
+			}
+			if ((indexedType != null) && (type != null)
+					&& (!type.isArray() || (type.getComponentType() != indexedType))) {
+				iread = null;
+				iwrite = null;
+			}
+			if ((iread != null) || (iwrite != null)) {
+				return new IndexedPropertyDescriptor(name, getter, setter, iread, iwrite);
+			}
+			if (type == null) {
+				return null;
+			}
+			return new PropertyDescriptor(name, getter, setter);
+		}
+
+	}
+
+}
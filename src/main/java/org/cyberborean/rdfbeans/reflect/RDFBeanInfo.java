@@ -10,16 +10,18 @@ import java.beans.Introspector;
 import java.beans.MethodDescriptor;
 import java.beans.PropertyDescriptor;
 import java.beans.SimpleBeanInfo;
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
 
 import org.cyberborean.rdfbeans.annotations.RDF;
 import org.cyberborean.rdfbeans.annotations.RDFBean;
@@ -29,92 +31,328 @@ import org.cyberborean.rdfbeans.annotations.RDFSubject;
 import org.cyberborean.rdfbeans.exceptions.RDFBeanValidationException;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class RDFBeanInfo {
 	
-	private static WeakHashMap<Class, RDFBeanInfo> rdfBeanInfoCache = new WeakHashMap<Class, RDFBeanInfo>();
-	
-	public static synchronized RDFBeanInfo get(Class rdfBeanClass)
+	/**
+	 * System property to disable loading of the generated
+	 * {@link RDFBeanMetadata} classes (if set to <code>false</code>).
+	 */
+	public static final String GENERATED_METADATA_PROPERTY = "rdfbeans.generatedMetadata";
+
+	private static final boolean useGeneratedMetadata = !"false".equalsIgnoreCase(System.getProperty(GENERATED_METADATA_PROPERTY));
+
+	/**
+	 * System property to introspect the RDFBean classes with
+	 * <code>java.beans.Introspector</code> instead of {@link PropertyScanner}
+	 * (if set to <code>true</code>).
+	 */
+	public static final String INTROSPECTOR_PROPERTY = "rdfbeans.introspector";
+
+	private static final boolean useIntrospector = Boolean.getBoolean(INTROSPECTOR_PROPERTY);
+
+	private static final Logger log = LoggerFactory.getLogger(RDFBeanInfo.class);
+
+	/**
+	 * Metadata is attached to the classes themselves, so lookups of known
+	 * classes take no locks and do not prevent class unloading. Concurrent
+	 * first-time lookups of a class may introspect it more than once, but
+	 * only one instance is ever published.
+	 */
+	private static final ClassValue<RDFBeanInfo> rdfBeanInfoCache = new ClassValue<RDFBeanInfo>() {
+
+		@Override
+		protected RDFBeanInfo computeValue(Class<?> rdfBeanClass) {
+			return create(rdfBeanClass);
+		}
+	};
+
+	public static RDFBeanInfo get(Class rdfBeanClass)
 			throws RDFBeanValidationException {
-		RDFBeanInfo rbi = rdfBeanInfoCache.get(rdfBeanClass);
-		if (rbi == null) {
-			try {
-				rbi = new RDFBeanInfo(rdfBeanClass);
-				rdfBeanInfoCache.put(rdfBeanClass, rbi);
-			} catch (IntrospectionException e) {
-				throw new RDFBeanValidationException(rdfBeanClass, e);
+		return rdfBeanInfoCache.get(rdfBeanClass);
+	}
+
+	private static volatile MetadataSnapshot metadataSnapshot;
+	private static Path metadataSnapshotFile;
+
+	private static RDFBeanInfo create(Class rdfBeanClass) throws RDFBeanValidationException {
+		try {
+			RDFBeanMetadata metadata = getGeneratedMetadata(rdfBeanClass);
+			if (metadata != null) {
+				PropertyMetadata[] pms = metadata.getProperties();
+				PropertyDescriptor[] pds = createPropertyDescriptors(rdfBeanClass, pms);
+				if (pds != null) {
+					return new RDFBeanInfo(rdfBeanClass, pms, pds, metadata, null, null);
+				}
 			}
+			MetadataSnapshot snapshot = metadataSnapshot;
+			if (snapshot != null) {
+				MetadataSnapshot.Entry entry = snapshot.get(rdfBeanClass);
+				if (entry != null) {
+					PropertyMetadata[] pms = entry.getProperties(rdfBeanClass.getClassLoader());
+					PropertyDescriptor[] pds = pms != null ? createPropertyDescriptors(rdfBeanClass, pms) : null;
+					if (pds != null) {
+						return new RDFBeanInfo(rdfBeanClass, pms, pds, null, entry.getNamespaces(), entry.getRDFType());
+					}
+				}
+			}
+			RDFBeanInfo rbi = new RDFBeanInfo(rdfBeanClass);
+			if (snapshot != null) {
+				snapshot.put(rbi);
+			}
+			return rbi;
+		} catch (IntrospectionException e) {
+			throw new RDFBeanValidationException(rdfBeanClass, e);
+		}
+	}
+
+	/**
+	 * Sets the snapshot of RDFBean metadata to build the RDFBeanInfo of the
+	 * classes from, instead of introspecting them. The metadata of the
+	 * classes introspected afterwards is added to the snapshot.
+	 * 
+	 * RDFBeanInfo instances are cached per class, so the snapshot only
+	 * applies to the classes which have not been used yet.
+	 *
+	 * @param snapshot
+	 *            the snapshot, or null to stop using it
+	 * @see #setMetadataSnapshotFile(Path)
+	 */
+	public static synchronized void setMetadataSnapshot(MetadataSnapshot snapshot) {
+		metadataSnapshot = snapshot;
+		metadataSnapshotFile = null;
+	}
+
+	public static MetadataSnapshot getMetadataSnapshot() {
+		return metadataSnapshot;
+	}
+
+	/**
+	 * Loads the RDFBean metadata snapshot from the given file and installs it
+	 * with {@link #setMetadataSnapshot(MetadataSnapshot)}. The snapshot is
+	 * not saved automatically: the application writes it back to the file
+	 * with {@link #saveMetadataSnapshot()}, e.g. on shutdown.
+	 * 
+	 * The snapshot is global and used by all RDFBeanManager instances in the
+	 * JVM, so only one snapshot file can be used at a time: setting the file
+	 * that is already in use has no effect, and setting a different one
+	 * fails.
+	 *
+	 * @param file
+	 *            the snapshot file; it is created if it does not exist
+	 * @throws IOException
+	 *             if the file cannot be read
+	 * @throws IllegalStateException
+	 *             if a different snapshot file is already in use
+	 */
+	public static synchronized void setMetadataSnapshotFile(Path file) throws IOException {
+		Path path = file.toAbsolutePath().normalize();
+		if (metadataSnapshotFile != null) {
+			if (metadataSnapshotFile.equals(path)) {
+				return;
+			}
+			throw new IllegalStateException("RDFBean metadata snapshot file is already set to "
+					+ metadataSnapshotFile);
+		}
+		metadataSnapshot = MetadataSnapshot.read(path);
+		metadataSnapshotFile = path;
+	}
+
+	/**
+	 * @return the snapshot file set with {@link #setMetadataSnapshotFile(Path)},
+	 *         or null
+	 */
+	public static synchronized Path getMetadataSnapshotFile() {
+		return metadataSnapshotFile;
+	}
+
+	/**
+	 * Writes the RDFBean metadata snapshot to the file set with
+	 * {@link #setMetadataSnapshotFile(Path)}, if new classes have been added
+	 * to it.
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public static synchronized void saveMetadataSnapshot() throws IOException {
+		MetadataSnapshot snapshot = metadataSnapshot;
+		if ((metadataSnapshotFile != null) && (snapshot != null) && snapshot.isModified()) {
+			snapshot.write(metadataSnapshotFile);
+		}
+	}
+
+	/**
+	 * Loads the build-time generated metadata of an RDFBean class.
+	 *
+	 * @param rdfBeanClass
+	 * @return an instance of the generated {@link RDFBeanMetadata} class, or
+	 *         null if there is no such class or loading of generated
+	 *         metadata is disabled
+	 */
+	public static RDFBeanMetadata getGeneratedMetadata(Class rdfBeanClass) {
+		if (!useGeneratedMetadata) {
+			return null;
+		}
+		try {
+			Class<?> metadataClass = Class.forName(rdfBeanClass.getName() + RDFBeanMetadata.CLASS_NAME_SUFFIX, true,
+					rdfBeanClass.getClassLoader());
+			return (RDFBeanMetadata) metadataClass.getDeclaredConstructor().newInstance();
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+			log.warn("Cannot load generated metadata of " + rdfBeanClass.getName() + ", using reflection", e);
+			return null;
+		}
+	}
+
+	private static PropertyDescriptor[] createPropertyDescriptors(Class rdfBeanClass, PropertyMetadata[] properties) {
+		PropertyDescriptor[] pds = new PropertyDescriptor[properties.length];
+		try {
+			for (int i = 0; i < properties.length; i++) {
+				pds[i] = properties[i].createPropertyDescriptor();
+			}
+			return pds;
+		} catch (NoSuchMethodException | IntrospectionException e) {
+			// the metadata is out of date
+			log.warn("Metadata of " + rdfBeanClass.getName() + " does not match the class, using reflection", e);
+			return null;
 		}
-		return rbi;
 	}
 
 	public static boolean isRdfBean(Object object) {
-		return isRdfBeanClass(object.getClass());
+		return ValueKind.of(object) == ValueKind.RDFBEAN;
 	}
 
 	public static boolean isRdfBeanClass(Class cls) {
-		return ReflectionUtil.getClassAnnotation(cls, RDFBean.class) != null;
+		return ValueKind.of(cls) == ValueKind.RDFBEAN;
 	}
 
 	private Class rdfBeanClass;
 	private BeanInfo beanInfo;
 	private SubjectProperty subjectProperty = null;
 	private Map<IRI, RDFProperty> properties = new HashMap<>();
+	private Map<String, RDFProperty> propertiesByName = new HashMap<>();
 	private Map<Method, RDFProperty> propertiesByGetter = new HashMap<Method, RDFProperty>();	
 	private Map<Method, RDFProperty> propertiesBySetter = new HashMap<Method, RDFProperty>();
 	private Map<String, String> namespaces = new HashMap<String, String>();
 	private IRI rdfType;
+	private List<PropertyMetadata> propertyMetadata = new ArrayList<>();
 
 	private RDFBeanInfo(Class rdfBeanClass) throws RDFBeanValidationException,
 			IntrospectionException {
 		this.rdfBeanClass = rdfBeanClass;
-		beanInfo = Introspector.getBeanInfo(rdfBeanClass);
-		if (rdfBeanClass.isInterface()) {
-			beanInfo = new InterfaceBeanInfo(rdfBeanClass, beanInfo);
+		PropertyDescriptor[] pds = useIntrospector ? null : PropertyScanner.getPropertyDescriptors(rdfBeanClass);
+		if (pds != null) {
+			beanInfo = new GeneratedBeanInfo(pds);
+		}
+		else {
+			beanInfo = Introspector.getBeanInfo(rdfBeanClass);
+			if (rdfBeanClass.isInterface()) {
+				beanInfo = new InterfaceBeanInfo(rdfBeanClass, beanInfo);
+			}
 		}
 		introspect();
 	}
 
+	/**
+	 * Builds the RDFBeanInfo from precomputed metadata.
+	 * 
+	 * @param accessors
+	 *            generated accessors of the properties, or null to use
+	 *            reflection
+	 * @param namespaces
+	 *            resolved namespace declarations, or null to read them from
+	 *            the annotations
+	 * @param rdfType
+	 *            resolved RDF type, or null to read it from the annotations
+	 */
+	private RDFBeanInfo(Class rdfBeanClass, PropertyMetadata[] pms, PropertyDescriptor[] pds,
+			RDFBeanMetadata accessors, Map<String, String> namespaces, String rdfType)
+			throws RDFBeanValidationException {
+		this.rdfBeanClass = rdfBeanClass;
+		beanInfo = new GeneratedBeanInfo(pds);
+		if ((namespaces != null) && (rdfType != null)) {
+			this.namespaces.putAll(namespaces);
+			this.rdfType = SimpleValueFactory.getInstance().createIRI(rdfType);
+		}
+		else {
+			initNamespaces();
+			initBeanType();
+		}
+		for (int i = 0; i < pms.length; i++) {
+			PropertyMetadata pm = pms[i];
+			if (pm.isSubject() && (subjectProperty == null)) {
+				subjectProperty = new SubjectProperty(pds[i], this, pm.getSubjectPrefix());
+				if (accessors != null) {
+					subjectProperty.setAccessor(accessors, i);
+				}
+			}
+			if (pm.isRDF()) {
+				RDFProperty p = new RDFProperty(pds[i], this, pm.getRDF(), pm.getInverseOf(), pm.getContainer());
+				if (accessors != null) {
+					p.setAccessor(accessors, i);
+				}
+				addProperty(p);
+			}
+			propertyMetadata.add(pm);
+		}
+	}
+
 	private void introspect() throws RDFBeanValidationException {
 		initNamespaces();
 		initBeanType();
 		for (PropertyDescriptor pd : beanInfo.getPropertyDescriptors()) {
-			checkSubjectProperty(pd);
+			RDFSubject subject = checkAnnotation(pd, RDFSubject.class);
+			if ((subject != null) && (subjectProperty == null)) {
+				subjectProperty = new SubjectProperty(pd, this, subject);
+			}
 			RDF annotation = checkAnnotation(pd, RDF.class);
+			RDFContainer container = null;
 			if (annotation != null) {
-				RDFContainer container = checkAnnotation(pd, RDFContainer.class);
-				RDFProperty p = new RDFProperty(pd, this, annotation, container);
-				Method getter = pd.getReadMethod();
-				if (getter != null) {
-					propertiesByGetter.put(getter, p);
-				}
-				Method setter = pd.getWriteMethod();
-				if (setter != null) {
-					propertiesBySetter.put(setter, p);
+				container = checkAnnotation(pd, RDFContainer.class);
+				addProperty(new RDFProperty(pd, this, annotation, container));
+			}
+			if ((subject != null) || (annotation != null)) {
+				PropertyMetadata pm = PropertyMetadata.describe(rdfBeanClass, pd);
+				if (subject != null) {
+					pm.subject(subject.prefix());
 				}
-				if (pd instanceof IndexedPropertyDescriptor) {
-					IndexedPropertyDescriptor ipd = ((IndexedPropertyDescriptor)pd);
-					Method igetter = ipd.getIndexedReadMethod();
-					if (igetter != null) {
-						propertiesByGetter.put(igetter, p);
-					}
-					Method isetter = ipd.getIndexedWriteMethod();
-					if (isetter != null) {
-						propertiesBySetter.put(isetter, p);
+				if (annotation != null) {
+					pm.rdf(annotation.value(), annotation.inverseOf());
+					if (container != null) {
+						pm.container(container.value());
 					}
 				}
-				properties.put(p.getUri(), p);
+				propertyMetadata.add(pm);
 			}
 		}
 	}
 
-	private void checkSubjectProperty(PropertyDescriptor pd) throws RDFBeanValidationException {
-		RDFSubject annotation = checkAnnotation(pd, RDFSubject.class);
-		if (annotation != null) {
-			if (subjectProperty == null) {
-				subjectProperty = new SubjectProperty(pd, this, annotation);
+	private void addProperty(RDFProperty p) {
+		PropertyDescriptor pd = p.getPropertyDescriptor();
+		Method getter = pd.getReadMethod();
+		if (getter != null) {
+			propertiesByGetter.put(getter, p);
+		}
+		Method setter = pd.getWriteMethod();
+		if (setter != null) {
+			propertiesBySetter.put(setter, p);
+		}
+		if (pd instanceof IndexedPropertyDescriptor) {
+			IndexedPropertyDescriptor ipd = ((IndexedPropertyDescriptor)pd);
+			Method igetter = ipd.getIndexedReadMethod();
+			if (igetter != null) {
+				propertiesByGetter.put(igetter, p);
+			}
+			Method isetter = ipd.getIndexedWriteMethod();
+			if (isetter != null) {
+				propertiesBySetter.put(isetter, p);
 			}
 		}
+		properties.put(p.getUri(), p);
+		propertiesByName.put(pd.getName(), p);
 	}
 
 	private <T extends Annotation> T checkAnnotation(PropertyDescriptor pd, Class<T> theClass) {
@@ -216,7 +454,10 @@ public class RDFBeanInfo {
 	}
 	
 	/**
-	 * @return the beanInfo
+	 * @return the beanInfo (if the class is described by generated
+	 *         {@link RDFBeanMetadata}, only the annotated properties are
+	 *         included; if it is scanned by {@link PropertyScanner}, only the
+	 *         properties are included)
 	 */
 	public BeanInfo getBeanInfo() {
 		return beanInfo;
@@ -240,6 +481,15 @@ public class RDFBeanInfo {
 		return properties.get(uri);
 	}
 
+	/**
+	 * @param name
+	 *            JavaBean property name
+	 * @return the RDF property with the given name, or null
+	 */
+	public RDFProperty getProperty(String name) {
+		return propertiesByName.get(name);
+	}
+
 	public IRI getRDFType() {
 		return rdfType;
 	}
@@ -256,7 +506,34 @@ public class RDFBeanInfo {
 		return namespaces;
 	}
 
+	/**
+	 * @return descriptions of all annotated properties of the class (in the
+	 *         order of introspection)
+	 */
+	public List<PropertyMetadata> getPropertyMetadata() {
+		return Collections.unmodifiableList(propertyMetadata);
+	}
+
 	
+	/**
+	 * BeanInfo of the properties described by generated metadata or found by
+	 * {@link PropertyScanner}.
+	 */
+	static class GeneratedBeanInfo extends SimpleBeanInfo {
+
+		private PropertyDescriptor[] properties;
+
+		GeneratedBeanInfo(PropertyDescriptor[] properties) {
+			this.properties = properties;
+		}
+
+		@Override
+		public PropertyDescriptor[] getPropertyDescriptors() {
+			return properties;
+		}
+
+	}
+
 	/**
 	 * InterfaceBeanInfo.
 	 *
@@ -0,0 +1,47 @@
+package org.cyberborean.rdfbeans.reflect;
+
+/**
+ * Precomputed RDFBean property metadata with direct property accessors.
+ *
+ * Implementations are generated at build time by
+ * {@link org.cyberborean.rdfbeans.processor.RDFBeanProcessor} as public
+ * classes named after the binary name of the RDFBean class with the
+ * {@value #CLASS_NAME_SUFFIX} suffix (e.g. <code>Person_RDFBeanMetadata</code>
+ * for <code>Person</code>). {@link RDFBeanInfo#get(Class)} loads them when
+ * present instead of introspecting the class with
+ * <code>java.beans.Introspector</code> and falls back to reflection
+ * otherwise.
+ */
+public interface RDFBeanMetadata {
+
+	String CLASS_NAME_SUFFIX = "_RDFBeanMetadata";
+
+	/**
+	 * @return the bean properties annotated with RDFBeans annotations
+	 */
+	PropertyMetadata[] getProperties();
+
+	/**
+	 * Calls the getter of a property.
+	 *
+	 * @param bean
+	 *            the RDFBean object
+	 * @param index
+	 *            the index of the property in {@link #getProperties()}
+	 * @return the property value
+	 */
+	Object getValue(Object bean, int index) throws Exception;
+
+	/**
+	 * Calls the setter of a property.
+	 *
+	 * @param bean
+	 *            the RDFBean object
+	 * @param index
+	 *            the index of the property in {@link #getProperties()}
+	 * @param value
+	 *            the property value
+	 */
+	void setValue(Object bean, int index, Object value) throws Exception;
+
+}
@@ -0,0 +1,117 @@
+package org.cyberborean.rdfbeans.reflect;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.cyberborean.rdfbeans.annotations.RDF;
+import org.cyberborean.rdfbeans.annotations.RDFEnum;
+import org.cyberborean.rdfbeans.exceptions.RDFBeanValidationException;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+/**
+ * RDF representation of the constants of an enum class (see
+ * {@link RDFEnum}).
+ *
+ * The RDF values of the constants and the reverse lookup table are computed
+ * once per enum class, so that converting a constant or a value is a single
+ * array or map lookup.
+ */
+public class RDFEnumInfo {
+
+	private static final ClassValue<RDFEnumInfo> cache = new ClassValue<RDFEnumInfo>() {
+
+		@Override
+		protected RDFEnumInfo computeValue(Class<?> type) {
+			return new RDFEnumInfo(type);
+		}
+	};
+
+	private final Class<?> enumClass;
+	private final boolean resources;
+	private final Value[] values;
+	private final Map<String, Enum<?>> constants;
+
+	private RDFEnumInfo(Class<?> enumClass) throws RDFBeanValidationException {
+		this.enumClass = enumClass;
+		ValueFactory vf = SimpleValueFactory.getInstance();
+		RDFEnum annotation = enumClass.getAnnotation(RDFEnum.class);
+		resources = annotation != null;
+		Object[] enumConstants = enumClass.getEnumConstants();
+		values = new Value[enumConstants.length];
+		constants = new HashMap<>(enumConstants.length * 2);
+		for (Object c : enumConstants) {
+			Enum<?> constant = (Enum<?>) c;
+			Value value;
+			if (resources) {
+				String iri = annotation.value() + constant.name();
+				try {
+					RDF rdf = enumClass.getField(constant.name()).getAnnotation(RDF.class);
+					if ((rdf != null) && !rdf.value().isEmpty()) {
+						iri = rdf.value();
+					}
+					value = vf.createIRI(iri);
+				} catch (NoSuchFieldException | IllegalArgumentException e) {
+					throw new RDFBeanValidationException("Invalid IRI of enum constant " + constant.name()
+							+ ": " + iri, enumClass, e);
+				}
+			}
+			else {
+				value = vf.createLiteral(constant.name());
+			}
+			if (constants.put(value.stringValue(), constant) != null) {
+				throw new RDFBeanValidationException("Enum constants are mapped to the same value: " + value,
+						enumClass);
+			}
+			values[constant.ordinal()] = value;
+		}
+	}
+
+	/**
+	 * Returns the RDF representation of an enum class.
+	 *
+	 * @param enumClass
+	 *            an enum class (or the class of an enum constant with a body)
+	 * @throws RDFBeanValidationException
+	 *             if the constants cannot be mapped to RDF values
+	 */
+	public static RDFEnumInfo get(Class<?> enumClass) throws RDFBeanValidationException {
+		if (!enumClass.isEnum()) {
+			enumClass = enumClass.getSuperclass();
+		}
+		return cache.get(enumClass);
+	}
+
+	public Class<?> getEnumClass() {
+		return enumClass;
+	}
+
+	/**
+	 * Checks if the constants are represented with IRIs (the enum is
+	 * annotated with {@link RDFEnum}) rather than literals.
+	 */
+	public boolean isResources() {
+		return resources;
+	}
+
+	/**
+	 * Returns the RDF value of a constant of the enum.
+	 */
+	public Value getValue(Enum<?> constant) {
+		return values[constant.ordinal()];
+	}
+
+	/**
+	 * Returns the constant represented with an RDF value.
+	 *
+	 * @param value
+	 *            an IRI or a literal
+	 * @return the constant, or null if no constant is represented with the
+	 *         value
+	 */
+	public Enum<?> getConstant(Value value) {
+		return constants.get(value.stringValue());
+	}
+
+}
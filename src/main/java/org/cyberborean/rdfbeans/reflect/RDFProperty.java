@@ -1,10 +1,15 @@
 package org.cyberborean.rdfbeans.reflect;
 
 import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collection;
 
 import org.cyberborean.rdfbeans.annotations.RDF;
 import org.cyberborean.rdfbeans.annotations.RDFContainer;
 import org.cyberborean.rdfbeans.annotations.RDFContainer.ContainerType;
+import org.cyberborean.rdfbeans.datatype.Codec;
+import org.cyberborean.rdfbeans.datatype.CodecRegistry;
+import org.cyberborean.rdfbeans.datatype.PackedArrays;
 import org.cyberborean.rdfbeans.exceptions.RDFBeanValidationException;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
@@ -14,6 +19,8 @@ public class RDFProperty extends AbstractRDFBeanProperty {
 	private boolean inversionOfProperty;
 	private IRI uri;
 	private RDFContainer.ContainerType containerType = ContainerType.NONE;
+	private Class<?> packedElementType;
+	private Codec<Object> codec;
 	private RDFBeanInfo beanInfo;
 
 	/**
@@ -30,12 +37,38 @@ public class RDFProperty extends AbstractRDFBeanProperty {
 					new NullPointerException());
 		}
 		beanInfo = rdfBeanInfo;
-		initUri(annotation);
-		initContainerType(containerAnnotation);
+		initUri(annotation.value(), annotation.inverseOf());
+		initContainerType(containerAnnotation != null ? containerAnnotation.value() : null);
+		initCodec();
 	}
 
-	private void initContainerType(RDFContainer containerAnnotation) throws RDFBeanValidationException {
-		if (containerAnnotation != null) {
+	/**
+	 * Creates a property from precomputed annotation parameters.
+	 *
+	 * @param propertyDescriptor
+	 * @param rdfBeanInfo
+	 * @param value
+	 *            <code>value</code> parameter of the <code>@RDF</code> annotation
+	 * @param inverseOf
+	 *            <code>inverseOf</code> parameter of the <code>@RDF</code>
+	 *            annotation
+	 * @param containerType
+	 *            value of the <code>@RDFContainer</code> annotation, or null
+	 *            if the property has no such annotation
+	 * @throws RDFBeanValidationException
+	 */
+	public RDFProperty(PropertyDescriptor propertyDescriptor,
+			RDFBeanInfo rdfBeanInfo, String value, String inverseOf,
+			ContainerType containerType) throws RDFBeanValidationException {
+		super(propertyDescriptor);
+		beanInfo = rdfBeanInfo;
+		initUri(value, inverseOf);
+		initContainerType(containerType);
+		initCodec();
+	}
+
+	private void initContainerType(ContainerType type) throws RDFBeanValidationException {
+		if (type != null) {
 			if (inversionOfProperty) {
 				throw new RDFBeanValidationException(
 						RDFContainer.class.getSimpleName()
@@ -43,18 +76,58 @@ public class RDFProperty extends AbstractRDFBeanProperty {
 						+ " method is not allowed (\"inverseOf\" property)",
 						beanInfo.getRDFBeanClass());
 			}
-			containerType = containerAnnotation.value();
+			if (type == ContainerType.PACKED) {
+				packedElementType = resolvePackedElementType();
+				if (packedElementType == null) {
+					throw new RDFBeanValidationException(
+							ContainerType.PACKED + " container on " + propertyDescriptor.getName()
+							+ " property is allowed only for numeric primitive arrays"
+							+ " and Lists or Collections of numbers",
+							beanInfo.getRDFBeanClass());
+				}
+			}
+			containerType = type;
 		}
 	}
 
-	private void initUri(RDF annotation) throws RDFBeanValidationException {
+	@SuppressWarnings("unchecked")
+	private void initCodec() {
+		if (inversionOfProperty || (containerType == ContainerType.PACKED)) {
+			return;
+		}
+		Class<?> type = propertyDescriptor.getPropertyType();
+		if (type.isArray()) {
+			type = type.getComponentType();
+		}
+		else if (Collection.class.isAssignableFrom(type)) {
+			type = propertyDescriptor.getReadMethod() != null ? getPropertyComponentType() : null;
+		}
+		if ((type != null) && (type != Object.class)) {
+			codec = (Codec<Object>) CodecRegistry.getCodec(type);
+		}
+	}
+
+	private Class<?> resolvePackedElementType() {
+		Class<?> type = propertyDescriptor.getPropertyType();
+		if (type.isArray()) {
+			Class<?> componentType = type.getComponentType();
+			return componentType.isPrimitive() ? PackedArrays.getPrimitiveType(componentType) : null;
+		}
+		if (Collection.class.isAssignableFrom(type) && type.isAssignableFrom(ArrayList.class)
+				&& (propertyDescriptor.getReadMethod() != null)) {
+			return PackedArrays.getPrimitiveType(getPropertyComponentType());
+		}
+		return null;
+	}
+
+	private void initUri(String value, String inverseOf) throws RDFBeanValidationException {
 		String uriValue = null;
-		if ((annotation.inverseOf() != null) && !annotation.inverseOf().isEmpty()) {
-			uriValue = annotation.inverseOf();
+		if ((inverseOf != null) && !inverseOf.isEmpty()) {
+			uriValue = inverseOf;
 			inversionOfProperty = true;
 		}
-		else if ((annotation.value() != null) && !annotation.value().isEmpty()){
-			uriValue = annotation.value();
+		else if ((value != null) && !value.isEmpty()){
+			uriValue = value;
 		}
 		if (uriValue == null) {
 			throw new RDFBeanValidationException(
@@ -87,4 +160,26 @@ public class RDFProperty extends AbstractRDFBeanProperty {
 	public RDFContainer.ContainerType getContainerType() {
 		return containerType;
 	}
+
+	/**
+	 * Returns the primitive type of the values of a
+	 * {@link ContainerType#PACKED} property.
+	 *
+	 * @return the primitive type, or null if the property is not packed
+	 */
+	public Class<?> getPackedElementType() {
+		return packedElementType;
+	}
+
+	/**
+	 * Returns the {@link Codec} of the property values (the elements of
+	 * array and Collection properties), resolved from the
+	 * {@link CodecRegistry} when the property is created.
+	 *
+	 * @return the codec, or null if the values are converted by the
+	 *         DatatypeMapper
+	 */
+	public Codec<Object> getCodec() {
+		return codec;
+	}
 }
@@ -4,7 +4,9 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ReflectionUtil {
 
@@ -38,16 +40,34 @@ public class ReflectionUtil {
 		}
 	}
 
+	/**
+	 * Methods of the interfaces of a class by signature (the first matching
+	 * method of the first interface declaring it).
+	 */
+	private static final ClassValue<Map<MethodKey, Method>> interfaceMethods = new ClassValue<Map<MethodKey, Method>>() {
+
+		@Override
+		protected Map<MethodKey, Method> computeValue(Class<?> cls) {
+			Map<MethodKey, Method> methods = new HashMap<>();
+			for (Class<?> iface: cls.getInterfaces()) {
+				for (Method m: iface.getMethods()) {
+					MethodKey key = new MethodKey(m);
+					if (!methods.containsKey(key)) {
+						methods.put(key, m);
+					}
+				}
+			}
+			return methods;
+		}
+	};
+
 	public static <T extends Annotation> T getMethodAnnotation(Method method, Class<T> annotationType) {
 		T ann = method.getAnnotation(annotationType);
 		if (ann == null) {
 			// Inspect interface methods
-			for (Class iface: method.getDeclaringClass().getInterfaces()) {
-				for (Method otherMethod: iface.getMethods()) {
-					if (isMatchingMethodSignatures(method, otherMethod)) {
-						return getMethodAnnotation(otherMethod, annotationType);
-					}
-				}
+			Method otherMethod = interfaceMethods.get(method.getDeclaringClass()).get(new MethodKey(method));
+			if (otherMethod != null) {
+				return getMethodAnnotation(otherMethod, annotationType);
 			}
 		}
 		return ann;
@@ -64,14 +84,7 @@ public class ReflectionUtil {
 	 * @return
 	 */
 	public static boolean isMatchingMethodSignatures(Method method, Method otherMethod) {
-		return calcMethodSignatureHash(method) == calcMethodSignatureHash(otherMethod);
-	}
-	
-	private static int calcMethodSignatureHash(Method m) {
-		return 
-			m.getName().hashCode() ^ 
-			m.getReturnType().hashCode() ^ 
-			Arrays.hashCode(m.getParameterTypes());
+		return new MethodKey(method).equals(new MethodKey(otherMethod));
 	}
 	
 	public static List<Class<?>> getAllInterfaces(Class cls) {
@@ -83,4 +96,37 @@ public class ReflectionUtil {
 		}	
 		return allInterfaces;
 	}
+
+	/**
+	 * Name, return type and parameter types of a method.
+	 */
+	private static class MethodKey {
+
+		private final String name;
+		private final Class<?> returnType;
+		private final Class<?>[] parameterTypes;
+		private final int hash;
+
+		MethodKey(Method m) {
+			name = m.getName();
+			returnType = m.getReturnType();
+			parameterTypes = m.getParameterTypes();
+			hash = name.hashCode() ^ returnType.hashCode() ^ Arrays.hashCode(parameterTypes);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof MethodKey)) {
+				return false;
+			}
+			MethodKey other = (MethodKey) obj;
+			return name.equals(other.name) && (returnType == other.returnType)
+					&& Arrays.equals(parameterTypes, other.parameterTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
 }
@@ -22,10 +22,24 @@ public class SubjectProperty extends AbstractRDFBeanProperty {
 	public SubjectProperty(PropertyDescriptor propertyDescriptor,
 			RDFBeanInfo rdfBeanInfo, RDFSubject annotation)
 			throws RDFBeanValidationException {
+		this(propertyDescriptor, rdfBeanInfo, annotation != null ? annotation.prefix() : null);
+	}
+
+	/**
+	 * @param propertyDescriptor
+	 * @param rdfBeanInfo
+	 * @param prefix
+	 *            <code>prefix</code> parameter of the <code>@RDFSubject</code>
+	 *            annotation
+	 * @throws RDFBeanValidationException
+	 */
+	public SubjectProperty(PropertyDescriptor propertyDescriptor,
+			RDFBeanInfo rdfBeanInfo, String prefix)
+			throws RDFBeanValidationException {
 		super(propertyDescriptor);
 		this.rdfBeanInfo = rdfBeanInfo;
-		if (annotation != null) {
-			prefix = annotation.prefix();
+		if (prefix != null) {
+			this.prefix = prefix;
 		} else {
 			throw new RDFBeanValidationException(rdfBeanInfo.getRDFBeanClass(), new NullPointerException());
 		}
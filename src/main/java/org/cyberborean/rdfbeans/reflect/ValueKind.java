@@ -0,0 +1,72 @@
+package org.cyberborean.rdfbeans.reflect;
+
+import org.cyberborean.rdfbeans.annotations.RDFBean;
+import org.eclipse.rdf4j.model.Resource;
+
+/**
+ * Kind of the Java class of a property value, which determines how the value
+ * is converted to RDF.
+ *
+ * The kind is computed once per class (see {@link #of(Class)}), so that
+ * marshalling of the values does not scan class annotations and interfaces
+ * every time.
+ */
+public enum ValueKind {
+
+	/**
+	 * RDFBean class (annotated with <code>@RDFBean</code> or implementing an
+	 * annotated interface)
+	 */
+	RDFBEAN,
+
+	/**
+	 * RDF4J {@link Resource} (IRI or blank node)
+	 */
+	RESOURCE,
+
+	/**
+	 * <code>java.net.URI</code>
+	 */
+	URI,
+
+	/**
+	 * Enum constant; the values not supported by the DatatypeMapper are
+	 * converted to IRIs or literals by {@link RDFEnumInfo}
+	 */
+	ENUM,
+
+	/**
+	 * Any other class; the values are converted to literals by the
+	 * DatatypeMapper, if supported
+	 */
+	LITERAL;
+
+	private static final ClassValue<ValueKind> kinds = new ClassValue<ValueKind>() {
+
+		@Override
+		protected ValueKind computeValue(Class<?> cls) {
+			if (ReflectionUtil.getClassAnnotation(cls, RDFBean.class) != null) {
+				return RDFBEAN;
+			}
+			if (Resource.class.isAssignableFrom(cls)) {
+				return RESOURCE;
+			}
+			if (java.net.URI.class.isAssignableFrom(cls)) {
+				return URI;
+			}
+			if (Enum.class.isAssignableFrom(cls)) {
+				return ENUM;
+			}
+			return LITERAL;
+		}
+	};
+
+	public static ValueKind of(Class<?> cls) {
+		return kinds.get(cls);
+	}
+
+	public static ValueKind of(Object value) {
+		return kinds.get(value.getClass());
+	}
+
+}
@@ -0,0 +1,105 @@
+package org.cyberborean.rdfbeans.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Finds the classes of a package and its subpackages in the class path of a
+ * ClassLoader. Directories and JAR files are scanned.
+ */
+public class ClassScanner {
+
+	private static final String CLASS_SUFFIX = ".class";
+
+	/**
+	 * Finds and loads (without initializing) the classes of the package and
+	 * its subpackages. Anonymous classes, <code>package-info</code> and the
+	 * classes which cannot be loaded are skipped.
+	 *
+	 * @param packageName
+	 *            fully qualified package name
+	 * @param classLoader
+	 *            the ClassLoader to search and load the classes with
+	 * @return the classes, ordered by name
+	 * @throws IOException
+	 *             if a directory or a JAR file cannot be read
+	 */
+	public static List<Class<?>> findClasses(String packageName, ClassLoader classLoader) throws IOException {
+		String path = packageName.replace('.', '/');
+		Set<String> classNames = new TreeSet<>();
+		Enumeration<URL> resources = classLoader.getResources(path);
+		while (resources.hasMoreElements()) {
+			URL url = resources.nextElement();
+			if ("file".equals(url.getProtocol())) {
+				try {
+					scanDirectory(new File(url.toURI()), packageName, classNames);
+				} catch (URISyntaxException e) {
+					throw new IOException("Invalid class path URL: " + url, e);
+				}
+			}
+			else if ("jar".equals(url.getProtocol())) {
+				URLConnection connection = url.openConnection();
+				connection.setUseCaches(false);
+				try (JarFile jar = ((JarURLConnection) connection).getJarFile()) {
+					scanJar(jar, path, classNames);
+				}
+			}
+		}
+
+		List<Class<?>> classes = new ArrayList<>();
+		for (String className : classNames) {
+			if (className.endsWith(".package-info") || isAnonymous(className)) {
+				continue;
+			}
+			try {
+				classes.add(Class.forName(className, false, classLoader));
+			} catch (ClassNotFoundException | LinkageError e) {
+				// e.g. a missing optional dependency
+			}
+		}
+		return classes;
+	}
+
+	private static void scanDirectory(File dir, String packageName, Set<String> classNames) {
+		File[] files = dir.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			String name = file.getName();
+			if (file.isDirectory()) {
+				scanDirectory(file, packageName + "." + name, classNames);
+			}
+			else if (name.endsWith(CLASS_SUFFIX)) {
+				classNames.add(packageName + "." + name.substring(0, name.length() - CLASS_SUFFIX.length()));
+			}
+		}
+	}
+
+	private static void scanJar(JarFile jar, String path, Set<String> classNames) {
+		Enumeration<JarEntry> entries = jar.entries();
+		while (entries.hasMoreElements()) {
+			String name = entries.nextElement().getName();
+			if (name.startsWith(path + "/") && name.endsWith(CLASS_SUFFIX)) {
+				classNames.add(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+			}
+		}
+	}
+
+	private static boolean isAnonymous(String className) {
+		int i = className.lastIndexOf('$');
+		return (i >= 0) && (i < className.length() - 1) && Character.isDigit(className.charAt(i + 1));
+	}
+
+}
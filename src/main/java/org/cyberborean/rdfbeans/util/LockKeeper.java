@@ -1,25 +1,195 @@
 package org.cyberborean.rdfbeans.util;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Keeps read-write locks for RDF resources.
+ * 
+ * The resources are hashed to a fixed number of lock stripes, so the
+ * memory footprint does not grow with the number of resources and the lock
+ * lookup takes no monitor. Different resources may share a stripe.
+ * 
+ * Acquisitions which had to wait for another thread are counted, see
+ * {@link #getReadContentionCount()} and {@link #getWriteContentionCount()}.
+ * 
+ */
 public class LockKeeper {
 
-	ConcurrentMap<Object, ReadWriteLock> locks = new ConcurrentHashMap<>();
-	
-	public synchronized ReadWriteLock getLock(Object o) {
-		ReadWriteLock lock = locks.get(o);
-		if (lock == null) {
-			lock = createLock(o);
+	public static final int DEFAULT_STRIPES = 1024;
+
+	private final StripeLock[] stripes;
+	private final int mask;
+
+	private final LongAdder readContention = new LongAdder();
+	private final LongAdder writeContention = new LongAdder();
+
+	public LockKeeper() {
+		this(DEFAULT_STRIPES);
+	}
+
+	/**
+	 * @param stripes
+	 *            Number of lock stripes (rounded up to a power of two)
+	 */
+	public LockKeeper(int stripes) {
+		if (stripes < 1) {
+			throw new IllegalArgumentException("Number of lock stripes must be positive");
+		}
+		int size = Integer.highestOneBit(stripes);
+		if (size < stripes) {
+			size <<= 1;
+		}
+		this.stripes = new StripeLock[size];
+		for (int i = 0; i < size; i++) {
+			this.stripes[i] = new StripeLock();
+		}
+		this.mask = size - 1;
+	}
+
+	public ReadWriteLock getLock(Object o) {
+		return stripes[stripeIndex(o)];
+	}
+
+	private int stripeIndex(Object o) {
+		int h = o.hashCode();
+		// spread the higher bits down, as in HashMap
+		h ^= (h >>> 16);
+		return h & mask;
+	}
+
+	/**
+	 * Acquires write locks for all given objects. The locks are always
+	 * acquired in the same order (by stripe), so that concurrent callers
+	 * cannot deadlock on each other.
+	 * 
+	 * @param objects
+	 * @return The acquired locks, to be released with {@link #unlockAll(List)}
+	 */
+	public List<Lock> writeLockAll(Collection<?> objects) {
+		BitSet indexes = new BitSet(stripes.length);
+		for (Object o : objects) {
+			indexes.set(stripeIndex(o));
+		}
+		List<Lock> acquired = new ArrayList<Lock>(indexes.cardinality());
+		try {
+			for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1)) {
+				Lock lock = stripes[i].writeLock();
+				lock.lock();
+				acquired.add(lock);
+			}
+		} catch (RuntimeException e) {
+			unlockAll(acquired);
+			throw e;
+		}
+		return acquired;
+	}
+
+	/**
+	 * Releases the locks in the reverse order of their acquisition.
+	 * 
+	 * @param acquired
+	 */
+	public void unlockAll(List<Lock> acquired) {
+		for (int i = acquired.size() - 1; i >= 0; i--) {
+			acquired.get(i).unlock();
 		}
-		return lock;
 	}
-	
-	private synchronized ReadWriteLock createLock(Object o) {
-		ReadWriteLock lock = new ReentrantReadWriteLock();
-		locks.put(o, lock);
-		return lock;
+
+	public int getStripeCount() {
+		return stripes.length;
+	}
+
+	/**
+	 * @return the number of read lock acquisitions which had to wait
+	 */
+	public long getReadContentionCount() {
+		return readContention.sum();
+	}
+
+	/**
+	 * @return the number of write lock acquisitions which had to wait
+	 */
+	public long getWriteContentionCount() {
+		return writeContention.sum();
+	}
+
+	private class StripeLock implements ReadWriteLock {
+
+		private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+		private final Lock readLock = new CountingLock(lock.readLock(), readContention);
+		private final Lock writeLock = new CountingLock(lock.writeLock(), writeContention);
+
+		@Override
+		public Lock readLock() {
+			return readLock;
+		}
+
+		@Override
+		public Lock writeLock() {
+			return writeLock;
+		}
+	}
+
+	/**
+	 * A Lock which counts the acquisitions that could not succeed immediately.
+	 */
+	private static class CountingLock implements Lock {
+
+		private final Lock lock;
+		private final LongAdder contention;
+
+		CountingLock(Lock lock, LongAdder contention) {
+			this.lock = lock;
+			this.contention = contention;
+		}
+
+		@Override
+		public void lock() {
+			if (!lock.tryLock()) {
+				contention.increment();
+				lock.lock();
+			}
+		}
+
+		@Override
+		public void lockInterruptibly() throws InterruptedException {
+			if (!lock.tryLock()) {
+				contention.increment();
+				lock.lockInterruptibly();
+			}
+		}
+
+		@Override
+		public boolean tryLock() {
+			return lock.tryLock();
+		}
+
+		@Override
+		public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+			if (lock.tryLock()) {
+				return true;
+			}
+			contention.increment();
+			return lock.tryLock(time, unit);
+		}
+
+		@Override
+		public void unlock() {
+			lock.unlock();
+		}
+
+		@Override
+		public Condition newCondition() {
+			return lock.newCondition();
+		}
 	}
 }
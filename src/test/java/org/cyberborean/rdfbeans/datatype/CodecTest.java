@@ -0,0 +1,268 @@
+package org.cyberborean.rdfbeans.datatype;
+
+import static org.cyberborean.rdfbeans.query.Criterion.*;
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+
+import org.cyberborean.rdfbeans.annotations.RDF;
+import org.cyberborean.rdfbeans.annotations.RDFBean;
+import org.cyberborean.rdfbeans.annotations.RDFSubject;
+import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CodecTest extends RDFBeansTestBase {
+
+	private static final String NS = "http://cyberborean.org/rdfbeans/2.0/test/datatype/";
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+	private static final IRI CURRENCY = vf.createIRI(NS + "currency");
+	private static final IRI MINUTES = vf.createIRI(NS + "minutes");
+
+	private static final Codec<Currency> codec = new Codec<Currency>() {
+
+		@Override
+		public Class<Currency> getJavaClass() {
+			return Currency.class;
+		}
+
+		@Override
+		public IRI getDatatype() {
+			return CURRENCY;
+		}
+
+		@Override
+		public Literal encode(Currency value, ValueFactory valueFactory) {
+			return valueFactory.createLiteral(value.getCurrencyCode(), CURRENCY);
+		}
+
+		@Override
+		public Currency decode(Literal literal) {
+			return Currency.getInstance(literal.getLabel());
+		}
+	};
+
+	// overrides the built-in xsd:duration mapping
+	private static final Codec<Duration> durationCodec = new Codec<Duration>() {
+
+		@Override
+		public Class<Duration> getJavaClass() {
+			return Duration.class;
+		}
+
+		@Override
+		public IRI getDatatype() {
+			return MINUTES;
+		}
+
+		@Override
+		public Literal encode(Duration value, ValueFactory valueFactory) {
+			return valueFactory.createLiteral(String.valueOf(value.toMinutes()), MINUTES);
+		}
+
+		@Override
+		public Duration decode(Literal literal) {
+			return Duration.ofMinutes(Long.parseLong(literal.getLabel()));
+		}
+	};
+
+	@BeforeClass
+	public static void registerCodec() {
+		CodecRegistry.register(codec);
+		CodecRegistry.register(durationCodec);
+	}
+
+	@AfterClass
+	public static void unregisterCodec() {
+		CodecRegistry.unregister(codec);
+		CodecRegistry.unregister(durationCodec);
+	}
+
+	@Test
+	public void registry() {
+		assertSame(codec, CodecRegistry.getCodec(Currency.class));
+		assertSame(codec, CodecRegistry.getCodec(vf.createIRI(CURRENCY.stringValue())));
+		assertNull(CodecRegistry.getCodec(String.class));
+		assertNull(CodecRegistry.getCodec((IRI) null));
+
+		// bound once to the properties
+		RDFBeanInfo rbi = RDFBeanInfo.get(Account.class);
+		assertSame(codec, rbi.getProperty("currency").getCodec());
+		assertSame(codec, rbi.getProperty("accepted").getCodec());
+		assertNull(rbi.getProperty("name").getCodec());
+
+		// values not bound to a property
+		DefaultDatatypeMapper mapper = new DefaultDatatypeMapper();
+		Literal l = mapper.getRDFValue(Currency.getInstance("EUR"), vf);
+		assertEquals(vf.createLiteral("EUR", CURRENCY), l);
+		assertEquals(Currency.getInstance("EUR"), mapper.getJavaObject(l));
+	}
+
+	@Test
+	public void marshal() throws Exception {
+		Account account = new Account();
+		account.setId(NS + "account1");
+		account.setName("Account 1");
+		account.setCurrency(Currency.getInstance("EUR"));
+		account.setAccepted(Arrays.asList(Currency.getInstance("USD"), Currency.getInstance("GBP")));
+		Resource r = manager.add(account);
+
+		List<Statement> sts = Iterations.asList(manager.getRepositoryConnection().getStatements(r,
+				vf.createIRI(NS + "accountCurrency"), null));
+		assertEquals(1, sts.size());
+		assertEquals(vf.createLiteral("EUR", CURRENCY), sts.get(0).getObject());
+
+		Account account2 = manager.get(r, Account.class);
+		assertEquals(account.getCurrency(), account2.getCurrency());
+		assertEquals(account.getAccepted().size(), account2.getAccepted().size());
+		assertTrue(account2.getAccepted().containsAll(account.getAccepted()));
+
+		Account account3 = new Account();
+		account3.setId(NS + "account3");
+		account3.setCurrency(Currency.getInstance("USD"));
+		manager.add(account3);
+		List<Account> result = manager.query(Account.class).where("currency", eq(Currency.getInstance("EUR"))).list();
+		assertEquals(1, result.size());
+		assertEquals(NS + "account1", result.get(0).getId());
+	}
+
+	@Test
+	public void overrideBuiltInType() throws Exception {
+		Duration hour = Duration.ofHours(1);
+		Literal l = vf.createLiteral("60", MINUTES);
+		DefaultDatatypeMapper mapper = new DefaultDatatypeMapper();
+		assertEquals(l, mapper.getRDFValue(hour, vf));
+		assertEquals(hour, mapper.getJavaObject(l));
+		assertEquals(hour, mapper.getJavaObject(l, Duration.class));
+
+		// the bound property and the untyped one encode the value the same way
+		Timer timer = new Timer();
+		timer.setId(NS + "timer1");
+		timer.setTimeout(hour);
+		timer.setValue(hour);
+		Resource r = manager.add(timer);
+		assertTrue(manager.getRepositoryConnection().hasStatement(r, vf.createIRI(NS + "timeout"), l, false));
+		assertTrue(manager.getRepositoryConnection().hasStatement(r, vf.createIRI(NS + "value"), l, false));
+
+		Timer timer2 = manager.get(r, Timer.class);
+		assertEquals(hour, timer2.getTimeout());
+		assertEquals(hour, timer2.getValue());
+		assertEquals(1, manager.query(Timer.class).where("timeout", eq(hour)).count());
+		assertEquals(1, manager.query(Timer.class).where("value", eq(hour)).count());
+	}
+
+	@Test
+	public void proxy() throws Exception {
+		IAccount account = manager.create(NS + "account2", IAccount.class);
+		account.setCurrency(Currency.getInstance("JPY"));
+		assertEquals(Currency.getInstance("JPY"), account.getCurrency());
+		assertEquals(vf.createLiteral("JPY", CURRENCY), manager.getRepositoryConnection()
+				.getStatements(vf.createIRI(NS + "account2"), vf.createIRI(NS + "accountCurrency"), null)
+				.next().getObject());
+	}
+
+	@RDFBean(NS + "Account")
+	public static class Account {
+
+		private String id;
+		private String name;
+		private Currency currency;
+		private List<Currency> accepted;
+
+		@RDFSubject
+		public String getId() {
+			return id;
+		}
+
+		public void setId(String id) {
+			this.id = id;
+		}
+
+		@RDF(NS + "accountName")
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		@RDF(NS + "accountCurrency")
+		public Currency getCurrency() {
+			return currency;
+		}
+
+		public void setCurrency(Currency currency) {
+			this.currency = currency;
+		}
+
+		@RDF(NS + "acceptedCurrency")
+		public List<Currency> getAccepted() {
+			return accepted;
+		}
+
+		public void setAccepted(List<Currency> accepted) {
+			this.accepted = accepted;
+		}
+	}
+
+	@RDFBean(NS + "Timer")
+	public static class Timer {
+
+		private String id;
+		private Duration timeout;
+		private Object value;
+
+		@RDFSubject
+		public String getId() {
+			return id;
+		}
+
+		public void setId(String id) {
+			this.id = id;
+		}
+
+		@RDF(NS + "timeout")
+		public Duration getTimeout() {
+			return timeout;
+		}
+
+		public void setTimeout(Duration timeout) {
+			this.timeout = timeout;
+		}
+
+		@RDF(NS + "value")
+		public Object getValue() {
+			return value;
+		}
+
+		public void setValue(Object value) {
+			this.value = value;
+		}
+	}
+
+	@RDFBean(NS + "Account")
+	public interface IAccount {
+
+		@RDFSubject
+		String getId();
+
+		@RDF(NS + "accountCurrency")
+		Currency getCurrency();
+
+		void setCurrency(Currency currency);
+	}
+
+}
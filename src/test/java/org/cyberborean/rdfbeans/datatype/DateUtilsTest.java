@@ -3,7 +3,11 @@
  */
 package org.cyberborean.rdfbeans.datatype;
 
+import java.text.DateFormat;
 import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
 
 import org.cyberborean.rdfbeans.datatype.DateUtils;
 
@@ -26,4 +30,35 @@ public class DateUtilsTest extends TestCase {
 			fail(e.getMessage());
 		}
 	}
+
+	public void testDateTimeCodec() throws Exception {
+		DateFormat df = DateUtils.getDefaultDateFormat();
+		String[] values = {
+				"2014-04-10T23:00:00.000Z",
+				"2014-04-10T23:00:00-04:00",
+				"2000-02-29T12:30:45.5+05:30",
+				"1969-12-31T23:59:59.999Z"
+		};
+		for (String s : values) {
+			Date expected = df.parse(s.replace(".5+", ".500+").replaceFirst(":(\\d\\d)([-+Z])", ":$1.000$2"));
+			assertEquals(s, expected, DateUtils.parseDateTime(s));
+			assertEquals(s, expected, DateUtils.parseDateTime(DateUtils.formatDateTime(expected)));
+		}
+		assertEquals("1970-01-01T00:00:00.000Z", DateUtils.formatDateTime(new Date(0)));
+		assertEquals("1969-12-31T23:59:59.999Z", DateUtils.formatDateTime(new Date(-1)));
+		assertEquals(Instant.parse("2019-03-01T10:15:30.000001Z"), DateUtils.parseInstant("2019-03-01T10:15:30.000001Z"));
+		assertEquals("2019-03-01T10:15:30.000001Z", DateUtils.formatDateTime(Instant.parse("2019-03-01T10:15:30.000001Z")));
+		assertEquals("-PT36H", DateUtils.formatDuration(Duration.ofHours(-36)));
+		assertEquals(Duration.ofHours(-36), DateUtils.parseDuration("-PT36H"));
+		for (String invalid : new String[] { "2014-02-30T00:00:00Z", "2014-04-10T23:00Z", "2014-04-10T23:00:00+4:00",
+				"2014-04-10" }) {
+			try {
+				DateUtils.parseDateTime(invalid);
+				fail(invalid);
+			}
+			catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
 }
@@ -0,0 +1,103 @@
+package org.cyberborean.rdfbeans.datatype;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.junit.Test;
+
+public class DefaultDatatypeMapperTest {
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+	private final DefaultDatatypeMapper mapper = new DefaultDatatypeMapper();
+
+	@Test
+	public void datatypeResolution() {
+		assertSame(XMLSchema.INT, DefaultDatatypeMapper.getDatatypeURI(Integer.class));
+		// subclass of a mapped class
+		assertSame(XMLSchema.DATETIME, DefaultDatatypeMapper.getDatatypeURI(Timestamp.class));
+		assertSame(XMLSchema.DATETIME, DefaultDatatypeMapper.getDatatypeURI(Timestamp.class));
+		// unmapped classes are cached too
+		assertNull(DefaultDatatypeMapper.getDatatypeURI(Person.class));
+		assertNull(DefaultDatatypeMapper.getDatatypeURI(Person.class));
+		assertNull(mapper.getRDFValue(new Person(), vf));
+	}
+
+	@Test
+	public void decodeEqualDatatypeIRI() {
+		// datatype IRIs created by parsers are equal, but not the same objects
+		assertEquals(42, mapper.getJavaObject(vf.createLiteral("42", vf.createIRI(XMLSchema.INT.stringValue()))));
+		assertEquals(new BigDecimal("1.5"),
+				mapper.getJavaObject(vf.createLiteral("1.5", vf.createIRI(XMLSchema.DECIMAL.stringValue()))));
+		assertEquals('x', mapper.getJavaObject(vf.createLiteral("x", Java.CHAR)));
+		assertEquals("plain", mapper.getJavaObject(vf.createLiteral("plain")));
+		assertEquals("custom", mapper.getJavaObject(vf.createLiteral("custom", vf.createIRI("urn:test:custom"))));
+	}
+
+	@Test
+	public void primitiveEncoding() {
+		Literal l = mapper.getRDFValue(42, vf);
+		assertEquals(XMLSchema.INT, l.getDatatype());
+		assertEquals(42, mapper.getInt(l));
+		assertEquals(l, mapper.getRDFValue((Object) Integer.valueOf(42), vf));
+		assertEquals(XMLSchema.LONG, mapper.getRDFValue(Long.MAX_VALUE, vf).getDatatype());
+		assertEquals(Long.MAX_VALUE, mapper.getLong(mapper.getRDFValue(Long.MAX_VALUE, vf)));
+		assertEquals(Math.PI, mapper.getDouble(mapper.getRDFValue(Math.PI, vf)), 0);
+		assertEquals(-3.141f, mapper.getFloat(mapper.getRDFValue((Object) (-3.141f), vf)), 0);
+		assertTrue(mapper.getBoolean(mapper.getRDFValue(true, vf)));
+		assertEquals(Java.CHAR, mapper.getRDFValue('a', vf).getDatatype());
+		assertEquals('a', mapper.getChar(mapper.getRDFValue('a', vf)));
+	}
+
+	@Test
+	public void primitivePropertyDecoding() {
+		// converted to the property type
+		assertEquals(7, mapper.getJavaObject(vf.createLiteral(7L), int.class));
+		assertEquals(7.0, mapper.getJavaObject(vf.createLiteral(7), double.class));
+		// not a number: left to the setter
+		assertEquals("seven", mapper.getJavaObject(vf.createLiteral("seven"), int.class));
+	}
+
+	@Test
+	public void integerDecoding() {
+		Literal l = vf.createLiteral("12345678901234567890", XMLSchema.INTEGER);
+		assertEquals(new BigInteger("12345678901234567890"), mapper.getJavaObject(l));
+		assertEquals(new BigInteger("12345678901234567890"), mapper.getJavaObject(l, Object.class));
+		// String properties keep the label
+		assertEquals("12345678901234567890", mapper.getJavaObject(l, String.class));
+		assertEquals("many", mapper.getJavaObject(vf.createLiteral("many", XMLSchema.INTEGER)));
+	}
+
+	@Test
+	public void defaultPrimitiveMethods() {
+		DatatypeMapper custom = new DatatypeMapper() {
+
+			@Override
+			public Object getJavaObject(Literal value) {
+				return mapper.getJavaObject(value);
+			}
+
+			@Override
+			public Literal getRDFValue(Object value, ValueFactory valueFactory) {
+				return mapper.getRDFValue(value, valueFactory);
+			}
+		};
+		assertEquals(42, custom.getInt(custom.getRDFValue(42, vf)));
+		assertEquals(42L, custom.getLong(custom.getRDFValue(42, vf)));
+		try {
+			custom.getInt(vf.createLiteral("42"));
+			fail();
+		}
+		catch (IllegalArgumentException e) {
+			// a string literal
+		}
+	}
+
+}
@@ -0,0 +1,233 @@
+package org.cyberborean.rdfbeans.datatype;
+
+import static org.cyberborean.rdfbeans.query.Criterion.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.cyberborean.rdfbeans.annotations.RDF;
+import org.cyberborean.rdfbeans.annotations.RDFBean;
+import org.cyberborean.rdfbeans.annotations.RDFContainer;
+import org.cyberborean.rdfbeans.annotations.RDFContainer.ContainerType;
+import org.cyberborean.rdfbeans.annotations.RDFEnum;
+import org.cyberborean.rdfbeans.annotations.RDFSubject;
+import org.cyberborean.rdfbeans.exceptions.RDFBeanValidationException;
+import org.cyberborean.rdfbeans.reflect.RDFEnumInfo;
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.Test;
+
+public class EnumTest extends RDFBeansTestBase {
+
+	private static final String NS = "http://cyberborean.org/rdfbeans/2.0/test/datatype/";
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@RDFEnum(NS + "status#")
+	public enum Status {
+		OPEN,
+		CLOSED {
+			@Override
+			public String toString() {
+				return "closed";
+			}
+		},
+		@RDF(NS + "archived")
+		ARCHIVED
+	}
+
+	public enum Priority {
+		LOW, HIGH
+	}
+
+	@RDFEnum(NS + "duplicate#")
+	public enum Duplicate {
+		A,
+		@RDF(NS + "duplicate#A")
+		B
+	}
+
+	@Test
+	public void mapping() {
+		RDFEnumInfo info = RDFEnumInfo.get(Status.class);
+		assertTrue(info.isResources());
+		assertEquals(vf.createIRI(NS + "status#OPEN"), info.getValue(Status.OPEN));
+		assertEquals(vf.createIRI(NS + "archived"), info.getValue(Status.ARCHIVED));
+		assertSame(info, RDFEnumInfo.get(Status.CLOSED.getClass()));
+		assertEquals(Status.CLOSED, info.getConstant(vf.createIRI(NS + "status#CLOSED")));
+		assertNull(info.getConstant(vf.createIRI(NS + "status#UNKNOWN")));
+
+		info = RDFEnumInfo.get(Priority.class);
+		assertFalse(info.isResources());
+		assertEquals(vf.createLiteral("HIGH"), info.getValue(Priority.HIGH));
+		assertEquals(Priority.LOW, info.getConstant(vf.createLiteral("LOW")));
+
+		try {
+			RDFEnumInfo.get(Duplicate.class);
+			fail();
+		} catch (RDFBeanValidationException e) {
+			// A and B
+		}
+	}
+
+	@Test
+	public void marshal() throws Exception {
+		Task task = new Task();
+		task.setId(NS + "task1");
+		task.setStatus(Status.CLOSED);
+		task.setPriority(Priority.HIGH);
+		task.setHistory(Arrays.asList(Status.OPEN, Status.ARCHIVED, Status.CLOSED));
+		Resource r = manager.add(task);
+
+		List<Statement> sts = Iterations.asList(manager.getRepositoryConnection().getStatements(r,
+				vf.createIRI(NS + "status"), null));
+		assertEquals(1, sts.size());
+		assertEquals(vf.createIRI(NS + "status#CLOSED"), sts.get(0).getObject());
+
+		Task task2 = manager.get(r, Task.class);
+		assertEquals(Status.CLOSED, task2.getStatus());
+		assertEquals(Priority.HIGH, task2.getPriority());
+		assertEquals(task.getHistory(), task2.getHistory());
+
+		Task task3 = new Task();
+		task3.setId(NS + "task3");
+		task3.setStatus(Status.OPEN);
+		task3.setPriority(Priority.LOW);
+		manager.add(task3);
+		List<Task> result = manager.query(Task.class).where("status", eq(Status.OPEN)).list();
+		assertEquals(1, result.size());
+		assertEquals(NS + "task3", result.get(0).getId());
+		result = manager.query(Task.class).where("priority", in(Priority.LOW, Priority.HIGH)).list();
+		assertEquals(2, result.size());
+	}
+
+	@Test
+	public void customDatatypeMapper() throws Exception {
+		final IRI priorityType = vf.createIRI(NS + "priorityLevel");
+		manager.setDatatypeMapper(new DefaultDatatypeMapper() {
+
+			@Override
+			public Literal getRDFValue(Object value, ValueFactory vf) {
+				if (value instanceof Priority) {
+					return vf.createLiteral(String.valueOf(((Priority) value).ordinal()), priorityType);
+				}
+				return super.getRDFValue(value, vf);
+			}
+
+			@Override
+			public Object getJavaObject(Literal l, Class<?> type) {
+				if (priorityType.equals(l.getDatatype())) {
+					return Priority.values()[Integer.parseInt(l.getLabel())];
+				}
+				return super.getJavaObject(l, type);
+			}
+		});
+		Task task = new Task();
+		task.setId(NS + "task1");
+		task.setStatus(Status.OPEN);
+		task.setPriority(Priority.HIGH);
+		Resource r = manager.add(task);
+
+		// the mapper handles Priority, Status falls back to @RDFEnum
+		assertTrue(manager.getRepositoryConnection().hasStatement(r, vf.createIRI(NS + "priority"),
+				vf.createLiteral("1", priorityType), false));
+		assertTrue(manager.getRepositoryConnection().hasStatement(r, vf.createIRI(NS + "status"),
+				vf.createIRI(NS + "status#OPEN"), false));
+		Task task2 = manager.get(r, Task.class);
+		assertEquals(Priority.HIGH, task2.getPriority());
+		assertEquals(Status.OPEN, task2.getStatus());
+		assertEquals(1, manager.query(Task.class).where("priority", eq(Priority.HIGH)).count());
+
+		ITask proxy = manager.create(NS + "task1", ITask.class);
+		assertEquals(Priority.HIGH, proxy.getPriority());
+		proxy.setPriority(Priority.LOW);
+		assertTrue(manager.getRepositoryConnection().hasStatement(r, vf.createIRI(NS + "priority"),
+				vf.createLiteral("0", priorityType), false));
+	}
+
+	@Test
+	public void proxy() throws Exception {
+		ITask task = manager.create(NS + "task2", ITask.class);
+		assertNull(task.getStatus());
+		task.setStatus(Status.ARCHIVED);
+		assertEquals(Status.ARCHIVED, task.getStatus());
+		task.setPriority(Priority.LOW);
+		assertEquals(Priority.LOW, task.getPriority());
+
+		// an unknown constant
+		IRI status = vf.createIRI(NS + "status");
+		manager.getRepositoryConnection().remove(vf.createIRI(NS + "task2"), status, null);
+		manager.getRepositoryConnection().add(vf.createIRI(NS + "task2"), status, vf.createIRI(NS + "status#UNKNOWN"));
+		assertNull(task.getStatus());
+	}
+
+	@RDFBean(NS + "Task")
+	public static class Task {
+
+		private String id;
+		private Status status;
+		private Priority priority;
+		private List<Status> history;
+
+		@RDFSubject
+		public String getId() {
+			return id;
+		}
+
+		public void setId(String id) {
+			this.id = id;
+		}
+
+		@RDF(NS + "status")
+		public Status getStatus() {
+			return status;
+		}
+
+		public void setStatus(Status status) {
+			this.status = status;
+		}
+
+		@RDF(NS + "priority")
+		public Priority getPriority() {
+			return priority;
+		}
+
+		public void setPriority(Priority priority) {
+			this.priority = priority;
+		}
+
+		@RDF(NS + "history")
+		@RDFContainer(ContainerType.SEQ)
+		public List<Status> getHistory() {
+			return history;
+		}
+
+		public void setHistory(List<Status> history) {
+			this.history = history;
+		}
+	}
+
+	@RDFBean(NS + "Task")
+	public interface ITask {
+
+		@RDFSubject
+		String getId();
+
+		@RDF(NS + "status")
+		Status getStatus();
+
+		void setStatus(Status status);
+
+		@RDF(NS + "priority")
+		Priority getPriority();
+
+		void setPriority(Priority priority);
+	}
+
+}
@@ -0,0 +1,66 @@
+package org.cyberborean.rdfbeans.datatype;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.cyberborean.rdfbeans.test.entities.DatatypeTestClass;
+import org.cyberborean.rdfbeans.test.entities.JavaTimeTestClass;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.junit.Test;
+
+public class JavaTimeTest extends RDFBeansTestBase {
+
+	@Test
+	public void test() throws Exception {
+		JavaTimeTestClass object = new JavaTimeTestClass();
+		object.setInstant(Instant.parse("2019-03-01T10:15:30.123456789Z"));
+		object.setOffsetDateTime(OffsetDateTime.of(2019, 3, 1, 10, 15, 0, 0, ZoneOffset.ofHours(-5)));
+		object.setLocalDateTime(LocalDateTime.of(2019, 3, 1, 10, 15, 30));
+		object.setLocalDate(LocalDate.of(2019, 3, 1));
+		object.setDuration(Duration.ofHours(-36).plusMillis(500));
+		object.setInstants(Arrays.asList(Instant.ofEpochSecond(0), Instant.ofEpochMilli(1551435330123L)));
+		Resource resource = manager.add(object);
+
+		JavaTimeTestClass object2 = (JavaTimeTestClass) manager.get(resource);
+		assertEquals(object.getInstant(), object2.getInstant());
+		assertEquals(object.getOffsetDateTime(), object2.getOffsetDateTime());
+		assertEquals(object.getLocalDateTime(), object2.getLocalDateTime());
+		assertEquals(object.getLocalDate(), object2.getLocalDate());
+		assertEquals(object.getDuration(), object2.getDuration());
+		assertEquals(object.getInstants(), object2.getInstants());
+	}
+
+	@Test
+	public void stringProperty() throws Exception {
+		ValueFactory vf = SimpleValueFactory.getInstance();
+		Literal date = vf.createLiteral("2019-03-01", XMLSchema.DATE);
+		DefaultDatatypeMapper mapper = new DefaultDatatypeMapper();
+		assertEquals(LocalDate.of(2019, 3, 1), mapper.getJavaObject(date));
+		assertEquals("2019-03-01", mapper.getJavaObject(date, String.class));
+		assertEquals("P1D", mapper.getJavaObject(vf.createLiteral("P1D", XMLSchema.DURATION), String.class));
+		// not a valid date
+		assertEquals("2019-02-30", mapper.getJavaObject(vf.createLiteral("2019-02-30", XMLSchema.DATE)));
+		assertEquals("soon", mapper.getJavaObject(vf.createLiteral("soon", XMLSchema.DATE)));
+
+		// xsd:date data of an existing String property
+		Resource resource = manager.add(new DatatypeTestClass());
+		IRI property = vf.createIRI("http://cyberborean.org/rdfbeans/2.0/test/datatype/string");
+		manager.getRepositoryConnection().remove(resource, property, null);
+		manager.getRepositoryConnection().add(resource, property, date);
+		assertEquals("2019-03-01", manager.get(resource, DatatypeTestClass.class).getStringValue());
+	}
+
+}
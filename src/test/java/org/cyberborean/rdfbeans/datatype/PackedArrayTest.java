@@ -0,0 +1,127 @@
+package org.cyberborean.rdfbeans.datatype;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.cyberborean.rdfbeans.annotations.RDF;
+import org.cyberborean.rdfbeans.annotations.RDFBean;
+import org.cyberborean.rdfbeans.annotations.RDFContainer;
+import org.cyberborean.rdfbeans.annotations.RDFContainer.ContainerType;
+import org.cyberborean.rdfbeans.exceptions.RDFBeanValidationException;
+import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.cyberborean.rdfbeans.test.entities.IPackedArrayTest;
+import org.cyberborean.rdfbeans.test.entities.PackedArrayTestClass;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.Test;
+
+public class PackedArrayTest extends RDFBeansTestBase {
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Test
+	public void codec() {
+		Literal l = PackedArrays.encode(new int[] { 1, -2, Integer.MAX_VALUE }, int.class, vf);
+		assertEquals(Java.INT_ARRAY, l.getDatatype());
+		assertEquals("AQAAAP7///////9/", l.getLabel());
+		assertArrayEquals(new int[] { 1, -2, Integer.MAX_VALUE }, (int[]) PackedArrays.decode(l));
+		assertArrayEquals(new int[] { 1, -2, Integer.MAX_VALUE },
+				(int[]) new DefaultDatatypeMapper().getJavaObject(l));
+
+		// Collections are converted to the element type
+		l = PackedArrays.encode(Arrays.asList(1, 2.5, 3L), double.class, vf);
+		assertEquals(Java.DOUBLE_ARRAY, l.getDatatype());
+		assertEquals(Arrays.<Object>asList(1.0, 2.5, 3.0), PackedArrays.decode(l, List.class));
+
+		l = PackedArrays.encode(new long[0], long.class, vf);
+		assertEquals("", l.getLabel());
+		assertEquals(0, ((long[]) PackedArrays.decode(l)).length);
+
+		try {
+			PackedArrays.decode(vf.createLiteral("AQA=", Java.INT_ARRAY));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// 2 bytes
+		}
+	}
+
+	@Test
+	public void marshal() throws Exception {
+		PackedArrayTestClass object = new PackedArrayTestClass();
+		object.setBytes(new byte[] { 0, 1, -128, 127 });
+		object.setShorts(new short[] { Short.MIN_VALUE, 0, Short.MAX_VALUE });
+		int[] ints = new int[1000];
+		for (int i = 0; i < ints.length; i++) {
+			ints[i] = i * i;
+		}
+		object.setInts(ints);
+		object.setLongs(new long[] { Long.MIN_VALUE, Long.MAX_VALUE });
+		object.setFloats(new float[] { 0.5f, Float.NaN, Float.NEGATIVE_INFINITY });
+		object.setDoubles(new double[] { Math.PI, -Math.E });
+		object.setIntList(Arrays.asList(3, 2, 1));
+		Resource resource = manager.add(object);
+
+		// a single statement per property
+		IRI predicate = vf.createIRI("http://cyberborean.org/rdfbeans/2.0/test/datatype/ints");
+		List<Statement> sts = Iterations.asList(manager.getRepositoryConnection().getStatements(resource, predicate, null));
+		assertEquals(1, sts.size());
+		assertEquals(Java.INT_ARRAY, ((Literal) sts.get(0).getObject()).getDatatype());
+
+		PackedArrayTestClass object2 = manager.get(resource, PackedArrayTestClass.class);
+		assertArrayEquals(object.getBytes(), object2.getBytes());
+		assertArrayEquals(object.getShorts(), object2.getShorts());
+		assertArrayEquals(object.getInts(), object2.getInts());
+		assertArrayEquals(object.getLongs(), object2.getLongs());
+		assertArrayEquals(object.getFloats(), object2.getFloats(), 0);
+		assertArrayEquals(object.getDoubles(), object2.getDoubles(), 0);
+		assertEquals(object.getIntList(), object2.getIntList());
+	}
+
+	@Test
+	public void proxy() throws Exception {
+		IPackedArrayTest proxy = manager.create("http://cyberborean.org/rdfbeans/2.0/test/datatype/packedProxy",
+				IPackedArrayTest.class);
+		assertNull(proxy.getInts());
+		proxy.setInts(new int[] { 1, 2, 3 });
+		assertArrayEquals(new int[] { 1, 2, 3 }, proxy.getInts());
+		proxy.setInts(1, 20);
+		assertEquals(20, proxy.getInts(1));
+		assertArrayEquals(new int[] { 1, 20, 3 }, proxy.getInts());
+		proxy.setIntList(Arrays.asList(4, 5));
+		assertEquals(Arrays.asList(4, 5), proxy.getIntList());
+		proxy.setIntList(null);
+		assertNull(proxy.getIntList());
+	}
+
+	@Test
+	public void unsupportedType() {
+		try {
+			RDFBeanInfo.get(Unsupported.class);
+			fail();
+		} catch (RDFBeanValidationException e) {
+			// String[]
+		}
+	}
+
+	@RDFBean("http://cyberborean.org/rdfbeans/2.0/test/datatype/Unsupported")
+	public static class Unsupported {
+
+		@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/names")
+		@RDFContainer(ContainerType.PACKED)
+		public String[] getNames() {
+			return null;
+		}
+
+		public void setNames(String[] names) {
+		}
+	}
+
+}
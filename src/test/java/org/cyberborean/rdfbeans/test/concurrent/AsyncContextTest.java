@@ -0,0 +1,106 @@
+package org.cyberborean.rdfbeans.test.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.cyberborean.rdfbeans.AsyncRDFBeanManagerContext;
+import org.cyberborean.rdfbeans.exceptions.RDFBeanValidationException;
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.Test;
+
+public class AsyncContextTest extends RDFBeansTestBase {
+
+	static final int numOfBeans = 30;
+
+	@Test
+	public void testFanOut() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			AsyncRDFBeanManagerContext async = manager.async(executor);
+			List<CompletableFuture<Resource>> added = new ArrayList<>();
+			for (int i = 0; i < numOfBeans; i++) {
+				Person p = new Person();
+				p.setId("person" + i);
+				p.setName("Person " + i);
+				added.add(async.add(p));
+			}
+			CompletableFuture.allOf(added.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+			List<CompletableFuture<Person>> loaded = new ArrayList<>();
+			for (int i = 0; i < numOfBeans; i++) {
+				loaded.add(async.get("person" + i, Person.class));
+			}
+			for (int i = 0; i < numOfBeans; i++) {
+				assertEquals("Person " + i, loaded.get(i).get(30, TimeUnit.SECONDS).getName());
+			}
+			assertEquals(numOfBeans, async.getAll(Person.class).get(30, TimeUnit.SECONDS).size());
+
+			assertTrue(async.delete(added.get(0).get()).get(30, TimeUnit.SECONDS));
+			assertFalse(manager.isResourceExist(added.get(0).get()));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testDefaultExecutor() throws Exception {
+		Person p = new Person();
+		p.setId("johndoe");
+		p.setName("John Doe");
+		Resource r = manager.async().add(p).get(30, TimeUnit.SECONDS);
+		assertEquals("John Doe", manager.async().get(r, Person.class).get(30, TimeUnit.SECONDS).getName());
+	}
+
+	@Test
+	public void testCallerThreadExecutor() throws Exception {
+		Executor sameThread = new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				command.run();
+			}
+		};
+		RepositoryConnection conn = manager.getRepositoryConnection();
+		conn.begin();
+		try {
+			Person p = new Person();
+			p.setId("johndoe");
+			p.setName("John Doe");
+			manager.async(sameThread).add(p).get(30, TimeUnit.SECONDS);
+			// the caller's connection and transaction are kept
+			assertSame(conn, manager.getRepositoryConnection());
+			assertTrue(conn.isActive());
+			conn.commit();
+		} finally {
+			if (conn.isActive()) {
+				conn.rollback();
+			}
+		}
+		assertTrue(manager.isResourceExist(manager.getResource("johndoe", Person.class)));
+	}
+
+	@Test
+	public void testException() throws Exception {
+		try {
+			manager.async().get("johndoe", String.class).get(30, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof RDFBeanValidationException);
+		}
+	}
+}
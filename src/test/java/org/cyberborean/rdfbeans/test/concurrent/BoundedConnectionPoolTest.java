@@ -0,0 +1,248 @@
+package org.cyberborean.rdfbeans.test.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.cyberborean.rdfbeans.RDFBeanManager;
+import org.cyberborean.rdfbeans.UnitOfWork;
+import org.cyberborean.rdfbeans.impl.RepositoryConnectionPool;
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BoundedConnectionPoolTest extends RDFBeansTestBase {
+
+	static final int poolSize = 2;
+	static final int numOfThreads = 8;
+	static final int numOfBeans = 20;
+
+	RepositoryConnectionPool pool;
+	RDFBeanManager boundedManager;
+
+	@Before
+	public void setUp() throws Exception {
+		pool = new RepositoryConnectionPool(repo, poolSize, 200, TimeUnit.MILLISECONDS);
+		boundedManager = new RDFBeanManager(pool);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		boundedManager.close();
+	}
+
+	@Test
+	public void testUnitOfWorkReleasesConnection() throws Exception {
+		final RepositoryConnectionPool singlePool = new RepositoryConnectionPool(repo, 1, 200, TimeUnit.MILLISECONDS);
+		final RDFBeanManager singleManager = new RDFBeanManager(singlePool);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			// the worker thread stays alive after its unit of work
+			executor.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					try (UnitOfWork uow = singleManager.beginUnitOfWork()) {
+						Person p = new Person();
+						p.setId("johndoe");
+						p.setName("John Doe");
+						uow.add(p);
+						uow.commit();
+						assertEquals(1, singlePool.getActiveCount());
+					}
+					return null;
+				}
+			}).get();
+			assertEquals(0, singlePool.getActiveCount());
+			assertEquals(1, singlePool.getIdleCount());
+			// the only connection is available to this thread
+			try (UnitOfWork uow = singleManager.beginUnitOfWork()) {
+				assertEquals("John Doe", uow.get("johndoe", Person.class).getName());
+			}
+			assertEquals(0, singlePool.getActiveCount());
+
+			// a connection held before the unit of work is kept
+			RepositoryConnection conn = singleManager.getRepositoryConnection();
+			try (UnitOfWork uow = singleManager.beginUnitOfWork()) {
+				uow.get("johndoe", Person.class);
+			}
+			assertSame(conn, singleManager.getRepositoryConnection());
+			assertEquals(1, singlePool.getActiveCount());
+		} finally {
+			executor.shutdownNow();
+			singleManager.close();
+		}
+	}
+
+	@Test
+	public void testBoundedUnitsOfWork() throws Exception {
+		pool = new RepositoryConnectionPool(repo, poolSize, 30, TimeUnit.SECONDS);
+		final RDFBeanManager unitManager = new RDFBeanManager(pool);
+		ExecutorService executor = Executors.newFixedThreadPool(numOfThreads);
+		try {
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int t = 0; t < numOfThreads; t++) {
+				final int thread = t;
+				futures.add(executor.submit(new Callable<Integer>() {
+
+					@Override
+					public Integer call() throws Exception {
+						int maxOpen = 0;
+						for (int i = 0; i < numOfBeans; i++) {
+							try {
+								Person p = new Person();
+								p.setId("person" + thread + "-" + i);
+								p.setName("Person " + i);
+								unitManager.add(p);
+								assertNotNull(unitManager.get(p.getId(), Person.class));
+								maxOpen = Math.max(maxOpen, pool.getActiveCount() + pool.getIdleCount());
+							} finally {
+								unitManager.releaseRepositoryConnection();
+							}
+						}
+						return maxOpen;
+					}
+				}));
+			}
+			for (Future<Integer> f : futures) {
+				assertTrue(f.get() <= poolSize);
+			}
+			assertEquals(0, pool.getActiveCount());
+			int count = 0;
+			CloseableIteration<Person, Exception> all = unitManager.getAll(Person.class);
+			while (all.hasNext()) {
+				all.next();
+				count++;
+			}
+			all.close();
+			assertEquals(numOfThreads * numOfBeans, count);
+		} finally {
+			executor.shutdown();
+			unitManager.close();
+		}
+	}
+
+	@Test
+	public void testReuse() throws Exception {
+		RepositoryConnection conn = pool.getConnection();
+		assertSame(conn, pool.getConnection());
+		pool.releaseConnection();
+		assertTrue(conn.isOpen());
+		assertEquals(1, pool.getIdleCount());
+		assertSame(conn, pool.getConnection());
+		assertEquals(0, pool.getIdleCount());
+		assertEquals(1, pool.getActiveCount());
+	}
+
+	@Test
+	public void testReleaseRollsBack() throws Exception {
+		RepositoryConnection conn = boundedManager.getRepositoryConnection();
+		conn.begin();
+		Person p = new Person();
+		p.setId("johndoe");
+		boundedManager.add(p);
+		boundedManager.releaseRepositoryConnection();
+		assertFalse(conn.isActive());
+		assertNull(boundedManager.get("johndoe", Person.class));
+	}
+
+	@Test
+	public void testBorrowTimeout() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+		try {
+			List<Future<RepositoryConnection>> holders = new ArrayList<>();
+			for (int i = 0; i < poolSize; i++) {
+				holders.add(executor.submit(new Callable<RepositoryConnection>() {
+
+					@Override
+					public RepositoryConnection call() throws Exception {
+						return pool.getConnection();
+					}
+				}));
+			}
+			for (Future<RepositoryConnection> f : holders) {
+				f.get();
+			}
+			try {
+				pool.getConnection();
+				fail();
+			} catch (RepositoryException e) {
+				// expected
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testReclaimDeadThreads() throws Exception {
+		for (int i = 0; i < poolSize; i++) {
+			Thread t = new Thread() {
+
+				@Override
+				public void run() {
+					pool.getConnection();
+				}
+			};
+			t.start();
+			t.join();
+		}
+		assertEquals(poolSize, pool.getActiveCount());
+		assertNotNull(pool.getConnection());
+		assertEquals(poolSize, pool.getReclaimedCount());
+		assertEquals(1, pool.getActiveCount());
+	}
+
+	@Test
+	public void testIdleEviction() throws Exception {
+		pool.setIdleTimeout(0, TimeUnit.MILLISECONDS);
+		RepositoryConnection conn = pool.getConnection();
+		pool.releaseConnection();
+		pool.evict();
+		assertEquals(0, pool.getIdleCount());
+		assertEquals(1, pool.getEvictedCount());
+		assertFalse(conn.isOpen());
+	}
+
+	@Test
+	public void testLeakDetection() throws Exception {
+		pool.setLeakDetectionThreshold(1, TimeUnit.MILLISECONDS);
+		pool.getConnection();
+		Thread.sleep(20);
+		pool.evict();
+		pool.evict();
+		assertEquals(1, pool.getLeakCount());
+	}
+
+	@Test
+	public void testThreadAffineRelease() throws Exception {
+		RepositoryConnection conn = manager.getRepositoryConnection();
+		manager.releaseRepositoryConnection();
+		assertFalse(conn.isOpen());
+		assertFalse(conn == manager.getRepositoryConnection());
+		assertFalse(manager.getConnectionPool().isBounded());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSize() throws ExecutionException {
+		new RepositoryConnectionPool(repo, 0, 1, TimeUnit.SECONDS);
+	}
+}
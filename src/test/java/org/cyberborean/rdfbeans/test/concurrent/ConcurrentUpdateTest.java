@@ -0,0 +1,157 @@
+package org.cyberborean.rdfbeans.test.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.cyberborean.rdfbeans.annotations.RDF;
+import org.cyberborean.rdfbeans.annotations.RDFBean;
+import org.cyberborean.rdfbeans.annotations.RDFSubject;
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentUpdateTest extends RDFBeansTestBase {
+
+	static final long TIMEOUT = 30;
+
+	ExecutorService executor;
+
+	@Before
+	public void setUpExecutor() {
+		executor = Executors.newFixedThreadPool(8);
+	}
+
+	@After
+	public void tearDownExecutor() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testIndependentUpdatesRunInParallel() throws Exception {
+		final Item a = new Item("a");
+		final Item b = new Item("b");
+		manager.add(a);
+		manager.add(b);
+
+		// the update of "a" is held up inside the manager ...
+		a.entered = new CountDownLatch(1);
+		a.gate = new CountDownLatch(1);
+		Future<?> updateA = executor.submit(new Callable<Object>() {
+
+			@Override
+			public Object call() throws Exception {
+				return manager.update(a);
+			}
+		});
+		assertTrue(a.entered.await(TIMEOUT, TimeUnit.SECONDS));
+
+		// ... while an update of the unrelated "b" must be able to complete
+		b.setValue("b2");
+		Future<?> updateB = executor.submit(new Callable<Object>() {
+
+			@Override
+			public Object call() throws Exception {
+				return manager.update(b);
+			}
+		});
+		updateB.get(TIMEOUT, TimeUnit.SECONDS);
+
+		a.gate.countDown();
+		updateA.get(TIMEOUT, TimeUnit.SECONDS);
+		assertEquals("b2", manager.get("b", Item.class).getValue());
+	}
+
+	@Test
+	public void testCrossReferencedUpdates() throws Exception {
+		final Item a = new Item("a");
+		final Item b = new Item("b");
+		a.setOther(b);
+		b.setOther(a);
+		manager.add(a);
+
+		// concurrent updates of the cross-referenced objects lock the same
+		// resources in opposite traversal order and must not deadlock
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			final Item item = (i % 2 == 0) ? a : b;
+			futures.add(executor.submit(new Callable<Object>() {
+
+				@Override
+				public Object call() throws Exception {
+					for (int j = 0; j < 50; j++) {
+						manager.update(item);
+						manager.delete(item.getOther().getId(), Item.class);
+					}
+					return null;
+				}
+			}));
+		}
+		for (Future<?> f : futures) {
+			f.get(TIMEOUT, TimeUnit.SECONDS);
+		}
+	}
+
+	@RDFBean("urn:test:concurrent:Item")
+	public static class Item {
+
+		private String id;
+		private String value;
+		private Item other;
+
+		volatile CountDownLatch entered;
+		volatile CountDownLatch gate;
+
+		public Item() {
+		}
+
+		Item(String id) {
+			this.id = id;
+			this.value = id;
+		}
+
+		@RDFSubject(prefix = "urn:test:concurrent:")
+		public String getId() {
+			return id;
+		}
+
+		public void setId(String id) {
+			this.id = id;
+		}
+
+		@RDF("urn:test:concurrent:value")
+		public String getValue() {
+			if (entered != null) {
+				entered.countDown();
+				try {
+					gate.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return value;
+		}
+
+		public void setValue(String value) {
+			this.value = value;
+		}
+
+		@RDF("urn:test:concurrent:other")
+		public Item getOther() {
+			return other;
+		}
+
+		public void setOther(Item other) {
+			this.other = other;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package org.cyberborean.rdfbeans.test.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.cyberborean.rdfbeans.util.LockKeeper;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.Test;
+
+public class LockKeeperTest {
+
+	ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Test
+	public void testStripes() {
+		LockKeeper locks = new LockKeeper(100);
+		assertEquals(128, locks.getStripeCount());
+		IRI r = vf.createIRI("urn:test:r");
+		// equal resources always share a lock
+		assertSame(locks.getLock(r), locks.getLock(vf.createIRI("urn:test:r")));
+		// bounded number of distinct locks
+		for (int i = 0; i < 10000; i++) {
+			locks.getLock(vf.createIRI("urn:test:r" + i));
+		}
+		assertEquals(128, locks.getStripeCount());
+	}
+
+	@Test
+	public void testWriteLockAll() {
+		LockKeeper locks = new LockKeeper(1);
+		List<Lock> acquired = locks.writeLockAll(Arrays.asList(
+				vf.createIRI("urn:test:a"), vf.createIRI("urn:test:b")));
+		// both resources share the only stripe, which is locked once
+		assertEquals(1, acquired.size());
+		locks.unlockAll(acquired);
+		assertTrue(locks.getLock(vf.createIRI("urn:test:a")).writeLock().tryLock());
+	}
+
+	@Test
+	public void testContentionCount() throws Exception {
+		final LockKeeper locks = new LockKeeper();
+		final IRI r = vf.createIRI("urn:test:r");
+		locks.getLock(r).writeLock().lock();
+		final CountDownLatch done = new CountDownLatch(1);
+		Thread reader = new Thread() {
+			public void run() {
+				locks.getLock(r).readLock().lock();
+				locks.getLock(r).readLock().unlock();
+				done.countDown();
+			}
+		};
+		reader.start();
+		while (locks.getReadContentionCount() == 0) {
+			Thread.sleep(10);
+		}
+		locks.getLock(r).writeLock().unlock();
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		assertEquals(1, locks.getReadContentionCount());
+		assertEquals(0, locks.getWriteContentionCount());
+	}
+}
@@ -0,0 +1,177 @@
+package org.cyberborean.rdfbeans.test.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.cyberborean.rdfbeans.test.foafexample.entities.IDocument;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+public class PublisherTest extends RDFBeansTestBase {
+
+	static final int numOfBeans = 30;
+
+	private static final Object COMPLETE = new Object();
+
+	ExecutorService executor;
+
+	@Before
+	public void setUp() throws Exception {
+		executor = Executors.newSingleThreadExecutor();
+		for (int i = 0; i < numOfBeans; i++) {
+			Person p = new Person();
+			p.setId("person" + i);
+			p.setName("Person " + i);
+			manager.add(p);
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		executor.shutdown();
+	}
+
+	@Test
+	public void testRequestOneByOne() throws Exception {
+		QueueSubscriber<Person> subscriber = new QueueSubscriber<>();
+		manager.getAllPublisher(Person.class, executor).subscribe(subscriber);
+		Set<String> names = new HashSet<>();
+		for (int i = 0; i < numOfBeans; i++) {
+			subscriber.subscription.request(1);
+			names.add(((Person) subscriber.take()).getName());
+		}
+		subscriber.subscription.request(1);
+		assertEquals(COMPLETE, subscriber.take());
+		assertEquals(numOfBeans, names.size());
+	}
+
+	@Test
+	public void testDemandAndCancel() throws Exception {
+		QueueSubscriber<Person> subscriber = new QueueSubscriber<>();
+		manager.getAllPublisher(Person.class, executor).subscribe(subscriber);
+		// nothing is read before the first request
+		assertNull(subscriber.signals.poll(200, TimeUnit.MILLISECONDS));
+		subscriber.subscription.request(5);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(subscriber.take() instanceof Person);
+		}
+		assertNull(subscriber.signals.poll(200, TimeUnit.MILLISECONDS));
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(5);
+		assertNull(subscriber.signals.poll(200, TimeUnit.MILLISECONDS));
+
+		// the emitting thread is free again after the cancellation
+		QueueSubscriber<Person> next = new QueueSubscriber<>();
+		manager.getAllPublisher(Person.class, executor).subscribe(next);
+		next.subscription.request(Long.MAX_VALUE);
+		for (int i = 0; i < numOfBeans; i++) {
+			assertTrue(next.take() instanceof Person);
+		}
+		assertEquals(COMPLETE, next.take());
+	}
+
+	@Test
+	public void testCreateAllPublisher() throws Exception {
+		for (int i = 0; i < numOfBeans; i++) {
+			manager.create("http://example.com/doc" + i, IDocument.class).setName("Document " + i);
+		}
+		QueueSubscriber<IDocument> subscriber = new QueueSubscriber<>();
+		manager.createAllPublisher(IDocument.class, executor).subscribe(subscriber);
+		subscriber.subscription.request(Long.MAX_VALUE);
+		Set<String> names = new HashSet<>();
+		for (int i = 0; i < numOfBeans; i++) {
+			names.add(((IDocument) subscriber.take()).getName());
+		}
+		assertEquals(COMPLETE, subscriber.take());
+		assertEquals(numOfBeans, names.size());
+	}
+
+	@Test
+	public void testCallerThreadExecutor() throws Exception {
+		Executor sameThread = new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				command.run();
+			}
+		};
+		RepositoryConnection conn = manager.getRepositoryConnection();
+		conn.begin();
+		try {
+			QueueSubscriber<Person> subscriber = new QueueSubscriber<Person>() {
+
+				@Override
+				public void onSubscribe(Subscription s) {
+					super.onSubscribe(s);
+					s.request(Long.MAX_VALUE);
+				}
+			};
+			manager.getAllPublisher(Person.class, sameThread).subscribe(subscriber);
+			assertEquals(numOfBeans + 1, subscriber.signals.size());
+			// the subscriber's connection and transaction are kept
+			assertSame(conn, manager.getRepositoryConnection());
+			assertTrue(conn.isActive());
+		} finally {
+			conn.rollback();
+		}
+	}
+
+	@Test
+	public void testBadRequest() throws Exception {
+		QueueSubscriber<Person> subscriber = new QueueSubscriber<>();
+		manager.getAllPublisher(Person.class, executor).subscribe(subscriber);
+		subscriber.subscription.request(0);
+		assertTrue(subscriber.take() instanceof IllegalArgumentException);
+	}
+
+	static class QueueSubscriber<T> implements Subscriber<T> {
+
+		final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+		volatile Subscription subscription;
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			subscription = s;
+		}
+
+		@Override
+		public void onNext(T t) {
+			signals.add(t);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			signals.add(t);
+		}
+
+		@Override
+		public void onComplete() {
+			signals.add(COMPLETE);
+		}
+
+		Object take() throws InterruptedException {
+			Object signal = signals.poll(30, TimeUnit.SECONDS);
+			if (signal == null) {
+				throw new AssertionError("No signal received");
+			}
+			return signal;
+		}
+	}
+}
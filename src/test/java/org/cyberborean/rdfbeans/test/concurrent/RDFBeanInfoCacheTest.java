@@ -0,0 +1,87 @@
+package org.cyberborean.rdfbeans.test.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.cyberborean.rdfbeans.annotations.RDF;
+import org.cyberborean.rdfbeans.annotations.RDFBean;
+import org.cyberborean.rdfbeans.annotations.RDFSubject;
+import org.cyberborean.rdfbeans.exceptions.RDFBeanValidationException;
+import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.junit.Test;
+
+public class RDFBeanInfoCacheTest {
+
+	static final int numOfThreads = 16;
+
+	@Test
+	public void testConcurrentFirstLookup() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(numOfThreads);
+		try {
+			final CountDownLatch start = new CountDownLatch(1);
+			List<Future<RDFBeanInfo>> results = new ArrayList<>();
+			for (int i = 0; i < numOfThreads; i++) {
+				results.add(executor.submit(new Callable<RDFBeanInfo>() {
+
+					@Override
+					public RDFBeanInfo call() throws Exception {
+						start.await();
+						return RDFBeanInfo.get(Bean.class);
+					}
+				}));
+			}
+			start.countDown();
+			RDFBeanInfo rbi = RDFBeanInfo.get(Bean.class);
+			for (Future<RDFBeanInfo> result : results) {
+				assertSame(rbi, result.get());
+			}
+			assertNotNull(rbi.getProperty("value"));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFailureIsNotCached() throws Exception {
+		for (int i = 0; i < 2; i++) {
+			try {
+				RDFBeanInfo.get(String.class);
+				fail();
+			} catch (RDFBeanValidationException e) {
+				// expected
+			}
+		}
+	}
+
+	@RDFBean("urn:test:cache:Bean")
+	public static class Bean {
+
+		private String id;
+		private String value;
+
+		@RDFSubject(prefix = "urn:test:cache:")
+		public String getId() {
+			return id;
+		}
+
+		public void setId(String id) {
+			this.id = id;
+		}
+
+		@RDF("urn:test:cache:value")
+		public String getValue() {
+			return value;
+		}
+
+		public void setValue(String value) {
+			this.value = value;
+		}
+	}
+}
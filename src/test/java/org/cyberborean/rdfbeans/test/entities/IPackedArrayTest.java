@@ -0,0 +1,33 @@
+package org.cyberborean.rdfbeans.test.entities;
+
+import java.util.List;
+
+import org.cyberborean.rdfbeans.annotations.RDF;
+import org.cyberborean.rdfbeans.annotations.RDFBean;
+import org.cyberborean.rdfbeans.annotations.RDFContainer;
+import org.cyberborean.rdfbeans.annotations.RDFContainer.ContainerType;
+import org.cyberborean.rdfbeans.annotations.RDFSubject;
+
+@RDFBean("http://cyberborean.org/rdfbeans/2.0/test/datatype/PackedArrayTestClass")
+public interface IPackedArrayTest {
+
+	@RDFSubject
+	String getID();
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/ints")
+	@RDFContainer(ContainerType.PACKED)
+	int[] getInts();
+
+	void setInts(int[] ints);
+
+	int getInts(int index);
+
+	void setInts(int index, int value);
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/intList")
+	@RDFContainer(ContainerType.PACKED)
+	List<Integer> getIntList();
+
+	void setIntList(List<Integer> intList);
+
+}
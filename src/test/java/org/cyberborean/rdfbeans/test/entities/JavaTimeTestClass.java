@@ -0,0 +1,87 @@
+package org.cyberborean.rdfbeans.test.entities;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.cyberborean.rdfbeans.annotations.RDF;
+import org.cyberborean.rdfbeans.annotations.RDFBean;
+import org.cyberborean.rdfbeans.annotations.RDFSubject;
+
+@RDFBean("http://cyberborean.org/rdfbeans/2.0/test/datatype/JavaTimeTestClass")
+public class JavaTimeTestClass {
+
+	Instant instant;
+	OffsetDateTime offsetDateTime;
+	LocalDateTime localDateTime;
+	LocalDate localDate;
+	Duration duration;
+	List<Instant> instants;
+
+	@RDFSubject
+	public String getID() {
+		return "http://cyberborean.org/rdfbeans/2.0/test/datatype/javaTimeInstance";
+	}
+
+	public void setID(String id) {
+		//no-op
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/instant")
+	public Instant getInstant() {
+		return instant;
+	}
+
+	public void setInstant(Instant instant) {
+		this.instant = instant;
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/offsetDateTime")
+	public OffsetDateTime getOffsetDateTime() {
+		return offsetDateTime;
+	}
+
+	public void setOffsetDateTime(OffsetDateTime offsetDateTime) {
+		this.offsetDateTime = offsetDateTime;
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/localDateTime")
+	public LocalDateTime getLocalDateTime() {
+		return localDateTime;
+	}
+
+	public void setLocalDateTime(LocalDateTime localDateTime) {
+		this.localDateTime = localDateTime;
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/localDate")
+	public LocalDate getLocalDate() {
+		return localDate;
+	}
+
+	public void setLocalDate(LocalDate localDate) {
+		this.localDate = localDate;
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/duration")
+	public Duration getDuration() {
+		return duration;
+	}
+
+	public void setDuration(Duration duration) {
+		this.duration = duration;
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/instants")
+	public List<Instant> getInstants() {
+		return instants;
+	}
+
+	public void setInstants(List<Instant> instants) {
+		this.instants = instants;
+	}
+
+}
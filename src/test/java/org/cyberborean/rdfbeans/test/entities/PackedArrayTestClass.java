@@ -0,0 +1,101 @@
+package org.cyberborean.rdfbeans.test.entities;
+
+import java.util.List;
+
+import org.cyberborean.rdfbeans.annotations.RDF;
+import org.cyberborean.rdfbeans.annotations.RDFBean;
+import org.cyberborean.rdfbeans.annotations.RDFContainer;
+import org.cyberborean.rdfbeans.annotations.RDFContainer.ContainerType;
+import org.cyberborean.rdfbeans.annotations.RDFSubject;
+
+@RDFBean("http://cyberborean.org/rdfbeans/2.0/test/datatype/PackedArrayTestClass")
+public class PackedArrayTestClass {
+
+	byte[] bytes;
+	short[] shorts;
+	int[] ints;
+	long[] longs;
+	float[] floats;
+	double[] doubles;
+	List<Integer> intList;
+
+	@RDFSubject
+	public String getID() {
+		return "http://cyberborean.org/rdfbeans/2.0/test/datatype/packedArrayInstance";
+	}
+
+	public void setID(String id) {
+		//no-op
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/bytes")
+	@RDFContainer(ContainerType.PACKED)
+	public byte[] getBytes() {
+		return bytes;
+	}
+
+	public void setBytes(byte[] bytes) {
+		this.bytes = bytes;
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/shorts")
+	@RDFContainer(ContainerType.PACKED)
+	public short[] getShorts() {
+		return shorts;
+	}
+
+	public void setShorts(short[] shorts) {
+		this.shorts = shorts;
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/ints")
+	@RDFContainer(ContainerType.PACKED)
+	public int[] getInts() {
+		return ints;
+	}
+
+	public void setInts(int[] ints) {
+		this.ints = ints;
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/longs")
+	@RDFContainer(ContainerType.PACKED)
+	public long[] getLongs() {
+		return longs;
+	}
+
+	public void setLongs(long[] longs) {
+		this.longs = longs;
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/floats")
+	@RDFContainer(ContainerType.PACKED)
+	public float[] getFloats() {
+		return floats;
+	}
+
+	public void setFloats(float[] floats) {
+		this.floats = floats;
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/doubles")
+	@RDFContainer(ContainerType.PACKED)
+	public double[] getDoubles() {
+		return doubles;
+	}
+
+	public void setDoubles(double[] doubles) {
+		this.doubles = doubles;
+	}
+
+	@RDF("http://cyberborean.org/rdfbeans/2.0/test/datatype/intList")
+	@RDFContainer(ContainerType.PACKED)
+	public List<Integer> getIntList() {
+		return intList;
+	}
+
+	public void setIntList(List<Integer> intList) {
+		this.intList = intList;
+	}
+
+}
@@ -106,6 +106,14 @@ public class ExampleClassTest extends RDFBeansTestBase {
         checkIsJohn(p2);
     }        
     
+    @Test
+    public void testGetNonExistent() throws Exception {
+        assertNull(manager.get("nobody", Person.class));
+        manager.delete(subject);
+        assertNull(manager.get(subject, Person.class));
+        assertNull(manager.get(john.getId(), Person.class));
+    }
+    
     @Test
     public void testGetAll() throws Exception {                
         CloseableIteration<Person, Exception> iter = manager.getAll(Person.class);
@@ -6,6 +6,7 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
@@ -13,7 +14,9 @@ import org.cyberborean.rdfbeans.test.foafexample.entities.IDocument;
 import org.cyberborean.rdfbeans.test.foafexample.entities.IPerson;
 import org.junit.Before;
 import org.junit.Test;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.repository.RepositoryException;
 
 /**
  * A synthetic test for cascade proxy databinding and Constants interfaces inheritance
@@ -144,5 +147,32 @@ public class FOAFExampleProxyTest extends RDFBeansTestBase {
     		assertTrue(p.equals(john) || p.equals(mary) || p.equals(jim));
     	}
     }
+    
+    @Test
+    public void testCreateAllIterator() throws Exception {
+    	CloseableIteration<IPerson, RepositoryException> iter = manager.createAllIterator(IPerson.class);
+    	Set<IPerson> all = new HashSet<IPerson>();
+    	try {
+    		while (iter.hasNext()) {
+    			IPerson p = iter.next();
+    			assertTrue(p == john || p == mary || p == jim);
+    			all.add(p);
+    		}
+    	} finally {
+    		iter.close();
+    	}
+    	assertEquals(all.size(), 3);
+    }
+    
+    @Test
+    public void testCreateAllResources() throws Exception {
+    	List<Resource> resources = Arrays.asList(
+    			manager.getResource("jimsmith", IPerson.class),
+    			manager.getResource("johndoe", IPerson.class));
+    	List<IPerson> persons = manager.createAll(resources, IPerson.class);
+    	assertEquals(persons.size(), 2);
+    	assertSame(persons.get(0), jim);
+    	assertSame(persons.get(1), john);
+    }
    
 }
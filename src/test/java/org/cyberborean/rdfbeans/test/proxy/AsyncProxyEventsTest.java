@@ -0,0 +1,203 @@
+package org.cyberborean.rdfbeans.test.proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cyberborean.rdfbeans.proxy.AsyncProxyEventDispatcher;
+import org.cyberborean.rdfbeans.proxy.AsyncProxyEventDispatcher.BackpressurePolicy;
+import org.cyberborean.rdfbeans.proxy.BatchProxyListener;
+import org.cyberborean.rdfbeans.proxy.ProxyEvent;
+import org.cyberborean.rdfbeans.proxy.ProxyEventDispatcher;
+import org.cyberborean.rdfbeans.proxy.ProxyListener;
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.cyberborean.rdfbeans.test.examples.entities.IPerson;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.Test;
+
+public class AsyncProxyEventsTest extends RDFBeansTestBase {
+
+	@Test
+	public void testBatchedDelivery() throws Exception {
+		AsyncProxyEventDispatcher dispatcher = new AsyncProxyEventDispatcher(100, 10, BackpressurePolicy.BLOCK);
+		manager.setProxyEventDispatcher(dispatcher);
+		RecordingListener listener = new RecordingListener();
+		manager.addProxyListener(listener);
+
+		IPerson john = manager.create("johndoe", IPerson.class);
+		for (int i = 0; i < 20; i++) {
+			john.setName("John Doe " + i);
+		}
+		dispatcher.close();
+
+		assertEquals(21, listener.events.size());
+		assertEquals(ProxyEvent.Type.OBJECT_CREATED, listener.events.get(0).getType());
+		assertSame(john, listener.events.get(0).getObject());
+		assertEquals("John Doe 19", listener.events.get(20).getNewValue());
+		assertEquals(21, dispatcher.getDeliveredCount());
+		assertEquals(0, dispatcher.getQueueDepth());
+		assertTrue(listener.batches > 1);
+	}
+
+	@Test
+	public void testCoalesce() throws Exception {
+		// events are only coalesced while the queue is full
+		AsyncProxyEventDispatcher dispatcher = new AsyncProxyEventDispatcher(1, 100, BackpressurePolicy.COALESCE);
+		manager.setProxyEventDispatcher(dispatcher);
+		RecordingListener listener = new RecordingListener();
+		IPerson john = manager.create("johndoe", IPerson.class);
+
+		// hold up the dispatcher thread until all events are queued
+		listener.block = true;
+		manager.addProxyListener(listener);
+		john.setEmail("johndoe@example.com");
+		synchronized (listener) {
+			while (!listener.blocked) {
+				listener.wait();
+			}
+		}
+		for (int i = 0; i < 20; i++) {
+			john.setName("John Doe " + i);
+		}
+		synchronized (listener) {
+			listener.block = false;
+			listener.notifyAll();
+		}
+		dispatcher.close();
+
+		assertEquals(2, listener.events.size());
+		assertEquals("John Doe 19", listener.events.get(1).getNewValue());
+		assertEquals(19, dispatcher.getCoalescedCount());
+	}
+
+	@Test
+	public void testCoalesceKeepsOrder() throws Exception {
+		AsyncProxyEventDispatcher dispatcher = new AsyncProxyEventDispatcher(100, 100, BackpressurePolicy.COALESCE);
+		manager.setProxyEventDispatcher(dispatcher);
+		RecordingListener listener = new RecordingListener();
+		IPerson john = manager.create("johndoe", IPerson.class);
+		manager.addProxyListener(listener);
+		john.setName("John");
+		john.setEmail("johndoe@example.com");
+		john.setName("John Doe");
+		dispatcher.close();
+
+		assertEquals(3, listener.events.size());
+		assertEquals("John", listener.events.get(0).getNewValue());
+		assertEquals("johndoe@example.com", listener.events.get(1).getNewValue());
+		assertEquals("John Doe", listener.events.get(2).getNewValue());
+		assertEquals(0, dispatcher.getCoalescedCount());
+	}
+
+	@Test
+	public void testClosed() throws Exception {
+		AsyncProxyEventDispatcher dispatcher = new AsyncProxyEventDispatcher(100, 100, BackpressurePolicy.BLOCK);
+		manager.setProxyEventDispatcher(dispatcher);
+		RecordingListener listener = new RecordingListener();
+		manager.addProxyListener(listener);
+		IPerson john = manager.create("johndoe", IPerson.class);
+		dispatcher.close();
+
+		// the setter writes its value and the event is dropped
+		john.setName("John Doe");
+		assertEquals("John Doe", manager.create("johndoe", IPerson.class).getName());
+		assertEquals(1, listener.events.size());
+		assertEquals(1, dispatcher.getDroppedCount());
+	}
+
+	@Test
+	public void testCloseSharedDispatcher() throws Exception {
+		final AtomicInteger closed = new AtomicInteger();
+		manager.setProxyEventDispatcher(new ProxyEventDispatcher() {
+
+			@Override
+			public void dispatch(ProxyEvent event, List<ProxyListener> listeners) {
+			}
+
+			@Override
+			public void close() {
+				closed.incrementAndGet();
+			}
+		});
+		manager.getContext(SimpleValueFactory.getInstance().createIRI("http://example.com/graph1"));
+		manager.getContext(SimpleValueFactory.getInstance().createIRI("http://example.com/graph2"));
+		manager.close();
+		assertEquals(1, closed.get());
+	}
+
+	@Test
+	public void testFailingListener() throws Exception {
+		AsyncProxyEventDispatcher dispatcher = new AsyncProxyEventDispatcher(100, 100, BackpressurePolicy.BLOCK);
+		manager.setProxyEventDispatcher(dispatcher);
+		final List<Object> values = Collections.synchronizedList(new ArrayList<Object>());
+		manager.addProxyListener(new ProxyListener() {
+
+			@Override
+			public void objectCreated(Object object, Class<?> cls, Resource resource) {
+			}
+
+			@Override
+			public void objectPropertyChanged(Object object, IRI property, Object newValue) {
+				if ("John Doe 1".equals(newValue)) {
+					throw new IllegalStateException();
+				}
+				if ("John Doe 2".equals(newValue)) {
+					throw new AssertionError();
+				}
+				values.add(newValue);
+			}
+		});
+
+		IPerson john = manager.create("johndoe", IPerson.class);
+		for (int i = 0; i < 4; i++) {
+			john.setName("John Doe " + i);
+		}
+		dispatcher.close();
+
+		// the failures do not drop the other events of the batch
+		assertEquals(2, dispatcher.getFailedCount());
+		assertEquals(5, dispatcher.getDeliveredCount());
+		assertEquals(2, values.size());
+		assertEquals("John Doe 3", values.get(1));
+	}
+
+	static class RecordingListener implements BatchProxyListener {
+
+		final List<ProxyEvent> events = Collections.synchronizedList(new ArrayList<ProxyEvent>());
+		int batches = 0;
+		boolean block = false;
+		boolean blocked = false;
+
+		@Override
+		public void objectCreated(Object object, Class<?> cls, Resource resource) {
+			events.add(ProxyEvent.objectCreated(object, cls, resource));
+		}
+
+		@Override
+		public void objectPropertyChanged(Object object, IRI property, Object newValue) {
+			events.add(ProxyEvent.objectPropertyChanged(object, property, newValue));
+		}
+
+		@Override
+		public synchronized void proxyEvents(List<ProxyEvent> batch) {
+			batches++;
+			events.addAll(batch);
+			blocked = true;
+			notifyAll();
+			while (block) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}
+	}
+}
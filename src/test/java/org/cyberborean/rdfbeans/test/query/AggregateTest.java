@@ -0,0 +1,57 @@
+package org.cyberborean.rdfbeans.test.query;
+
+import static org.cyberborean.rdfbeans.query.Criterion.*;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.cyberborean.rdfbeans.query.Aggregate;
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.cyberborean.rdfbeans.test.query.entities.Employee;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AggregateTest extends RDFBeansTestBase {
+
+	static final int numOfBeans = 10;
+
+	@Before
+	public void setUp() throws Exception {
+		for (int i = 0; i < numOfBeans; i++) {
+			Employee e = new Employee();
+			e.setId("employee" + i);
+			e.setDepartment(i < 4 ? "Sales" : "Research");
+			e.setAge(20 + i);
+			e.setSalary(1000.0 * (i + 1));
+			manager.add(e);
+		}
+	}
+
+	@Test
+	public void testCount() throws Exception {
+		assertEquals(numOfBeans, manager.count(Employee.class));
+		assertEquals(4, manager.count(Employee.class, "department", "Sales"));
+		assertEquals(0, manager.count(Employee.class, "department", "Marketing"));
+		assertEquals(3, manager.query(Employee.class).where("age", ge(27)).count());
+		assertEquals(0, manager.count(Person.class));
+	}
+
+	@Test
+	public void testAggregate() throws Exception {
+		// ages 20..29
+		assertEquals(BigInteger.valueOf(245), manager.aggregate(Employee.class, "age", Aggregate.SUM));
+		assertEquals(20, manager.aggregate(Employee.class, "age", Aggregate.MIN));
+		assertEquals(29, manager.aggregate(Employee.class, "age", Aggregate.MAX));
+		assertEquals(0, new BigDecimal("24.5").compareTo((BigDecimal) manager.aggregate(Employee.class, "age", Aggregate.AVG)));
+		assertEquals(10000.0, (Double) manager.query(Employee.class).where("department", eq("Sales"))
+				.aggregate("salary", Aggregate.SUM), 0.001);
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		assertNull(manager.query(Employee.class).where("age", gt(100)).aggregate("age", Aggregate.MAX));
+		assertEquals(BigInteger.ZERO, manager.query(Employee.class).where("age", gt(100)).aggregate("age", Aggregate.SUM));
+	}
+}
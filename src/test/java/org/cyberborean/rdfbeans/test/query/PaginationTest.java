@@ -0,0 +1,126 @@
+package org.cyberborean.rdfbeans.test.query;
+
+import static org.cyberborean.rdfbeans.query.Criterion.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cyberborean.rdfbeans.datatype.EnumTest.Status;
+import org.cyberborean.rdfbeans.datatype.EnumTest.Task;
+import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
+import org.cyberborean.rdfbeans.query.Page;
+import org.cyberborean.rdfbeans.reflect.RDFEnumInfo;
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PaginationTest extends RDFBeansTestBase {
+
+	static final int numOfBeans = 25;
+	static final int pageSize = 10;
+
+	@Before
+	public void setUp() throws Exception {
+		for (int i = 0; i < numOfBeans; i++) {
+			Person p = new Person();
+			p.setId(String.format("person%02d", i));
+			// names in the reverse order of IDs, with duplicates
+			p.setName(String.format("Person %02d", (numOfBeans - i) / 2));
+			manager.add(p);
+		}
+		// anonymous beans are not paged
+		Person anonymous = new Person();
+		anonymous.setName("Anonymous");
+		manager.add(anonymous);
+	}
+
+	@Test
+	public void testSubjectOrder() throws Exception {
+		List<String> ids = new ArrayList<>();
+		String token = null;
+		int pages = 0;
+		do {
+			Page<Person> page = manager.getPage(Person.class, pageSize, token);
+			for (Person p : page.getItems()) {
+				ids.add(p.getId());
+			}
+			token = page.getContinuationToken();
+			pages++;
+		} while (token != null);
+		assertEquals(3, pages);
+		assertEquals(numOfBeans, ids.size());
+		for (int i = 0; i < numOfBeans; i++) {
+			assertEquals(String.format("person%02d", i), ids.get(i));
+		}
+	}
+
+	@Test
+	public void testPropertyOrder() throws Exception {
+		List<Person> persons = new ArrayList<>();
+		String token = null;
+		do {
+			Page<Person> page = manager.query(Person.class).where("name", regex("^Person")).page("name", pageSize, token);
+			assertTrue(page.getItems().size() <= pageSize);
+			persons.addAll(page.getItems());
+			token = page.getContinuationToken();
+		} while (token != null);
+		assertEquals(numOfBeans, persons.size());
+		for (int i = 1; i < numOfBeans; i++) {
+			Person prev = persons.get(i - 1);
+			Person p = persons.get(i);
+			int cmp = prev.getName().compareTo(p.getName());
+			assertTrue(cmp < 0 || (cmp == 0 && prev.getId().compareTo(p.getId()) < 0));
+		}
+	}
+
+	@Test
+	public void testEnumOrder() throws Exception {
+		Status[] statuses = Status.values();
+		int numOfTasks = 9;
+		for (int i = 0; i < numOfTasks; i++) {
+			Task t = new Task();
+			t.setId("http://example.com/task" + i);
+			t.setStatus(statuses[i % statuses.length]);
+			manager.add(t);
+		}
+		List<Task> tasks = new ArrayList<>();
+		String token = null;
+		do {
+			Page<Task> page = manager.query(Task.class).page("status", 2, token);
+			tasks.addAll(page.getItems());
+			token = page.getContinuationToken();
+		} while (token != null);
+		assertEquals(numOfTasks, tasks.size());
+		for (int i = 1; i < numOfTasks; i++) {
+			String prev = RDFEnumInfo.get(Status.class).getValue(tasks.get(i - 1).getStatus()).stringValue();
+			String cur = RDFEnumInfo.get(Status.class).getValue(tasks.get(i).getStatus()).stringValue();
+			int cmp = prev.compareTo(cur);
+			assertTrue(cmp < 0 || (cmp == 0 && tasks.get(i - 1).getId().compareTo(tasks.get(i).getId()) < 0));
+		}
+	}
+
+	@Test
+	public void testLastPage() throws Exception {
+		Page<Person> page = manager.getPage(Person.class, numOfBeans, null);
+		assertEquals(numOfBeans, page.getItems().size());
+		assertFalse(page.hasNext());
+	}
+
+	@Test(expected = RDFBeanException.class)
+	public void testTokenOfOtherOrdering() throws Exception {
+		String token = manager.getPage(Person.class, pageSize, null).getContinuationToken();
+		manager.query(Person.class).page("name", pageSize, token);
+	}
+
+	@Test(expected = RDFBeanException.class)
+	public void testMultiValuedSortProperty() throws Exception {
+		manager.query(Person.class).page("knows.name", pageSize, null);
+	}
+
+	@Test(expected = RDFBeanException.class)
+	public void testInvalidToken() throws Exception {
+		manager.getPage(Person.class, pageSize, "not a token!");
+	}
+}
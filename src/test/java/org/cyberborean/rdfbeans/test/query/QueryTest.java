@@ -0,0 +1,149 @@
+package org.cyberborean.rdfbeans.test.query;
+
+import static org.cyberborean.rdfbeans.query.Criterion.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.cyberborean.rdfbeans.RDFBeanManagerContext;
+import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryTest extends RDFBeansTestBase {
+
+	static final int numOfBeans = 20;
+
+	Person john;
+
+	private static Date year(int year) {
+		Calendar c = Calendar.getInstance();
+		c.clear();
+		c.set(year, 0, 1);
+		return c.getTime();
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		john = new Person();
+		john.setId("johndoe");
+		john.setName("John Doe");
+		for (int i = 0; i < numOfBeans; i++) {
+			Person p = new Person();
+			p.setId("person" + i);
+			p.setName(String.format("Person %02d", i));
+			p.setBirthday(year(1980 + i));
+			if (i % 2 == 0) {
+				p.setKnows(Collections.singleton(john));
+			}
+			manager.add(p);
+		}
+	}
+
+	private static List<String> names(List<Person> persons) {
+		List<String> names = new ArrayList<>();
+		for (Person p : persons) {
+			names.add(p.getName());
+		}
+		return names;
+	}
+
+	@Test
+	public void testEq() throws Exception {
+		List<Person> result = manager.query(Person.class).where("name", eq("Person 05")).list();
+		assertEquals(1, result.size());
+		assertEquals("person5", result.get(0).getId());
+	}
+
+	@Test
+	public void testRangeOrderLimit() throws Exception {
+		List<Person> result = manager.query(Person.class)
+				.where("birthday", ge(year(1990)))
+				.where("birthday", lt(year(1995)))
+				.orderByDesc("name")
+				.limit(3)
+				.list();
+		assertEquals(names(result).toString(), 3, result.size());
+		assertEquals("Person 14", result.get(0).getName());
+		assertEquals("Person 13", result.get(1).getName());
+		assertEquals("Person 12", result.get(2).getName());
+
+		result = manager.query(Person.class)
+				.where("birthday", ge(year(1990)))
+				.where("birthday", lt(year(1995)))
+				.orderByDesc("name")
+				.offset(3)
+				.list();
+		assertEquals(2, result.size());
+		assertEquals("Person 11", result.get(0).getName());
+	}
+
+	@Test
+	public void testInRegexNe() throws Exception {
+		assertEquals(3, manager.query(Person.class).where("name", in("Person 01", "Person 02", "John Doe")).list().size());
+		assertEquals(10, manager.query(Person.class).where("name", regex("^Person 1")).list().size());
+		assertEquals(numOfBeans, manager.query(Person.class).where("name", ne("John Doe")).list().size());
+	}
+
+	@Test
+	public void testPath() throws Exception {
+		List<Person> result = manager.query(Person.class)
+				.where("knows.name", eq("John Doe"))
+				.orderBy("name")
+				.list();
+		assertEquals(numOfBeans / 2, result.size());
+		assertEquals("Person 00", result.get(0).getName());
+		assertEquals(numOfBeans / 2, manager.query(Person.class).where("knows", eq(john)).list().size());
+	}
+
+	@Test
+	public void testStream() throws Exception {
+		try (Stream<Person> stream = manager.query(Person.class).orderBy("name").stream()) {
+			List<String> names = stream.map(new java.util.function.Function<Person, String>() {
+
+				@Override
+				public String apply(Person p) {
+					return p.getName();
+				}
+			}).collect(Collectors.<String>toList());
+			assertEquals(numOfBeans + 1, names.size());
+			assertEquals("John Doe", names.get(0));
+		}
+	}
+
+	@Test
+	public void testContext() throws Exception {
+		RDFBeanManagerContext ctx = manager.getContext(SimpleValueFactory.getInstance().createIRI("urn:context:1"));
+		Person p = new Person();
+		p.setId("person0");
+		p.setName("Context Person");
+		ctx.add(p);
+		assertEquals(1, ctx.query(Person.class).list().size());
+		assertEquals("Person 00", manager.query(Person.class).where("name", regex("^Person 00")).list().get(0).getName());
+		assertEquals(numOfBeans + 1, manager.query(Person.class).list().size());
+	}
+
+	@Test(expected = RDFBeanException.class)
+	public void testUnknownProperty() throws Exception {
+		manager.query(Person.class).where("age", gt(30));
+	}
+
+	@Test(expected = RDFBeanException.class)
+	public void testContainerProperty() throws Exception {
+		manager.query(Person.class).where("nick", eq("johnny"));
+	}
+
+	@Test(expected = RDFBeanException.class)
+	public void testMultiValuedOrder() throws Exception {
+		manager.query(Person.class).orderBy("knows.name");
+	}
+}
@@ -0,0 +1,53 @@
+package org.cyberborean.rdfbeans.test.query.entities;
+
+import org.cyberborean.rdfbeans.annotations.RDF;
+import org.cyberborean.rdfbeans.annotations.RDFBean;
+import org.cyberborean.rdfbeans.annotations.RDFNamespaces;
+import org.cyberborean.rdfbeans.annotations.RDFSubject;
+
+@RDFNamespaces({ "ex = http://example.com/ns#", "employees = http://example.com/employees/" })
+@RDFBean("ex:Employee")
+public class Employee {
+
+	private String id;
+	private String department;
+	private int age;
+	private double salary;
+
+	@RDFSubject(prefix = "employees:")
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	@RDF("ex:department")
+	public String getDepartment() {
+		return department;
+	}
+
+	public void setDepartment(String department) {
+		this.department = department;
+	}
+
+	@RDF("ex:age")
+	public int getAge() {
+		return age;
+	}
+
+	public void setAge(int age) {
+		this.age = age;
+	}
+
+	@RDF("ex:salary")
+	public double getSalary() {
+		return salary;
+	}
+
+	public void setSalary(double salary) {
+		this.salary = salary;
+	}
+
+}
@@ -0,0 +1,82 @@
+package org.cyberborean.rdfbeans.test.rdfbeanmanager;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.cyberborean.rdfbeans.test.foafexample.entities.IDocument;
+import org.cyberborean.rdfbeans.test.query.entities.Employee;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.Test;
+
+public class DeleteAllTest extends RDFBeansTestBase {
+
+	// more than one delete batch
+	static final int numOfBeans = 2500;
+
+	@Test
+	public void testDeleteAllByType() throws Exception {
+		Person john = new Person();
+		john.setId("johndoe");
+		Resource johnResource = manager.add(john);
+		for (int i = 0; i < numOfBeans; i++) {
+			Employee e = new Employee();
+			e.setId("employee" + i);
+			manager.add(e);
+		}
+		assertEquals(numOfBeans, manager.count(Employee.class));
+		assertEquals(numOfBeans, manager.deleteAll(Employee.class));
+		assertEquals(0, manager.count(Employee.class));
+		assertTrue(manager.isResourceExist(johnResource));
+	}
+
+	@Test
+	public void testDeleteAllResources() throws Exception {
+		List<Resource> resources = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Person p = new Person();
+			p.setId("person" + i);
+			if (i > 0) {
+				p.setKnows(Collections.singleton(manager.get("person" + (i - 1), Person.class)));
+			}
+			Resource r = manager.add(p);
+			if (i % 2 == 0) {
+				resources.add(r);
+			}
+		}
+		resources.add(SimpleValueFactory.getInstance().createIRI("urn:nonexistent"));
+		assertEquals(5, manager.deleteAll(resources));
+		assertEquals(5, manager.count(Person.class));
+		for (Resource r : resources) {
+			assertFalse(manager.isResourceExist(r));
+		}
+		// references to the deleted resources are removed too
+		assertNull(manager.get("person1", Person.class).getKnows());
+	}
+
+	@Test
+	public void testPurgeProxies() throws Exception {
+		IDocument doc = manager.create("http://example.com/doc", IDocument.class);
+		doc.setName("Doc");
+		assertEquals(1, manager.deleteAll(IDocument.class));
+		assertNotSame(doc, manager.create("http://example.com/doc", IDocument.class));
+	}
+
+	@Test
+	public void testActiveTransaction() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			Employee e = new Employee();
+			e.setId("employee" + i);
+			manager.add(e);
+		}
+		manager.getRepositoryConnection().begin();
+		manager.deleteAll(Employee.class);
+		manager.getRepositoryConnection().rollback();
+		assertEquals(10, manager.count(Employee.class));
+	}
+}
@@ -0,0 +1,170 @@
+package org.cyberborean.rdfbeans.test.rdfbeanmanager;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.cyberborean.rdfbeans.RDFBeanManager;
+import org.cyberborean.rdfbeans.UnitOfWork;
+import org.cyberborean.rdfbeans.exceptions.RDFBeanException;
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.cyberborean.rdfbeans.test.examples.entities.IPerson;
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.Test;
+
+public class UnitOfWorkTest extends RDFBeansTestBase {
+
+	static final int numOfBeans = 10;
+
+	private Person person(String id, String name) {
+		Person p = new Person();
+		p.setId(id);
+		p.setName(name);
+		p.setEmail(id + "@example.com");
+		return p;
+	}
+
+	@Test
+	public void testCommit() throws Exception {
+		try (UnitOfWork uow = manager.beginUnitOfWork()) {
+			for (int i = 0; i < numOfBeans; i++) {
+				uow.add(person("person" + i, "Person " + i));
+			}
+			assertNull(manager.get("person0", Person.class));
+			assertEquals("Person 0", uow.get("person0", Person.class).getName());
+			assertTrue(uow.hasChanges());
+			uow.commit();
+			assertFalse(uow.hasChanges());
+		}
+		for (int i = 0; i < numOfBeans; i++) {
+			assertEquals("Person " + i, manager.get("person" + i, Person.class).getName());
+		}
+	}
+
+	@Test
+	public void testDedupe() throws Exception {
+		Resource r = manager.add(person("johndoe", "John"));
+		try (UnitOfWork uow = manager.beginUnitOfWork()) {
+			Person john = uow.get("johndoe", Person.class);
+			assertSame(john, uow.get("johndoe", Person.class));
+			john.setName("John Doe");
+			uow.update(john);
+			john.setEmail("johndoe2@example.com");
+			uow.add(john);
+			uow.commit();
+		}
+		Person john = manager.get(r, Person.class);
+		assertEquals("John Doe", john.getName());
+		assertEquals("johndoe2@example.com", john.getEmail());
+		assertEquals(1, Iterations.asList(manager.getRepositoryConnection().getStatements(r,
+				SimpleValueFactory.getInstance().createIRI("http://xmlns.com/foaf/0.1/mbox"), null, false)).size());
+	}
+
+	@Test
+	public void testGraph() throws Exception {
+		Person john = person("johndoe", "John Doe");
+		Person mary = person("marysmith", "Mary Smith");
+		Person jim = person(null, "Jim Smith");
+		Set<Person> johnKnows = new HashSet<>();
+		johnKnows.add(mary);
+		johnKnows.add(jim);
+		john.setKnows(johnKnows);
+		Set<Person> maryKnows = new HashSet<>();
+		maryKnows.add(john);
+		mary.setKnows(maryKnows);
+
+		try (UnitOfWork uow = manager.beginUnitOfWork()) {
+			uow.add(john);
+			uow.add(mary);
+			uow.commit();
+		}
+		Person john2 = manager.get("johndoe", Person.class);
+		assertEquals(2, john2.getKnows().size());
+		Person mary2 = manager.get("marysmith", Person.class);
+		assertEquals("Mary Smith", mary2.getName());
+		assertEquals("johndoe", mary2.getKnows().iterator().next().getId());
+
+		// the same graph written by update() leaves the same statements
+		long size = manager.getRepositoryConnection().size();
+		try (UnitOfWork uow = manager.beginUnitOfWork()) {
+			uow.update(mary);
+			uow.commit();
+		}
+		assertEquals(size, manager.getRepositoryConnection().size());
+	}
+
+	@Test
+	public void testDelete() throws Exception {
+		Resource r = manager.add(person("johndoe", "John Doe"));
+		try (UnitOfWork uow = manager.beginUnitOfWork()) {
+			uow.delete("johndoe", Person.class);
+			assertNull(uow.get(r, Person.class));
+			assertFalse(uow.isResourceExist(r));
+			assertTrue(manager.isResourceExist(r));
+			uow.commit();
+		}
+		assertFalse(manager.isResourceExist(r));
+	}
+
+	@Test
+	public void testPendingClassMismatch() throws Exception {
+		Resource r = manager.add(person("johndoe", "John"));
+		try (UnitOfWork uow = manager.beginUnitOfWork()) {
+			uow.update(person("johndoe", "John Doe"));
+			try {
+				uow.get(r, IPerson.class);
+				fail("Stale repository state must not be returned");
+			} catch (RDFBeanException e) {
+				// expected
+			}
+			assertEquals("John Doe", uow.get(r, Person.class).getName());
+		}
+	}
+
+	@Test
+	public void testDeleteAndAdd() throws Exception {
+		manager.add(person("johndoe", "John"));
+		try (UnitOfWork uow = manager.beginUnitOfWork()) {
+			uow.delete("johndoe", Person.class);
+			uow.add(person("johndoe", "John Doe"));
+			uow.commit();
+		}
+		assertEquals("John Doe", manager.get("johndoe", Person.class).getName());
+	}
+
+	@Test
+	public void testRollback() throws Exception {
+		try (UnitOfWork uow = manager.beginUnitOfWork()) {
+			uow.add(person("johndoe", "John Doe"));
+			uow.rollback();
+			assertNull(uow.get("johndoe", Person.class));
+			uow.commit();
+		}
+		assertNull(manager.get("johndoe", Person.class));
+	}
+
+	@Test
+	public void testActiveTransaction() throws Exception {
+		manager.getRepositoryConnection().begin();
+		try (UnitOfWork uow = manager.beginUnitOfWork()) {
+			uow.add(person("johndoe", "John Doe"));
+			uow.commit();
+		}
+		try (RDFBeanManager manager2 = new RDFBeanManager(repo)) {
+			assertNull(manager2.get("johndoe", Person.class));
+			manager.getRepositoryConnection().commit();
+			assertNotNull(manager2.get("johndoe", Person.class));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testClosed() throws Exception {
+		UnitOfWork uow = manager.beginUnitOfWork();
+		uow.close();
+		uow.add(person("johndoe", "John Doe"));
+	}
+}
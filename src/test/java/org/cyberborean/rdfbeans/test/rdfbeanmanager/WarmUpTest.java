@@ -0,0 +1,54 @@
+package org.cyberborean.rdfbeans.test.rdfbeanmanager;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cyberborean.rdfbeans.RDFBeanManager;
+import org.cyberborean.rdfbeans.WarmUpReport;
+import org.cyberborean.rdfbeans.test.RDFBeansTestBase;
+import org.cyberborean.rdfbeans.test.examples.entities.IPerson;
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.junit.Test;
+
+public class WarmUpTest extends RDFBeansTestBase {
+
+	@Test
+	public void testPackages() throws Exception {
+		WarmUpReport report = manager.warmUp("org.cyberborean.rdfbeans.test.examples");
+		List<Class<?>> classes = new ArrayList<>();
+		for (WarmUpReport.Entry e : report.getEntries()) {
+			classes.add(e.getRDFBeanClass());
+			assertTrue(e.getTime(TimeUnit.NANOSECONDS) >= 0);
+		}
+		assertTrue(classes.contains(Person.class));
+		assertTrue(classes.contains(IPerson.class));
+		// not an RDFBean class
+		assertFalse(classes.contains(org.cyberborean.rdfbeans.test.examples.ExampleIFaceTest.class));
+		assertTrue(report.getFailures().isEmpty());
+		assertTrue(report.toString().contains(Person.class.getName()));
+	}
+
+	@Test
+	public void testFailure() throws Exception {
+		WarmUpReport report = manager.warmUp(Arrays.<Class<?>>asList(Person.class, String.class));
+		assertEquals(2, report.getEntries().size());
+		assertEquals(1, report.getFailures().size());
+		assertEquals(String.class, report.getFailures().get(0).getRDFBeanClass());
+	}
+
+	@Test
+	public void testStoredBindings() throws Exception {
+		Person p = new Person();
+		p.setId("johndoe");
+		p.setName("John Doe");
+		manager.add(p);
+		try (RDFBeanManager manager2 = new RDFBeanManager(repo)) {
+			assertTrue(manager2.warmUp(Arrays.<Class<?>>asList(Person.class)).getFailures().isEmpty());
+			assertEquals("John Doe", ((Person) manager2.get(manager.getResource("johndoe", Person.class))).getName());
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package org.cyberborean.rdfbeans.test.reflect;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.cyberborean.rdfbeans.reflect.RDFProperty;
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.cyberborean.rdfbeans.test.foafexample.entities.IPerson;
+import org.eclipse.rdf4j.model.IRI;
+import org.junit.Test;
+
+public class GeneratedMetadataTest {
+
+	@Test
+	public void metadataIsGenerated() throws Exception {
+		assertNotNull(RDFBeanInfo.getGeneratedMetadata(Person.class));
+		assertNotNull(RDFBeanInfo.getGeneratedMetadata(IPerson.class));
+		// not annotated with @RDFBean itself
+		assertNull(RDFBeanInfo.getGeneratedMetadata(org.cyberborean.rdfbeans.test.foafexample.entities.impl.Person.class));
+	}
+
+	@Test
+	public void matchesReflection() throws Exception {
+		RDFBeanInfo generated = RDFBeanInfo.get(IPerson.class);
+		RDFBeanInfo reflected = RDFBeanInfo.get(org.cyberborean.rdfbeans.test.foafexample.entities.impl.Person.class);
+		assertEquals(reflected.getRDFType(), generated.getRDFType());
+		assertEquals(reflected.getSubjectProperty().getPrefix(), generated.getSubjectProperty().getPrefix());
+		assertEquals(reflected.getSubjectProperty().getPropertyDescriptor().getName(),
+				generated.getSubjectProperty().getPropertyDescriptor().getName());
+		assertEquals(properties(reflected), properties(generated));
+		for (RDFProperty p : generated.getProperties()) {
+			RDFProperty r = reflected.getProperty(p.getUri());
+			assertEquals(r.getPropertyDescriptor().getName(), p.getPropertyDescriptor().getName());
+			assertEquals(r.getPropertyType(), p.getPropertyType());
+			assertEquals(r.isInversionOfProperty(), p.isInversionOfProperty());
+			assertEquals(r.getContainerType(), p.getContainerType());
+		}
+		assertTrue(generated.getProperty("nick").isIndexedProperty());
+		assertNotNull(generated.getPropertyForMethod(IPerson.class.getMethod("getNick", int.class)));
+	}
+
+	@Test
+	public void accessors() throws Exception {
+		RDFBeanInfo info = RDFBeanInfo.get(Person.class);
+		Person person = new Person();
+		info.getSubjectProperty().setValue(person, info.getSubjectProperty().getPrefix() + "johndoe");
+		assertEquals("johndoe", person.getId());
+		info.getProperty("name").setValue(person, "John Doe");
+		assertEquals("John Doe", info.getProperty("name").getValue(person));
+		info.getProperty("nick").setValue(person, Arrays.asList("johnny", "jd"));
+		assertArrayEquals(new String[] { "johnny", "jd" }, person.getNick());
+		assertEquals(Arrays.asList("johnny", "jd"), info.getProperty("nick").getValue(person));
+	}
+
+	private static Map<IRI, String> properties(RDFBeanInfo info) {
+		Map<IRI, String> result = new HashMap<>();
+		for (RDFProperty p : info.getProperties()) {
+			result.put(p.getUri(), p.getPropertyDescriptor().getName());
+		}
+		return result;
+	}
+}
@@ -0,0 +1,144 @@
+package org.cyberborean.rdfbeans.test.reflect;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.cyberborean.rdfbeans.reflect.MetadataSnapshot;
+import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.cyberborean.rdfbeans.reflect.RDFProperty;
+import org.cyberborean.rdfbeans.test.foafexample.entities.impl.Person;
+import org.junit.After;
+import org.junit.Test;
+
+public class MetadataSnapshotTest {
+
+	@After
+	public void tearDown() {
+		RDFBeanInfo.setMetadataSnapshot(null);
+	}
+
+	@Test
+	public void missingFile() throws Exception {
+		Path dir = Files.createTempDirectory("rdfbeans");
+		MetadataSnapshot snapshot = MetadataSnapshot.read(dir.resolve("metadata.bin"));
+		assertEquals(0, snapshot.size());
+		assertFalse(snapshot.isModified());
+	}
+
+	@Test
+	public void saveAndLoad() throws Exception {
+		Path file = Files.createTempDirectory("rdfbeans").resolve("metadata.bin");
+
+		// introspect a fresh copy of the class into an empty snapshot
+		MetadataSnapshot snapshot = new MetadataSnapshot();
+		RDFBeanInfo.setMetadataSnapshot(snapshot);
+		RDFBeanInfo introspected = RDFBeanInfo.get(reload(Person.class));
+		assertEquals(1, snapshot.size());
+		assertTrue(snapshot.isModified());
+		snapshot.write(file);
+		assertFalse(snapshot.isModified());
+
+		// build another copy from the saved snapshot
+		MetadataSnapshot loaded = MetadataSnapshot.read(file);
+		assertEquals(1, loaded.size());
+		RDFBeanInfo.setMetadataSnapshot(loaded);
+		Class<?> cls = reload(Person.class);
+		RDFBeanInfo restored = RDFBeanInfo.get(cls);
+		assertFalse(loaded.isModified());
+
+		assertSame(cls, restored.getRDFBeanClass());
+		assertEquals(introspected.getRDFType(), restored.getRDFType());
+		assertEquals(introspected.getRDFNamespaces(), restored.getRDFNamespaces());
+		assertEquals(introspected.getSubjectProperty().getPrefix(), restored.getSubjectProperty().getPrefix());
+		assertEquals(introspected.getProperties().size(), restored.getProperties().size());
+		for (RDFProperty p : introspected.getProperties()) {
+			RDFProperty r = restored.getProperty(p.getUri());
+			assertNotNull(r);
+			assertEquals(p.getPropertyDescriptor().getName(), r.getPropertyDescriptor().getName());
+			assertEquals(p.getPropertyType(), r.getPropertyType());
+			assertEquals(p.isInversionOfProperty(), r.isInversionOfProperty());
+			assertEquals(p.getContainerType(), r.getContainerType());
+			assertEquals(p.isIndexedProperty(), r.isIndexedProperty());
+		}
+
+		// the accessors are bound to the restored class
+		Object person = cls.getDeclaredConstructor().newInstance();
+		restored.getProperty("name").setValue(person, "John Doe");
+		assertEquals("John Doe", cls.getMethod("getName").invoke(person));
+	}
+
+	@Test
+	public void sharedFile() throws Exception {
+		Path dir = Files.createTempDirectory("rdfbeans");
+		Path file = dir.resolve("metadata.bin");
+		RDFBeanInfo.setMetadataSnapshotFile(file);
+		MetadataSnapshot snapshot = RDFBeanInfo.getMetadataSnapshot();
+		assertNotNull(snapshot);
+
+		// the same file is accepted again and keeps the installed snapshot
+		RDFBeanInfo.setMetadataSnapshotFile(dir.resolve(".").resolve("metadata.bin"));
+		assertSame(snapshot, RDFBeanInfo.getMetadataSnapshot());
+
+		try {
+			RDFBeanInfo.setMetadataSnapshotFile(dir.resolve("other.bin"));
+			fail("A different snapshot file must be refused");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertSame(snapshot, RDFBeanInfo.getMetadataSnapshot());
+		assertEquals(file.toAbsolutePath().normalize(), RDFBeanInfo.getMetadataSnapshotFile());
+
+		RDFBeanInfo.get(reload(Person.class));
+		RDFBeanInfo.saveMetadataSnapshot();
+		assertFalse(snapshot.isModified());
+		assertEquals(1, MetadataSnapshot.read(file).size());
+		assertFalse(Files.exists(dir.resolve("other.bin")));
+
+		// installing a snapshot directly releases the file
+		RDFBeanInfo.setMetadataSnapshot(null);
+		assertNull(RDFBeanInfo.getMetadataSnapshotFile());
+	}
+
+	/**
+	 * Defines a new copy of the class, which has no cached RDFBeanInfo yet.
+	 */
+	private static Class<?> reload(final Class<?> original) throws IOException {
+		String resource = original.getName().replace('.', '/') + ".class";
+		final byte[] bytes;
+		try (InputStream in = original.getClassLoader().getResourceAsStream(resource)) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buf = new byte[4096];
+			int n;
+			while ((n = in.read(buf)) > 0) {
+				out.write(buf, 0, n);
+			}
+			bytes = out.toByteArray();
+		}
+		ClassLoader loader = new ClassLoader(original.getClassLoader()) {
+
+			private Class<?> copy;
+
+			@Override
+			protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+				if (name.equals(original.getName())) {
+					if (copy == null) {
+						copy = defineClass(name, bytes, 0, bytes.length);
+					}
+					return copy;
+				}
+				return super.loadClass(name, resolve);
+			}
+		};
+		try {
+			return loader.loadClass(original.getName());
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+package org.cyberborean.rdfbeans.test.reflect;
+
+import static org.junit.Assert.*;
+
+import java.beans.IndexedPropertyDescriptor;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cyberborean.rdfbeans.annotations.RDF;
+import org.cyberborean.rdfbeans.reflect.PropertyScanner;
+import org.cyberborean.rdfbeans.reflect.RDFBeanInfo;
+import org.cyberborean.rdfbeans.reflect.ReflectionUtil;
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.cyberborean.rdfbeans.test.foafexample.entities.IPerson;
+import org.cyberborean.rdfbeans.util.ClassScanner;
+import org.junit.Test;
+
+public class PropertyScannerTest {
+
+	@Test
+	public void matchesIntrospector() throws Exception {
+		int scanned = 0;
+		for (Class<?> cls : ClassScanner.findClasses("org.cyberborean.rdfbeans.test",
+				getClass().getClassLoader())) {
+			if (!RDFBeanInfo.isRdfBeanClass(cls)) {
+				continue;
+			}
+			PropertyDescriptor[] pds = PropertyScanner.getPropertyDescriptors(cls);
+			if (pds == null) {
+				continue;
+			}
+			assertEquals(cls.getName(), describe(introspect(cls)), describe(pds));
+			scanned++;
+		}
+		assertTrue(scanned > 10);
+	}
+
+	@Test
+	public void interfaceProperties() throws Exception {
+		PropertyDescriptor[] pds = PropertyScanner.getPropertyDescriptors(IPerson.class);
+		IndexedPropertyDescriptor nick = null;
+		for (PropertyDescriptor pd : pds) {
+			if (pd.getName().equals("nick")) {
+				nick = (IndexedPropertyDescriptor) pd;
+			}
+		}
+		assertNotNull(nick);
+		assertEquals(IPerson.class.getMethod("getNick", int.class), nick.getIndexedReadMethod());
+	}
+
+	@Test
+	public void nonPublicClassIsNotScanned() throws Exception {
+		assertNull(PropertyScanner.getPropertyDescriptors(Hidden.class));
+	}
+
+	@Test
+	public void inheritedMethodAnnotation() throws Exception {
+		Method m = org.cyberborean.rdfbeans.test.foafexample.entities.impl.Person.class.getMethod("getName");
+		RDF rdf = ReflectionUtil.getMethodAnnotation(m, RDF.class);
+		assertNotNull(rdf);
+		assertEquals(rdf, ReflectionUtil.getMethodAnnotation(IPerson.class.getMethod("getName"), RDF.class));
+		assertNull(ReflectionUtil.getMethodAnnotation(Person.class.getMethod("hashCode"), RDF.class));
+	}
+
+	private static PropertyDescriptor[] introspect(Class<?> cls) throws Exception {
+		List<PropertyDescriptor> pds = new ArrayList<>();
+		for (PropertyDescriptor pd : Introspector.getBeanInfo(cls).getPropertyDescriptors()) {
+			if (!pd.getName().equals("class")) {
+				pds.add(pd);
+			}
+		}
+		if (cls.isInterface()) {
+			for (Class<?> iface : ReflectionUtil.getAllInterfaces(cls)) {
+				for (PropertyDescriptor pd : Introspector.getBeanInfo(iface).getPropertyDescriptors()) {
+					pds.add(pd);
+				}
+			}
+		}
+		return pds.toArray(new PropertyDescriptor[pds.size()]);
+	}
+
+	private static List<String> describe(PropertyDescriptor[] pds) {
+		List<String> result = new ArrayList<>();
+		for (PropertyDescriptor pd : pds) {
+			StringBuilder sb = new StringBuilder(pd.getName());
+			sb.append(' ').append(pd.getPropertyType());
+			sb.append(' ').append(pd.getReadMethod()).append(' ').append(pd.getWriteMethod());
+			if (pd instanceof IndexedPropertyDescriptor) {
+				IndexedPropertyDescriptor ipd = (IndexedPropertyDescriptor) pd;
+				sb.append(' ').append(ipd.getIndexedReadMethod()).append(' ').append(ipd.getIndexedWriteMethod());
+			}
+			result.add(sb.toString());
+		}
+		return result;
+	}
+
+	static class Hidden {
+
+		public String getName() {
+			return null;
+		}
+	}
+
+}
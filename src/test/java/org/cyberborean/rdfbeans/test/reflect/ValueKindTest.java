@@ -0,0 +1,25 @@
+package org.cyberborean.rdfbeans.test.reflect;
+
+import static org.junit.Assert.*;
+
+import java.util.Date;
+
+import org.cyberborean.rdfbeans.reflect.ValueKind;
+import org.cyberborean.rdfbeans.test.examples.entities.Person;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.Test;
+
+public class ValueKindTest {
+
+	@Test
+	public void testKinds() throws Exception {
+		assertEquals(ValueKind.RDFBEAN, ValueKind.of(new Person()));
+		// RDFBean by an annotated interface
+		assertEquals(ValueKind.RDFBEAN, ValueKind.of(org.cyberborean.rdfbeans.test.foafexample.entities.impl.Person.class));
+		assertEquals(ValueKind.RESOURCE, ValueKind.of(SimpleValueFactory.getInstance().createIRI("urn:test:1")));
+		assertEquals(ValueKind.RESOURCE, ValueKind.of(SimpleValueFactory.getInstance().createBNode()));
+		assertEquals(ValueKind.URI, ValueKind.of(java.net.URI.create("urn:test:1")));
+		assertEquals(ValueKind.LITERAL, ValueKind.of("test"));
+		assertEquals(ValueKind.LITERAL, ValueKind.of(new Date()));
+	}
+}